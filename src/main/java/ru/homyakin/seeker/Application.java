@@ -7,24 +7,58 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.api.methods.updates.DeleteWebhook;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 import ru.homyakin.seeker.locale.LocalizationInitializer;
+import ru.homyakin.seeker.telegram.TelegramBotConfig;
+import ru.homyakin.seeker.telegram.TelegramSender;
 import ru.homyakin.seeker.telegram.TelegramUpdateReceiver;
+import ru.homyakin.seeker.telegram.TelegramWebhookServer;
 
 @SpringBootApplication
 @EnableScheduling
 public class Application implements CommandLineRunner {
     private static final Logger logger = LoggerFactory.getLogger(Application.class);
     private final TelegramUpdateReceiver telegramUpdateReceiver;
+    private final TelegramBotConfig telegramBotConfig;
+    private final TelegramSender telegramSender;
+    private final TelegramWebhookServer telegramWebhookServer;
 
-    public Application(TelegramUpdateReceiver telegramUpdateReceiver) {
+    public Application(
+        TelegramUpdateReceiver telegramUpdateReceiver,
+        TelegramBotConfig telegramBotConfig,
+        TelegramSender telegramSender,
+        TelegramWebhookServer telegramWebhookServer
+    ) {
         this.telegramUpdateReceiver = telegramUpdateReceiver;
+        this.telegramBotConfig = telegramBotConfig;
+        this.telegramSender = telegramSender;
+        this.telegramWebhookServer = telegramWebhookServer;
     }
 
     @Override
     public void run(String... args) throws Exception {
-        final var telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
-        telegramBotsApi.registerBot(telegramUpdateReceiver);
+        logger.info("Starting bot in {} mode", telegramBotConfig.mode());
+        switch (telegramBotConfig.mode()) {
+            case LONG_POLLING -> {
+                // Пока установлен вебхук, getUpdates не работает
+                telegramSender.execute(new DeleteWebhook());
+                final var telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
+                telegramBotsApi.registerBot(telegramUpdateReceiver);
+            }
+            case WEBHOOK -> {
+                telegramWebhookServer.start(telegramUpdateReceiver::onUpdateReceived);
+                telegramSender.execute(
+                    SetWebhook.builder()
+                        .url(telegramBotConfig.webhookUrl())
+                        .secretToken(telegramBotConfig.webhookSecret())
+                        // Одно соединение: иначе апдейты одного чата приходят параллельно и могут поменяться местами
+                        .maxConnections(1)
+                        .build()
+                );
+            }
+        }
     }
 
     public static void main(String[] args) {
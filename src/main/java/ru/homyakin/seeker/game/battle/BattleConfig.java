@@ -0,0 +1,18 @@
+package ru.homyakin.seeker.game.battle;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "homyakin.seeker.battle")
+public class BattleConfig {
+    private Boolean logEnabled;
+
+    public Boolean logEnabled() {
+        return logEnabled;
+    }
+
+    public void setLogEnabled(Boolean logEnabled) {
+        this.logEnabled = logEnabled;
+    }
+}
@@ -0,0 +1,154 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+Журнал боя: один удар - одно long число в растущем массиве, без объектов и форматирования строк во время боя.
+Биты удара от старших к младшим: нанесённый урон (19), индекс цели (21), индекс атакующего (21),
+атакует вторая команда (1), уворот (1), крит (1). Индексы - позиции персонажей в списках команд, переданных в бой.
+Урон больше 2^19 - 1 записывается как 2^19 - 1, по одному удару такого в игре не бывает.
+Для хранения журнал сжимается Deflater.
+ */
+public class BattleLog {
+    private static final BattleLog DISABLED = new BattleLog(false, 0);
+    private static final int INDEX_BITS = 21;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int MAX_DAMAGE = (1 << 19) - 1;
+    private static final int ATTACKER_SHIFT = 3;
+    private static final int TARGET_SHIFT = ATTACKER_SHIFT + INDEX_BITS;
+    private static final int DAMAGE_SHIFT = TARGET_SHIFT + INDEX_BITS;
+    private static final long CRIT = 1L;
+    private static final long DODGE = 1L << 1;
+    private static final long SECOND_TEAM = 1L << 2;
+
+    private final boolean isEnabled;
+    private long[] hits;
+    private int size = 0;
+
+    private BattleLog(boolean isEnabled, int capacity) {
+        this.isEnabled = isEnabled;
+        this.hits = new long[capacity];
+    }
+
+    public static BattleLog create() {
+        return new BattleLog(true, 64);
+    }
+
+    /**
+     * Журнал, который ничего не записывает, для боёв без сохранения
+     */
+    public static BattleLog disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    void append(boolean isSecondTeamAttacks, int attacker, int target, int damage, boolean isCrit, boolean isDodge) {
+        if (!isEnabled) {
+            return;
+        }
+        if (size == hits.length) {
+            hits = Arrays.copyOf(hits, hits.length * 2);
+        }
+        long hit = (long) Math.min(damage, MAX_DAMAGE) << DAMAGE_SHIFT
+            | (target & INDEX_MASK) << TARGET_SHIFT
+            | (attacker & INDEX_MASK) << ATTACKER_SHIFT;
+        if (isSecondTeamAttacks) {
+            hit |= SECOND_TEAM;
+        }
+        if (isDodge) {
+            hit |= DODGE;
+        }
+        if (isCrit) {
+            hit |= CRIT;
+        }
+        hits[size++] = hit;
+    }
+
+    public List<Hit> hits() {
+        final var result = new ArrayList<Hit>(size);
+        for (int i = 0; i < size; ++i) {
+            final long hit = hits[i];
+            result.add(new Hit(
+                (hit & SECOND_TEAM) != 0,
+                (int) (hit >>> ATTACKER_SHIFT & INDEX_MASK),
+                (int) (hit >>> TARGET_SHIFT & INDEX_MASK),
+                (int) (hit >>> DAMAGE_SHIFT),
+                (hit & CRIT) != 0,
+                (hit & DODGE) != 0
+            ));
+        }
+        return result;
+    }
+
+    public byte[] compress() {
+        final var buffer = ByteBuffer.allocate(size * Long.BYTES);
+        buffer.asLongBuffer().put(hits, 0, size);
+        final var deflater = new Deflater();
+        try {
+            deflater.setInput(buffer.array());
+            deflater.finish();
+            final var output = new ByteArrayOutputStream(size * 2 + 16);
+            final var chunk = new byte[4096];
+            while (!deflater.finished()) {
+                output.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static BattleLog decompress(byte[] data, int hitsCount) {
+        final var bytes = new byte[hitsCount * Long.BYTES];
+        final var inflater = new Inflater();
+        int read = 0;
+        try {
+            inflater.setInput(data);
+            while (read < bytes.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(bytes, read, bytes.length - read);
+                // Обрезанные данные: без этой проверки inflate вечно возвращает 0
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Battle log is corrupted", e);
+        } finally {
+            inflater.end();
+        }
+        if (read != bytes.length) {
+            throw new IllegalArgumentException(
+                "Battle log is corrupted: expected " + bytes.length + " bytes, got " + read
+            );
+        }
+        final var log = new BattleLog(true, hitsCount);
+        ByteBuffer.wrap(bytes).asLongBuffer().get(log.hits, 0, hitsCount);
+        log.size = hitsCount;
+        return log;
+    }
+
+    public record Hit(
+        boolean isSecondTeamAttacks,
+        int attacker,
+        int target,
+        int damage,
+        boolean isCrit,
+        boolean isDodge
+    ) {
+    }
+}
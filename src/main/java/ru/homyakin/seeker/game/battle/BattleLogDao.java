@@ -0,0 +1,110 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.utils.TimeUtils;
+
+@Component
+public class BattleLogDao {
+    private static final String SAVE = """
+        INSERT INTO battle_log (duel_id, launched_event_id, seed, first_team, second_team,
+        first_team_characteristics, second_team_characteristics, hits_count, hits, creation_date)
+        VALUES (:duel_id, :launched_event_id, :seed, :first_team, :second_team,
+        :first_team_characteristics, :second_team_characteristics, :hits_count, :hits, :creation_date)
+        """;
+
+    private static final String GET_BY_DUEL_ID = """
+        SELECT * FROM battle_log WHERE duel_id = :duel_id
+        """;
+
+    private static final String GET_BY_LAUNCHED_EVENT_ID = """
+        SELECT * FROM battle_log WHERE launched_event_id = :launched_event_id
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public BattleLogDao(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Составы должны быть сняты до боя: бой меняет здоровье в массивах
+     */
+    public void saveForDuel(
+        long duelId,
+        long seed,
+        PersonageRoster firstTeam,
+        PersonageRoster secondTeam,
+        BattleLog log
+    ) {
+        save(duelId, null, seed, firstTeam, secondTeam, log);
+    }
+
+    public void saveForLaunchedEvent(
+        long launchedEventId,
+        long seed,
+        PersonageRoster firstTeam,
+        PersonageRoster secondTeam,
+        BattleLog log
+    ) {
+        save(null, launchedEventId, seed, firstTeam, secondTeam, log);
+    }
+
+    public Optional<SavedBattleLog> getByDuelId(long duelId) {
+        final var params = Collections.singletonMap("duel_id", duelId);
+        return jdbcTemplate.query(GET_BY_DUEL_ID, params, this::mapRow).stream().findFirst();
+    }
+
+    public Optional<SavedBattleLog> getByLaunchedEventId(long launchedEventId) {
+        final var params = Collections.singletonMap("launched_event_id", launchedEventId);
+        return jdbcTemplate.query(GET_BY_LAUNCHED_EVENT_ID, params, this::mapRow).stream().findFirst();
+    }
+
+    private void save(
+        Long duelId,
+        Long launchedEventId,
+        long seed,
+        PersonageRoster firstTeam,
+        PersonageRoster secondTeam,
+        BattleLog log
+    ) {
+        final var params = new HashMap<String, Object>();
+        params.put("duel_id", duelId);
+        params.put("launched_event_id", launchedEventId);
+        params.put("seed", seed);
+        params.put("first_team", firstTeam.ids());
+        params.put("second_team", secondTeam.ids());
+        params.put("first_team_characteristics", firstTeam.characteristics());
+        params.put("second_team_characteristics", secondTeam.characteristics());
+        params.put("hits_count", log.size());
+        params.put("hits", log.compress());
+        params.put("creation_date", TimeUtils.moscowTime());
+        jdbcTemplate.update(SAVE, params);
+    }
+
+    private SavedBattleLog mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new SavedBattleLog(
+            rs.getLong("id"),
+            rs.getLong("seed"),
+            restoreTeam(rs, "first_team"),
+            restoreTeam(rs, "second_team"),
+            BattleLog.decompress(rs.getBytes("hits"), rs.getInt("hits_count"))
+        );
+    }
+
+    private static PersonageRoster restoreTeam(ResultSet rs, String column) throws SQLException {
+        final var ids = (Long[]) rs.getArray(column).getArray();
+        final var characteristics = (Integer[]) rs.getArray(column + "_characteristics").getArray();
+        return PersonageRoster.restore(
+            Arrays.stream(ids).mapToLong(Long::longValue).toArray(),
+            Arrays.stream(characteristics).mapToInt(Integer::intValue).toArray()
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BattleLogService {
+    private final BattleConfig config;
+    private final BattleLogDao battleLogDao;
+
+    public BattleLogService(BattleConfig config, BattleLogDao battleLogDao) {
+        this.config = config;
+        this.battleLogDao = battleLogDao;
+    }
+
+    /**
+     * Если журнал выключен в конфиге, бой идёт без записи ударов. Зерно и составы сохраняются всё равно
+     */
+    public BattleLog newLog() {
+        return config.logEnabled() ? BattleLog.create() : BattleLog.disabled();
+    }
+
+    /**
+     * firstTeam и secondTeam - составы до боя, по ним и seed бой повторяется после смены характеристик
+     */
+    public void saveDuelLog(long duelId, long seed, PersonageRoster firstTeam, PersonageRoster secondTeam, BattleLog log) {
+        battleLogDao.saveForDuel(duelId, seed, firstTeam, secondTeam, log);
+    }
+
+    public void saveRaidLog(long launchedEventId, long seed, PersonageRoster firstTeam, PersonageRoster secondTeam, BattleLog log) {
+        battleLogDao.saveForLaunchedEvent(launchedEventId, seed, firstTeam, secondTeam, log);
+    }
+
+    public Optional<SavedBattleLog> getDuelLog(long duelId) {
+        return battleLogDao.getByDuelId(duelId);
+    }
+
+    public Optional<SavedBattleLog> getRaidLog(long launchedEventId) {
+        return battleLogDao.getByLaunchedEventId(launchedEventId);
+    }
+}
@@ -1,12 +1,9 @@
 package ru.homyakin.seeker.game.battle;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.random.RandomGenerator;
 import ru.homyakin.seeker.game.personage.models.Characteristics;
-import ru.homyakin.seeker.utils.RandomUtils;
 
 public class BattlePersonage implements Cloneable {
-    private static final Logger logger = LoggerFactory.getLogger(BattlePersonage.class);
     private final long id;
     private int health;
     private long damageDealt = 0L;
@@ -38,18 +35,34 @@ public class BattlePersonage implements Cloneable {
         return health <= 0;
     }
 
-    public void dealDamageToPersonage(BattlePersonage enemy) {
-        double attack = this.characteristics.attack + this.characteristics.strength * strengthMultiplier
-            - enemy.characteristics.defense * defenseMultiplier;
-        attack = Math.max(minAttack(), attack);
-        attack *= critBonus(enemy.characteristics.agility);
-        damageDealt += enemy.takeDamageAndReturnDealtDamage((int) attack, this);
+    public void dealDamageToPersonage(BattlePersonage enemy, RandomGenerator random) {
+        final double attack = attack(
+            random, characteristics.attack, characteristics.strength, characteristics.wisdom,
+            enemy.characteristics.defense, enemy.characteristics.agility
+        );
+        damageDealt += enemy.takeDamageAndReturnDealtDamage((int) attack, this, random);
+    }
+
+    long damageDealt() {
+        return damageDealt;
+    }
+
+    BattleCharacteristics characteristics() {
+        return characteristics;
+    }
+
+    /**
+     * Переносит в персонажа состояние после боя, который шёл не через dealDamageToPersonage
+     */
+    void updateAfterBattle(int health, long damageDealt, long damageBlocked) {
+        this.health = health;
+        this.damageDealt += damageDealt;
+        this.damageBlocked += damageBlocked;
     }
 
-    private int takeDamageAndReturnDealtDamage(int attack, BattlePersonage enemy) {
+    private int takeDamageAndReturnDealtDamage(int attack, BattlePersonage enemy, RandomGenerator random) {
         damageBlocked += attack;
-        if (isDodge()) {
-            logger.debug("Personage {} missed {}", enemy.id, id);
+        if (isDodge(random, characteristics.agility)) {
             return 0;
         }
         final int dealtDamage;
@@ -60,29 +73,34 @@ public class BattlePersonage implements Cloneable {
             dealtDamage = attack;
             health -= attack;
         }
-        logger.debug("Personage {} attacked {} by {} damage", enemy.id, id, dealtDamage);
         return dealtDamage;
     }
 
-    private boolean isDodge() {
-        var dodgeChance = baseDodgeChance + this.characteristics.agility * agilityDodgeChanceMultiplier;
-        dodgeChance = Math.min(maxDodgeChance, dodgeChance);
-        return RandomUtils.getInInterval(1, 100) <= dodgeChance;
+    // Формулы боя без состояния, их же использует TwoPersonageTeamsBattle
+    static double attack(RandomGenerator random, int attack, int strength, int wisdom, int enemyDefense, int enemyAgility) {
+        return attack(attack, strength, wisdom, enemyDefense, enemyAgility, isCrit(random, wisdom));
     }
 
-    private double critBonus(int enemyAgility) {
-        final var wisdom = this.characteristics.wisdom;
-        var critChance = baseCritChance + wisdom * wisdomCritChanceMultiplier;
-        critChance = Math.min(maxCritChance, critChance);
-        if (RandomUtils.getInInterval(1, 100) <= critChance) {
-            return baseCritMulti + (Math.max(wisdom - enemyAgility * agilityCritMultiMultiplier, 0)) * wisdomCritMultiplier;
+    static double attack(int attack, int strength, int wisdom, int enemyDefense, int enemyAgility, boolean isCrit) {
+        double result = attack + strength * strengthMultiplier - enemyDefense * defenseMultiplier;
+        result = Math.max(attack * minAttackPercent, result);
+        if (isCrit) {
+            return result * (baseCritMulti + (Math.max(wisdom - enemyAgility * agilityCritMultiMultiplier, 0)) * wisdomCritMultiplier);
         } else {
-            return baseCritMulti;
+            return result * baseCritMulti;
         }
     }
 
-    private double minAttack() {
-        return characteristics.attack() * minAttackPercent;
+    static boolean isCrit(RandomGenerator random, int wisdom) {
+        var critChance = baseCritChance + wisdom * wisdomCritChanceMultiplier;
+        critChance = Math.min(maxCritChance, critChance);
+        return random.nextInt(1, 101) <= critChance;
+    }
+
+    static boolean isDodge(RandomGenerator random, int agility) {
+        var dodgeChance = baseDodgeChance + agility * agilityDodgeChanceMultiplier;
+        dodgeChance = Math.min(maxDodgeChance, dodgeChance);
+        return random.nextInt(1, 101) <= dodgeChance;
     }
 
     // TODO вынести в базу
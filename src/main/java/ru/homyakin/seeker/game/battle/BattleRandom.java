@@ -0,0 +1,33 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.security.SecureRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/*
+Генераторы случайных чисел для боёв. У каждого боя свой генератор, поэтому параллельные бои не делят общий.
+Зерно каждого боя случайное, иначе исход можно было бы посчитать заранее по публичному id дуэли или события.
+Зерно сохраняется вместе с журналом боя, и по нему и составу команд бой можно повторить.
+ */
+public class BattleRandom {
+    private static final String ALGORITHM = "L64X128MixRandom";
+    private static final RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(ALGORITHM);
+    private static final RandomGeneratorFactory<RandomGenerator.SplittableGenerator> splittableFactory =
+        RandomGeneratorFactory.of(ALGORITHM);
+    private static final SecureRandom seeds = new SecureRandom();
+
+    public static long newSeed() {
+        return seeds.nextLong();
+    }
+
+    public static RandomGenerator seeded(long seed) {
+        return factory.create(seed);
+    }
+
+    /**
+     * Генератор, от которого можно отщеплять независимые генераторы для параллельных боёв
+     */
+    public static RandomGenerator.SplittableGenerator splittable(long seed) {
+        return splittableFactory.create(seed);
+    }
+}
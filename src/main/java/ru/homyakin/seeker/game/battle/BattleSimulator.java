@@ -0,0 +1,126 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/*
+Оценка исходов боя методом Монте-Карло для подбора баланса. Бои делятся между потоками ForkJoinPool,
+генератор случайных чисел отщепляется вместе с диапазоном боёв, поэтому при том же зерне результат
+не зависит от количества потоков. База не нужна, симуляцию можно запускать в тестах.
+ */
+public class BattleSimulator {
+    // Диапазон боёв меньше этого считается в одном потоке без деления
+    private static final int BATTLES_PER_TASK = 1024;
+    private final TwoPersonageTeamsBattle battle;
+    private final ForkJoinPool pool;
+
+    public BattleSimulator(TwoPersonageTeamsBattle battle, ForkJoinPool pool) {
+        this.battle = battle;
+        this.pool = pool;
+    }
+
+    public SimulationReport simulate(
+        List<BattlePersonage> firstTeam,
+        List<BattlePersonage> secondTeam,
+        int battles,
+        long seed
+    ) {
+        final var stats = pool.invoke(
+            new SimulationTask(firstTeam, secondTeam, 0, battles, BattleRandom.splittable(seed))
+        );
+        final double winRate = (double) stats.firstTeamWins / battles;
+        return new SimulationReport(
+            battles,
+            winRate,
+            1.96 * Math.sqrt(winRate * (1 - winRate) / battles),
+            (double) stats.turns / battles,
+            SimulationReport.Damage.from(stats.firstTeamDamage),
+            SimulationReport.Damage.from(stats.secondTeamDamage)
+        );
+    }
+
+    private class SimulationTask extends RecursiveTask<Stats> {
+        private final List<BattlePersonage> firstTeam;
+        private final List<BattlePersonage> secondTeam;
+        private final int from;
+        private final int to;
+        private final RandomGenerator.SplittableGenerator random;
+
+        SimulationTask(
+            List<BattlePersonage> firstTeam,
+            List<BattlePersonage> secondTeam,
+            int from,
+            int to,
+            RandomGenerator.SplittableGenerator random
+        ) {
+            this.firstTeam = firstTeam;
+            this.secondTeam = secondTeam;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= BATTLES_PER_TASK) {
+                return simulateRange();
+            }
+            final int middle = (from + to) >>> 1;
+            final var left = new SimulationTask(firstTeam, secondTeam, from, middle, random.split());
+            final var right = new SimulationTask(firstTeam, secondTeam, middle, to, random);
+            left.fork();
+            final var stats = right.compute();
+            stats.merge(left.join());
+            return stats;
+        }
+
+        private Stats simulateRange() {
+            final var stats = new Stats();
+            for (int i = from; i < to; ++i) {
+                final var first = copy(firstTeam);
+                final var second = copy(secondTeam);
+                final var result = battle.battle(first, second, random);
+                if (result instanceof TwoPersonageTeamsBattle.Result.FirstTeamWin) {
+                    ++stats.firstTeamWins;
+                }
+                stats.turns += result.turns();
+                stats.firstTeamDamage.add(damageDealt(first));
+                stats.secondTeamDamage.add(damageDealt(second));
+            }
+            return stats;
+        }
+    }
+
+    private static List<BattlePersonage> copy(List<BattlePersonage> personages) {
+        final var copy = new ArrayList<BattlePersonage>(personages.size());
+        for (final var personage : personages) {
+            copy.add(personage.clone());
+        }
+        return copy;
+    }
+
+    private static long damageDealt(List<BattlePersonage> team) {
+        long damage = 0;
+        for (final var personage : team) {
+            damage += personage.damageDealt();
+        }
+        return damage;
+    }
+
+    private static class Stats {
+        private long firstTeamWins = 0;
+        private long turns = 0;
+        private final DamageHistogram firstTeamDamage = new DamageHistogram();
+        private final DamageHistogram secondTeamDamage = new DamageHistogram();
+
+        private void merge(Stats other) {
+            firstTeamWins += other.firstTeamWins;
+            turns += other.turns;
+            firstTeamDamage.merge(other.firstTeamDamage);
+            secondTeamDamage.merge(other.secondTeamDamage);
+        }
+    }
+}
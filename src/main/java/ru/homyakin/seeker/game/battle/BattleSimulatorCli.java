@@ -0,0 +1,96 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+
+/*
+Запуск симуляции боя из консоли, без Spring и базы:
+mvn -Psimulation compile exec:exec -Dsimulation="first=boss second=default:4 battles=1000000"
+
+Команда задаётся группами персонажей через +:
+default:N - N персонажей со стандартными характеристиками,
+health/attack/defense/strength/agility/wisdom:N - N персонажей с заданными характеристиками,
+boss - босс рейда из SingleBossGenerator под размер второй команды.
+ */
+public class BattleSimulatorCli {
+    private static final String BOSS = "boss";
+
+    public static void main(String[] args) {
+        final Map<String, String> options = new HashMap<>(Map.of(
+            "first", BOSS,
+            "second", "default:4",
+            "battles", "1000000",
+            "seed", "42",
+            "threads", String.valueOf(Runtime.getRuntime().availableProcessors())
+        ));
+        try {
+            for (final var arg : args) {
+                final var keyValue = arg.split("=", 2);
+                if (keyValue.length != 2 || !options.containsKey(keyValue[0])) {
+                    throw new IllegalArgumentException("Unknown argument " + arg);
+                }
+                options.put(keyValue[0], keyValue[1]);
+            }
+            if (BOSS.equals(options.get("second"))) {
+                throw new IllegalArgumentException("Boss can be only in the first team");
+            }
+            final var second = team(options.get("second"), 0);
+            final var first = team(options.get("first"), second.size());
+            final var pool = new ForkJoinPool(Integer.parseInt(options.get("threads")));
+
+            final long start = System.nanoTime();
+            final var report = new BattleSimulator(new TwoPersonageTeamsBattle(), pool).simulate(
+                first,
+                second,
+                Integer.parseInt(options.get("battles")),
+                Long.parseLong(options.get("seed"))
+            );
+            System.out.println(report.format());
+            System.out.printf("elapsed:      %d ms%n", (System.nanoTime() - start) / 1_000_000);
+            pool.shutdown();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: first=<team> second=<team> battles=<count> seed=<long> threads=<count>");
+            System.exit(1);
+        }
+    }
+
+    private static List<BattlePersonage> team(String spec, int enemiesCount) {
+        if (BOSS.equals(spec)) {
+            return new SingleBossGenerator().generate(enemiesCount);
+        }
+        final var team = new ArrayList<BattlePersonage>();
+        for (final var group : spec.split("\\+")) {
+            final var characteristicsAndCount = group.split(":", 2);
+            final int count = characteristicsAndCount.length == 2 ? Integer.parseInt(characteristicsAndCount[1]) : 1;
+            final var characteristics = characteristics(characteristicsAndCount[0]);
+            for (int i = 0; i < count; ++i) {
+                team.add(new BattlePersonage(team.size() + 1, characteristics));
+            }
+        }
+        return team;
+    }
+
+    private static Characteristics characteristics(String spec) {
+        if ("default".equals(spec)) {
+            return Characteristics.createDefault();
+        }
+        final var values = spec.split("/");
+        if (values.length != 6) {
+            throw new IllegalArgumentException("Expected health/attack/defense/strength/agility/wisdom, got " + spec);
+        }
+        return new Characteristics(
+            Integer.parseInt(values[0]),
+            Integer.parseInt(values[1]),
+            Integer.parseInt(values[2]),
+            Integer.parseInt(values[3]),
+            Integer.parseInt(values[4]),
+            Integer.parseInt(values[5])
+        );
+    }
+}
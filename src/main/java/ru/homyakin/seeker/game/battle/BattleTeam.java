@@ -0,0 +1,127 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.random.RandomGenerator;
+
+/*
+Команда в бою поверх массивов PersonageRoster: здоровье и урон меняются прямо в составе.
+Очередь ходов - кольцевой буфер индексов, живые персонажи - массив с удалением через замену последним,
+поэтому ход и выбор случайной цели не зависят от размера команды и ничего не аллоцируют.
+ */
+final class BattleTeam {
+    private final RandomGenerator random;
+    private final boolean isSecondTeam;
+    private final int[] health;
+    private final int[] attack;
+    private final int[] defense;
+    private final int[] strength;
+    private final int[] agility;
+    private final int[] wisdom;
+    private final long[] damageDealt;
+    private final long[] damageBlocked;
+
+    private final int[] turnOrder;
+    private int turnHead = 0;
+    private int turnCount;
+
+    private final int[] alive;
+    // Позиция персонажа в alive, нужна для удаления за O(1)
+    private final int[] alivePosition;
+    private int aliveCount;
+
+    BattleTeam(PersonageRoster roster, RandomGenerator random, boolean isSecondTeam) {
+        final int size = roster.size();
+        this.random = random;
+        this.isSecondTeam = isSecondTeam;
+        health = roster.health;
+        attack = roster.attack;
+        defense = roster.defense;
+        strength = roster.strength;
+        agility = roster.agility;
+        wisdom = roster.wisdom;
+        damageDealt = roster.damageDealt;
+        damageBlocked = roster.damageBlocked;
+        turnOrder = new int[size];
+        alive = new int[size];
+        alivePosition = new int[size];
+        // Персонажи без здоровья в бой не вступают: ни ходить, ни быть целью они не должны
+        aliveCount = 0;
+        for (int i = 0; i < size; ++i) {
+            if (health[i] > 0) {
+                turnOrder[aliveCount] = i;
+                alive[aliveCount] = i;
+                alivePosition[i] = aliveCount;
+                ++aliveCount;
+            }
+        }
+        turnCount = aliveCount;
+        shuffleTurnOrder();
+    }
+
+    boolean hasAlive() {
+        return aliveCount > 0;
+    }
+
+    /**
+     * Персонаж, который ходит следующим. Погибшие выбывают из очереди, когда до них доходит ход
+     * @throws IllegalStateException если в очереди не осталось живых, вызывать только при hasAlive
+     */
+    int nextAttacker() {
+        while (turnCount > 0) {
+            final int index = turnOrder[turnHead];
+            turnHead = (turnHead + 1) % turnOrder.length;
+            --turnCount;
+            if (health[index] > 0) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("No alive personage left in turn order");
+    }
+
+    void endTurn(int attacker) {
+        turnOrder[(turnHead + turnCount) % turnOrder.length] = attacker;
+        ++turnCount;
+    }
+
+    int randomAlive() {
+        return alive[random.nextInt(aliveCount)];
+    }
+
+    void attack(int attacker, BattleTeam enemies, int target, BattleLog log) {
+        final boolean isCrit = BattlePersonage.isCrit(random, wisdom[attacker]);
+        final int damage = (int) BattlePersonage.attack(
+            attack[attacker], strength[attacker], wisdom[attacker],
+            enemies.defense[target], enemies.agility[target], isCrit
+        );
+        enemies.damageBlocked[target] += damage;
+        final boolean isDodge = BattlePersonage.isDodge(random, enemies.agility[target]);
+        final int dealtDamage = isDodge ? 0 : enemies.takeDamage(target, damage);
+        damageDealt[attacker] += dealtDamage;
+        log.append(isSecondTeam, attacker, target, dealtDamage, isCrit, isDodge);
+    }
+
+    private int takeDamage(int target, int damage) {
+        final int dealtDamage = Math.min(health[target], damage);
+        health[target] -= dealtDamage;
+        if (health[target] <= 0) {
+            removeAlive(target);
+        }
+        return dealtDamage;
+    }
+
+    private void removeAlive(int index) {
+        final int position = alivePosition[index];
+        final int last = alive[aliveCount - 1];
+        alive[position] = last;
+        alivePosition[last] = position;
+        --aliveCount;
+    }
+
+    private void shuffleTurnOrder() {
+        for (int i = turnCount - 1; i > 0; --i) {
+            final int j = random.nextInt(i + 1);
+            final int swap = turnOrder[i];
+            turnOrder[i] = turnOrder[j];
+            turnOrder[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.homyakin.seeker.game.battle;
+
+/*
+Гистограмма урона за бой с бакетами, растущими на 5%. Перцентили получаются с той же точностью,
+зато память не зависит от количества боёв.
+ */
+final class DamageHistogram {
+    private static final double GROWTH = 1.05;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    // 1.05^512 больше 10^10, такого урона за бой не бывает
+    private static final int BUCKETS = 512;
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+    private long sum = 0;
+
+    void add(long value) {
+        ++counts[bucket(value)];
+        ++total;
+        sum += value;
+    }
+
+    void merge(DamageHistogram other) {
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+    }
+
+    double mean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /**
+     * Верхняя граница бакета, в который попадает перцентиль
+     */
+    long percentile(double quantile) {
+        final double threshold = quantile * total;
+        long count = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            count += counts[i];
+            if (counts[i] > 0 && count >= threshold) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    // В нулевом бакете только нулевой урон, в бакете i значения из [1.05^(i-1), 1.05^i)
+    private static int bucket(long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 1 + (int) (Math.log(value) / LOG_GROWTH));
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return (long) Math.ceil(Math.pow(GROWTH, bucket));
+    }
+}
@@ -0,0 +1,167 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+Состав команды в виде массивов: характеристики, здоровье и урон персонажа лежат под одним индексом.
+Бой меняет здоровье и урон прямо в этих массивах, поэтому большой рейд можно загрузить из базы сразу сюда,
+без промежуточных объектов персонажей, и по этим же массивам посчитать награды.
+ */
+public final class PersonageRoster {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int CHARACTERISTICS_COUNT = 6;
+    private long[] ids;
+    int[] health;
+    int[] attack;
+    int[] defense;
+    int[] strength;
+    int[] agility;
+    int[] wisdom;
+    long[] damageDealt;
+    long[] damageBlocked;
+    private int size = 0;
+
+    public PersonageRoster() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PersonageRoster(int capacity) {
+        ids = new long[capacity];
+        health = new int[capacity];
+        attack = new int[capacity];
+        defense = new int[capacity];
+        strength = new int[capacity];
+        agility = new int[capacity];
+        wisdom = new int[capacity];
+        damageDealt = new long[capacity];
+        damageBlocked = new long[capacity];
+    }
+
+    public static PersonageRoster of(List<BattlePersonage> personages) {
+        final var roster = new PersonageRoster(personages.size());
+        for (final var personage : personages) {
+            final var characteristics = personage.characteristics();
+            roster.add(
+                personage.id(),
+                personage.health(),
+                characteristics.attack(),
+                characteristics.defense(),
+                characteristics.strength(),
+                characteristics.agility(),
+                characteristics.wisdom()
+            );
+        }
+        return roster;
+    }
+
+    /**
+     * Характеристики всех персонажей подряд, по CHARACTERISTICS_COUNT чисел на персонажа:
+     * здоровье, атака, защита, сила, ловкость, мудрость
+     */
+    public static PersonageRoster restore(long[] ids, int[] characteristics) {
+        if (characteristics.length != ids.length * CHARACTERISTICS_COUNT) {
+            throw new IllegalArgumentException(
+                "Expected " + ids.length * CHARACTERISTICS_COUNT + " characteristics, got " + characteristics.length
+            );
+        }
+        final var roster = new PersonageRoster(ids.length);
+        for (int i = 0; i < ids.length; ++i) {
+            final int offset = i * CHARACTERISTICS_COUNT;
+            roster.add(
+                ids[i],
+                characteristics[offset],
+                characteristics[offset + 1],
+                characteristics[offset + 2],
+                characteristics[offset + 3],
+                characteristics[offset + 4],
+                characteristics[offset + 5]
+            );
+        }
+        return roster;
+    }
+
+    public void add(long id, int health, int attack, int defense, int strength, int agility, int wisdom) {
+        if (size == ids.length) {
+            grow();
+        }
+        this.ids[size] = id;
+        this.health[size] = health;
+        this.attack[size] = attack;
+        this.defense[size] = defense;
+        this.strength[size] = strength;
+        this.agility[size] = agility;
+        this.wisdom[size] = wisdom;
+        ++size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public int health(int index) {
+        return health[index];
+    }
+
+    public long damageDealt(int index) {
+        return damageDealt[index];
+    }
+
+    public long damageDealtAndTaken(int index) {
+        return damageDealt[index] + damageBlocked[index];
+    }
+
+    public long[] ids() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Текущие характеристики в формате restore. До боя - состав, по которому бой можно повторить
+     */
+    public int[] characteristics() {
+        final var result = new int[size * CHARACTERISTICS_COUNT];
+        for (int i = 0; i < size; ++i) {
+            final int offset = i * CHARACTERISTICS_COUNT;
+            result[offset] = health[i];
+            result[offset + 1] = attack[i];
+            result[offset + 2] = defense[i];
+            result[offset + 3] = strength[i];
+            result[offset + 4] = agility[i];
+            result[offset + 5] = wisdom[i];
+        }
+        return result;
+    }
+
+    /**
+     * Состав с теми же характеристиками и здоровьем, без урона. Снимок до боя, который бой не изменит
+     */
+    public PersonageRoster copy() {
+        return restore(ids(), characteristics());
+    }
+
+    /**
+     * Переносит здоровье и урон в персонажей, из которых собран состав через of
+     */
+    void writeBack(List<BattlePersonage> personages) {
+        for (int i = 0; i < size; ++i) {
+            personages.get(i).updateAfterBattle(health[i], damageDealt[i], damageBlocked[i]);
+        }
+    }
+
+    private void grow() {
+        final int capacity = Math.max(DEFAULT_CAPACITY, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        health = Arrays.copyOf(health, capacity);
+        attack = Arrays.copyOf(attack, capacity);
+        defense = Arrays.copyOf(defense, capacity);
+        strength = Arrays.copyOf(strength, capacity);
+        agility = Arrays.copyOf(agility, capacity);
+        wisdom = Arrays.copyOf(wisdom, capacity);
+        damageDealt = Arrays.copyOf(damageDealt, capacity);
+        damageBlocked = Arrays.copyOf(damageBlocked, capacity);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.homyakin.seeker.game.battle;
+
+/**
+ * Журнал боя из базы. Индексы атакующего и цели в журнале - позиции в составах firstTeam и secondTeam.
+ * Составы восстановлены с характеристиками на начало боя: вместе с seed они повторяют бой,
+ * даже если журнал ударов был выключен и log пустой
+ */
+public record SavedBattleLog(
+    long id,
+    long seed,
+    PersonageRoster firstTeam,
+    PersonageRoster secondTeam,
+    BattleLog log
+) {
+}
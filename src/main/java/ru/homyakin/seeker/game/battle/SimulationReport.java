@@ -0,0 +1,45 @@
+package ru.homyakin.seeker.game.battle;
+
+/**
+ * Итог симуляции: вероятность победы первой команды с 95% доверительным интервалом,
+ * среднее число ударов за бой и распределение урона каждой команды за бой
+ */
+public record SimulationReport(
+    long battles,
+    double firstTeamWinRate,
+    double winRateError,
+    double meanTurns,
+    Damage firstTeamDamage,
+    Damage secondTeamDamage
+) {
+    public String format() {
+        return """
+            battles:      %d
+            first team:   win %.4f +- %.4f
+            turns:        mean %.2f
+            first team damage:  mean %.1f, p5 %d, p50 %d, p95 %d
+            second team damage: mean %.1f, p5 %d, p50 %d, p95 %d""".formatted(
+            battles,
+            firstTeamWinRate, winRateError,
+            meanTurns,
+            firstTeamDamage.mean(), firstTeamDamage.p5(), firstTeamDamage.p50(), firstTeamDamage.p95(),
+            secondTeamDamage.mean(), secondTeamDamage.p5(), secondTeamDamage.p50(), secondTeamDamage.p95()
+        );
+    }
+
+    public record Damage(
+        double mean,
+        long p5,
+        long p50,
+        long p95
+    ) {
+        static Damage from(DamageHistogram histogram) {
+            return new Damage(
+                histogram.mean(),
+                histogram.percentile(0.05),
+                histogram.percentile(0.5),
+                histogram.percentile(0.95)
+            );
+        }
+    }
+}
@@ -1,78 +1,88 @@
 package ru.homyakin.seeker.game.battle;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.random.RandomGenerator;
 import org.springframework.stereotype.Component;
-import ru.homyakin.seeker.utils.RandomUtils;
 
 @Component
 public class TwoPersonageTeamsBattle {
 
-    public Result battle(ArrayList<BattlePersonage> firstTeam, ArrayList<BattlePersonage> secondTeam) {
-        Collections.shuffle(firstTeam);
-        Collections.shuffle(secondTeam);
+    /**
+     * Команды ходят по очереди, внутри команды персонажи ходят по кругу в случайном порядке
+     * и бьют случайного живого противника. После боя здоровье и урон записываются в переданных персонажей.
+     * Все случайные решения берутся из random, поэтому при том же зерне и порядке персонажей бой повторяется
+     */
+    public Result battle(List<BattlePersonage> firstTeam, List<BattlePersonage> secondTeam, RandomGenerator random) {
+        return battle(firstTeam, secondTeam, random, BattleLog.disabled());
+    }
 
-        final var firstAliveTeam = firstTeam.stream()
-            .collect(Collectors.toMap(BattlePersonage::id, it -> it));
-        final Queue<Long> firstTeamAttackQueue = new LinkedList<>(firstTeam.stream().map(BattlePersonage::id).toList());
+    /**
+     * То же самое с записью каждого удара в log
+     */
+    public Result battle(
+        List<BattlePersonage> firstTeam,
+        List<BattlePersonage> secondTeam,
+        RandomGenerator random,
+        BattleLog log
+    ) {
+        final var firstRoster = PersonageRoster.of(firstTeam);
+        final var secondRoster = PersonageRoster.of(secondTeam);
+        final var result = battle(firstRoster, secondRoster, random, log);
+        firstRoster.writeBack(firstTeam);
+        secondRoster.writeBack(secondTeam);
+        return result;
+    }
 
-        final var secondAliveTeam = secondTeam.stream()
-            .collect(Collectors.toMap(BattlePersonage::id, it -> it));
-        final Queue<Long> secondTeamAttackQueue = new LinkedList<>(secondTeam.stream().map(BattlePersonage::id).toList());
+    /**
+     * Бой над составами из массивов, здоровье и урон остаются в самих составах
+     */
+    public Result battle(PersonageRoster firstTeam, PersonageRoster secondTeam, RandomGenerator random, BattleLog log) {
+        final var first = new BattleTeam(firstTeam, random, false);
+        final var second = new BattleTeam(secondTeam, random, true);
 
-        int teamTurn = RandomUtils.getInInterval(1, 2);
-        while (!firstAliveTeam.isEmpty() && !secondAliveTeam.isEmpty()) {
-            final var activeAliveTeam = teamTurn == 1 ? firstAliveTeam : secondAliveTeam;
-            final var activeTeamAttackQueue = teamTurn == 1 ? firstTeamAttackQueue : secondTeamAttackQueue;
-            final var enemyAliveTeam = teamTurn == 1 ? secondAliveTeam : firstAliveTeam;
-            final var personage = attackPersonage(activeAliveTeam, activeTeamAttackQueue);
-            final var targetPersonage = randomAlivePersonage(enemyAliveTeam);
-            personage.dealDamageToPersonage(targetPersonage);
-            activeTeamAttackQueue.add(personage.id());
-            if (targetPersonage.isDead()) {
-                enemyAliveTeam.remove(targetPersonage.id());
-            }
-            teamTurn = teamTurn == 1 ? 2 : 1;
+        boolean isFirstTeamTurn = random.nextBoolean();
+        int turns = 0;
+        while (first.hasAlive() && second.hasAlive()) {
+            final var activeTeam = isFirstTeamTurn ? first : second;
+            final var enemyTeam = isFirstTeamTurn ? second : first;
+            final int attacker = activeTeam.nextAttacker();
+            activeTeam.attack(attacker, enemyTeam, enemyTeam.randomAlive(), log);
+            activeTeam.endTurn(attacker);
+            isFirstTeamTurn = !isFirstTeamTurn;
+            ++turns;
         }
 
-        if (firstAliveTeam.isEmpty()) {
-            return new Result.SecondTeamWin();
-        } else  {
-            return new Result.FirstTeamWin();
+        if (first.hasAlive()) {
+            return new Result.FirstTeamWin(turns);
+        } else {
+            return new Result.SecondTeamWin(turns);
         }
     }
 
-    private BattlePersonage attackPersonage(Map<Long, BattlePersonage> alivePersonages, Queue<Long> attackQueue) {
-        assert !attackQueue.isEmpty();
-        Long personageId;
-        do {
-            personageId = attackQueue.poll();
-        } while (!alivePersonages.containsKey(personageId));
-        return alivePersonages.get(personageId);
-    }
+    public abstract static sealed class Result {
+        private final int turns;
 
-    private BattlePersonage randomAlivePersonage(Map<Long, BattlePersonage> alivePersonages) {
-        final int random = RandomUtils.getInInterval(0, alivePersonages.size() - 1);
-        int i = 0;
-        for (final var entry : alivePersonages.entrySet()) {
-            if (i == random) {
-                return entry.getValue();
-            }
-            ++i;
+        private Result(int turns) {
+            this.turns = turns;
         }
-        return alivePersonages.values().stream().findFirst().orElseThrow();
-    }
 
-    public abstract static sealed class Result {
+        /**
+         * Количество ударов за бой обеих команд
+         */
+        public int turns() {
+            return turns;
+        }
 
         public static final class FirstTeamWin extends Result {
+            public FirstTeamWin(int turns) {
+                super(turns);
+            }
         }
 
         public static final class SecondTeamWin extends Result {
+            public SecondTeamWin(int turns) {
+                super(turns);
+            }
         }
     }
 }
@@ -1,10 +1,14 @@
 package ru.homyakin.seeker.game.duel;
 
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.game.duel.models.Duel;
+import ru.homyakin.seeker.game.duel.models.DuelStatus;
 import ru.homyakin.seeker.game.personage.PersonageService;
+import ru.homyakin.seeker.infrastructure.mailbox.MailboxExecutor;
 import ru.homyakin.seeker.locale.duel.DuelLocalization;
 import ru.homyakin.seeker.telegram.TelegramSender;
 import ru.homyakin.seeker.telegram.group.GroupService;
@@ -19,42 +23,59 @@ public class DuelManager {
     private final TelegramSender telegramSender;
     private final PersonageService personageService;
     private final UserService userService;
+    private final MailboxExecutor mailboxExecutor;
 
     public DuelManager(
         DuelService duelService,
         GroupService groupService,
         TelegramSender telegramSender,
         PersonageService personageService,
-        UserService userService
+        UserService userService,
+        MailboxExecutor mailboxExecutor
     ) {
         this.duelService = duelService;
         this.groupService = groupService;
         this.telegramSender = telegramSender;
         this.personageService = personageService;
         this.userService = userService;
+        this.mailboxExecutor = mailboxExecutor;
     }
 
     @Scheduled(cron = "0 * * * * *")
     public void scheduledExpireWaitingDuels() {
-        duelService.getExpiringDuels()
-            .forEach(duel -> {
-                    logger.debug("Expiring duel " + duel.id());
-                    duelService.expireDuel(duel.id());
-                    if (duel.messageId().isPresent()) {
-                        final var group = groupService.getOrCreate(duel.groupId());
-                        final var acceptor = personageService.getByIdForce(duel.acceptingPersonageId());
-                        final var user = userService.getByPersonageIdForce(acceptor.id());
-                        telegramSender.send(EditMessageTextBuilder.builder()
-                            .chatId(group.id())
-                            .messageId(duel.messageId().get())
-                            .text(DuelLocalization.expiredDuel(group.language(), acceptor))
-                            .mentionPersonage(acceptor, user.id(), 1)
-                            .build()
-                        );
-                    } else {
-                        logger.warn("No message for duel " + duel.id());
-                    }
-                }
+        // Истечение идёт через ящик группы, поэтому не пересекается с принятием и отказом от дуэли
+        final var expirations = duelService.getExpiringDuels()
+            .stream()
+            .map(duel -> mailboxExecutor.submit(duel.groupId(), () -> expireDuel(duel.id())))
+            .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(expirations).join();
+        } catch (Exception e) {
+            logger.error("Unable to expire some duels", e);
+        }
+    }
+
+    private void expireDuel(long duelId) {
+        final Duel duel = duelService.getByIdForce(duelId);
+        if (duel.status() != DuelStatus.WAITING) {
+            logger.debug("Duel " + duel.id() + " was already finished");
+            return;
+        }
+        logger.debug("Expiring duel " + duel.id());
+        duelService.expireDuel(duel.id());
+        if (duel.messageId().isPresent()) {
+            final var group = groupService.getOrCreate(duel.groupId());
+            final var acceptor = personageService.getByIdForce(duel.acceptingPersonageId());
+            final var user = userService.getByPersonageIdForce(acceptor.id());
+            telegramSender.send(EditMessageTextBuilder.builder()
+                .chatId(group.id())
+                .messageId(duel.messageId().get())
+                .text(DuelLocalization.expiredDuel(group.language(), acceptor))
+                .mentionPersonage(acceptor, user.id(), 1)
+                .build()
             );
+        } else {
+            logger.warn("No message for duel " + duel.id());
+        }
     }
 }
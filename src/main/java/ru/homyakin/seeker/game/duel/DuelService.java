@@ -34,12 +34,10 @@ public class DuelService {
         if (duelDao.getWaitingDuelByInitiatingPersonage(initiatingPersonage.id()).isPresent()) {
             return Either.left(new DuelError.PersonageAlreadyHasDuel());
         }
-        if (initiatingPersonage.money().lessThan(DUEL_PRICE)) {
+        if (personageService.takeMoney(initiatingPersonage, DUEL_PRICE).isLeft()) {
             return Either.left(new DuelError.InitiatingPersonageNotEnoughMoney(DUEL_PRICE));
         }
 
-        personageService.takeMoney(initiatingPersonage, DUEL_PRICE);
-
         final var id = duelDao.create(initiatingPersonage.id(), acceptingPersonage.id(), groupId, duelLifeTime);
         return Either.right(getByIdForce(id));
     }
@@ -58,13 +56,11 @@ public class DuelService {
     }
 
     public void expireDuel(long duelId) {
-        //TODO проверка на то, что статус был вейтинг
         returnMoneyToInitiator(duelId);
         duelDao.updateStatus(duelId, DuelStatus.EXPIRED);
     }
 
     public void declineDuel(long duelId) {
-        //TODO проверка на то, что статус был не финишд
         returnMoneyToInitiator(duelId);
         duelDao.updateStatus(duelId, DuelStatus.DECLINED);
     }
@@ -81,8 +77,7 @@ public class DuelService {
     }
 
     private void returnMoneyToInitiator(long duelId) {
-        final var initiatingPersonage = personageService.getByIdForce(getByIdForce(duelId).initiatingPersonageId());
-        personageService.addMoney(initiatingPersonage, DUEL_PRICE);
+        personageService.addMoney(getByIdForce(duelId).initiatingPersonageId(), DUEL_PRICE);
     }
 
     private static final Money DUEL_PRICE = new Money(3);
@@ -9,6 +9,10 @@ import org.springframework.context.annotation.Configuration;
 public class EventConfig {
     private Duration minimalInterval;
     private Duration maximumInterval;
+    private Integer stopThreads;
+    private Integer participantsFetchSize;
+    private Boolean worldRaidEnabled;
+    private Integer worldRaidAnnounceBatchSize;
 
     public Duration minimalInterval() {
         return minimalInterval;
@@ -18,6 +22,22 @@ public class EventConfig {
         return maximumInterval;
     }
 
+    public Integer stopThreads() {
+        return stopThreads;
+    }
+
+    public Integer participantsFetchSize() {
+        return participantsFetchSize;
+    }
+
+    public Boolean worldRaidEnabled() {
+        return worldRaidEnabled;
+    }
+
+    public Integer worldRaidAnnounceBatchSize() {
+        return worldRaidAnnounceBatchSize;
+    }
+
     public void setMinimalInterval(Duration minimalInterval) {
         this.minimalInterval = minimalInterval;
     }
@@ -25,4 +45,20 @@ public class EventConfig {
     public void setMaximumInterval(Duration maximumInterval) {
         this.maximumInterval = maximumInterval;
     }
+
+    public void setStopThreads(Integer stopThreads) {
+        this.stopThreads = stopThreads;
+    }
+
+    public void setParticipantsFetchSize(Integer participantsFetchSize) {
+        this.participantsFetchSize = participantsFetchSize;
+    }
+
+    public void setWorldRaidEnabled(Boolean worldRaidEnabled) {
+        this.worldRaidEnabled = worldRaidEnabled;
+    }
+
+    public void setWorldRaidAnnounceBatchSize(Integer worldRaidAnnounceBatchSize) {
+        this.worldRaidAnnounceBatchSize = worldRaidAnnounceBatchSize;
+    }
 }
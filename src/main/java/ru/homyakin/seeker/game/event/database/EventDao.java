@@ -5,13 +5,13 @@ import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Period;
 import java.time.temporal.ChronoUnit;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import javax.sql.DataSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
 import ru.homyakin.seeker.game.event.models.Event;
+import ru.homyakin.seeker.game.event.models.EventCatalog;
 import ru.homyakin.seeker.game.event.models.EventLocale;
 import ru.homyakin.seeker.game.event.models.EventType;
 import ru.homyakin.seeker.locale.Language;
@@ -19,56 +19,42 @@ import org.postgresql.util.PGInterval;
 
 @Component
 public class EventDao {
-    // На маленьких данных работает быстро. Если понадобится ускорить - https://habr.com/ru/post/242999/
-    private static final String GET_RANDOM_EVENT = "SELECT * FROM event WHERE is_enabled = true ORDER BY random() LIMIT 1";
-    private static final String GET_EVENT_BY_ID = "SELECT * FROM event WHERE id = :id";
-    private static final String GET_EVENT_LOCALES = "SELECT * FROM event_locale WHERE event_id = :event_id";
+    // Событий единицы, поэтому читаются все сразу вместе с локалями
+    private static final String GET_ALL_EVENTS = """
+        SELECT e.id, e.type_id, e.duration, e.is_enabled, e.weight, el.language_id, el.intro, el.description
+        FROM event e
+        LEFT JOIN event_locale el ON el.event_id = e.id
+        ORDER BY e.id
+        """;
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     public EventDao(DataSource dataSource) {
         jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
     }
 
-    public Event getRandomEvent() {
-        final var result = jdbcTemplate.query(
-            GET_RANDOM_EVENT,
-            this::mapEvent
-        );
-        final var eventWithoutLocale = result
-            .stream()
-            .findFirst()
-            .orElseThrow(() -> new IllegalStateException("No events in database")); // TODO either
-        final var locales = getEventLocales(eventWithoutLocale.id());
-        return eventWithoutLocale.toEvent(locales);
-    }
-
-    public Optional<Event> getById(Integer eventId) {
-        final var params = Collections.singletonMap("id", eventId);
-        final var result = jdbcTemplate.query(
-            GET_EVENT_BY_ID,
-            params,
-            this::mapEvent
-        );
-        final var eventWithoutLocale = result
-            .stream()
-            .findFirst();
-        if (eventWithoutLocale.isEmpty()) {
-            return Optional.empty();
+    public EventCatalog getCatalog() {
+        final var entries = new ArrayList<EventCatalog.Entry>();
+        final var locales = new ArrayList<EventLocale>();
+        final var current = new EventWithoutLocale[1];
+        jdbcTemplate.getJdbcTemplate().query(GET_ALL_EVENTS, rs -> {
+            final var event = mapEvent(rs);
+            if (current[0] != null && current[0].id() != event.id()) {
+                entries.add(current[0].toEntry(List.copyOf(locales)));
+                locales.clear();
+            }
+            current[0] = event;
+            // У события без локалей LEFT JOIN даёт одну строку с пустыми полями локали
+            if (rs.getObject("language_id") != null) {
+                locales.add(mapEventLocale(rs));
+            }
+        });
+        if (current[0] != null) {
+            entries.add(current[0].toEntry(List.copyOf(locales)));
         }
-        final var locales = getEventLocales(eventWithoutLocale.get().id());
-        return Optional.of(eventWithoutLocale.get().toEvent(locales));
-    }
-
-    private List<EventLocale> getEventLocales(int eventId) {
-        final var params = Collections.singletonMap("event_id", eventId);
-        return jdbcTemplate.query(
-            GET_EVENT_LOCALES,
-            params,
-            this::mapEventLocale
-        );
+        return new EventCatalog(entries);
     }
 
-    private EventWithoutLocale mapEvent(ResultSet rs, int rowNum) throws SQLException {
+    private EventWithoutLocale mapEvent(ResultSet rs) throws SQLException {
         final var pgInterval = (PGInterval) rs.getObject("duration");
         final var period = Period.of(pgInterval.getYears(), pgInterval.getMonths(), pgInterval.getDays());
         final var duration = Duration.ofHours(pgInterval.getHours())
@@ -79,11 +65,13 @@ public class EventDao {
             rs.getInt("id"),
             period,
             duration,
-            EventType.get(rs.getInt("type_id"))
+            EventType.get(rs.getInt("type_id")),
+            rs.getBoolean("is_enabled"),
+            rs.getInt("weight")
         );
     }
 
-    private EventLocale mapEventLocale(ResultSet rs, int rowNum) throws SQLException {
+    private EventLocale mapEventLocale(ResultSet rs) throws SQLException {
         return new EventLocale(
             Language.getOrDefault(rs.getInt("language_id")),
             rs.getString("intro"),
@@ -92,18 +80,24 @@ public class EventDao {
     }
 
     private record EventWithoutLocale(
-        Integer id,
+        int id,
         Period period,
         Duration duration,
-        EventType type
+        EventType type,
+        boolean isEnabled,
+        int weight
     ) {
-        public Event toEvent(List<EventLocale> locales) {
-            return new Event(
-                id,
-                period,
-                duration,
-                type,
-                locales
+        public EventCatalog.Entry toEntry(List<EventLocale> locales) {
+            return new EventCatalog.Entry(
+                new Event(
+                    id,
+                    period,
+                    duration,
+                    type,
+                    locales
+                ),
+                isEnabled,
+                weight
             );
         }
     }
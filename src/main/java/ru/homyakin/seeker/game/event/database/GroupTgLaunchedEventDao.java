@@ -6,9 +6,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.game.event.models.GroupEventMessage;
 import ru.homyakin.seeker.game.event.models.GroupLaunchedEvent;
+import ru.homyakin.seeker.locale.Language;
 
 @Component
 public class GroupTgLaunchedEventDao {
@@ -16,8 +19,13 @@ public class GroupTgLaunchedEventDao {
         insert into grouptg_to_launched_event (launched_event_id, grouptg_id, message_id)
         values (:launched_event_id, :grouptg_id, :message_id);
         """;
-    private static final String GET_GROUP_LAUNCHED_EVENT_BY_ID =
-        "SELECT * FROM grouptg_to_launched_event WHERE launched_event_id = :launched_event_id";
+    // Язык группы нужен для текстов итога, поэтому читается тем же запросом
+    private static final String GET_GROUP_MESSAGES_BY_LAUNCHED_EVENT_ID = """
+        SELECT gle.grouptg_id, gle.message_id, g.language_id
+        FROM grouptg_to_launched_event gle
+        INNER JOIN grouptg g ON g.id = gle.grouptg_id
+        WHERE gle.launched_event_id = :launched_event_id
+        """;
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     public GroupTgLaunchedEventDao(DataSource dataSource) {
@@ -36,20 +44,32 @@ public class GroupTgLaunchedEventDao {
         );
     }
 
-    public List<GroupLaunchedEvent> getByLaunchedEventId(Long launchedEventId) {
+    public void saveBatch(List<GroupLaunchedEvent> groupLaunchedEvents) {
+        final var batch = new MapSqlParameterSource[groupLaunchedEvents.size()];
+        for (int i = 0; i < batch.length; ++i) {
+            final var groupLaunchedEvent = groupLaunchedEvents.get(i);
+            batch[i] = new MapSqlParameterSource()
+                .addValue("launched_event_id", groupLaunchedEvent.launchedEventId())
+                .addValue("grouptg_id", groupLaunchedEvent.groupId())
+                .addValue("message_id", groupLaunchedEvent.messageId());
+        }
+        jdbcTemplate.batchUpdate(SAVE_GROUP_LAUNCHED_EVENT, batch);
+    }
+
+    public List<GroupEventMessage> getMessagesByLaunchedEventId(long launchedEventId) {
         final var params = Collections.singletonMap("launched_event_id", launchedEventId);
         return jdbcTemplate.query(
-            GET_GROUP_LAUNCHED_EVENT_BY_ID,
+            GET_GROUP_MESSAGES_BY_LAUNCHED_EVENT_ID,
             params,
-            this::mapRow
+            this::mapMessage
         );
     }
 
-    private GroupLaunchedEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return new GroupLaunchedEvent(
-            rs.getLong("launched_event_id"),
+    private GroupEventMessage mapMessage(ResultSet rs, int rowNum) throws SQLException {
+        return new GroupEventMessage(
             rs.getLong("grouptg_id"),
-            rs.getInt("message_id")
+            rs.getInt("message_id"),
+            Language.getOrDefault(rs.getInt("language_id"))
         );
     }
 }
@@ -0,0 +1,60 @@
+package ru.homyakin.seeker.game.event.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+import ru.homyakin.seeker.utils.AliasSampler;
+
+/*
+Неизменяемый снимок всех событий с локалями. По id ищутся и выключенные события: они могут ещё идти.
+Случайное событие выбирается только среди включённых, пропорционально весу.
+ */
+public final class EventCatalog {
+    private final Event[] idToEvent;
+    private final Event[] enabled;
+    private final AliasSampler sampler;
+
+    public EventCatalog(List<Entry> entries) {
+        int maxId = -1;
+        for (final var entry: entries) {
+            if (entry.event().id() < 0) {
+                throw new IllegalArgumentException("Unexpected event id: " + entry.event().id());
+            }
+            maxId = Math.max(maxId, entry.event().id());
+        }
+        idToEvent = new Event[maxId + 1];
+        final var enabledEvents = new ArrayList<Event>();
+        final var weights = new ArrayList<Integer>();
+        for (final var entry: entries) {
+            idToEvent[entry.event().id()] = entry.event();
+            if (entry.isEnabled() && entry.weight() > 0) {
+                enabledEvents.add(entry.event());
+                weights.add(entry.weight());
+            }
+        }
+        enabled = enabledEvents.toArray(Event[]::new);
+        sampler = enabled.length == 0 ? null : new AliasSampler(weights.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public Optional<Event> getById(int id) {
+        if (id < 0 || id >= idToEvent.length) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(idToEvent[id]);
+    }
+
+    public Optional<Event> getRandomEnabled(RandomGenerator random) {
+        if (sampler == null) {
+            return Optional.empty();
+        }
+        return Optional.of(enabled[sampler.sample(random)]);
+    }
+
+    public record Entry(
+        Event event,
+        boolean isEnabled,
+        int weight
+    ) {
+    }
+}
@@ -0,0 +1,10 @@
+package ru.homyakin.seeker.game.event.models;
+
+import ru.homyakin.seeker.locale.Language;
+
+public record GroupEventMessage(
+    long groupId,
+    int messageId,
+    Language language
+) {
+}
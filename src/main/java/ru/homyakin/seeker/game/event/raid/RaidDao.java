@@ -2,33 +2,86 @@ package ru.homyakin.seeker.game.event.raid;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import javax.sql.DataSource;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.game.event.raid.generator.BossScaling;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshot;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshotFactory;
 
+/*
+Рейды и их шаблоны читаются из базы в неизменяемый снимок, генераторы шаблонов создаются тогда же и переиспользуются
+всеми рейдами. Раз в catalogRefreshInterval, как и каталог событий, сверяется версия raid из data_version,
+её увеличивают триггеры на raid и raid_template.
+ */
 @Component
 public class RaidDao {
-    private static final String GET_RANDOM_EVENT = "SELECT * FROM raid WHERE event_id = :event_id";
+    private static final String GET_TEMPLATES = "SELECT * FROM raid_template";
+    private static final String GET_RAIDS = "SELECT * FROM raid";
+    private static final String DATA_VERSION = "raid";
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final VersionedSnapshot<Map<Integer, Raid>> raidsByEventId;
 
-    public RaidDao(DataSource dataSource) {
+    public RaidDao(DataSource dataSource, VersionedSnapshotFactory snapshotFactory) {
         jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        raidsByEventId = snapshotFactory.create(DATA_VERSION, this::loadRaids);
     }
 
     public Optional<Raid> getByEventId(int eventId) {
-        return jdbcTemplate.query(
-            GET_RANDOM_EVENT,
-            Collections.singletonMap("event_id", eventId),
-            this::mapRow
-        ).stream().findFirst();
+        final var raid = raidsByEventId.get().get(eventId);
+        if (raid != null) {
+            return Optional.of(raid);
+        }
+        // Событие с рейдом могли добавить после последней сверки, каталог событий мог увидеть его раньше
+        reloadIfChanged();
+        return Optional.ofNullable(raidsByEventId.get().get(eventId));
     }
 
-    private Raid mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return new Raid(
-            rs.getInt("event_id"),
-            RaidTemplate.get(rs.getInt("template_id"))
+    /**
+     * Перечитывает рейды и шаблоны из базы, кэш характеристик противников при этом сбрасывается
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void reload() {
+        raidsByEventId.reload();
+    }
+
+    @Scheduled(fixedDelayString = "${homyakin.seeker.event.catalogRefreshInterval}")
+    public void reloadIfChanged() {
+        raidsByEventId.reloadIfChanged();
+    }
+
+    private Map<Integer, Raid> loadRaids() {
+        final var templates = new HashMap<Integer, RaidTemplate>();
+        jdbcTemplate.getJdbcTemplate().query(GET_TEMPLATES, rs -> {
+            final var template = mapTemplate(rs);
+            templates.put(template.id(), template);
+        });
+        final var raids = new HashMap<Integer, Raid>();
+        jdbcTemplate.getJdbcTemplate().query(GET_RAIDS, rs -> {
+            final int templateId = rs.getInt("template_id");
+            final var template = Optional.ofNullable(templates.get(templateId))
+                .orElseThrow(() -> new IllegalStateException("Unexpected raid template id: " + templateId));
+            raids.put(rs.getInt("event_id"), new Raid(rs.getInt("event_id"), template));
+        });
+        return Map.copyOf(raids);
+    }
+
+    private RaidTemplate mapTemplate(ResultSet rs) throws SQLException {
+        final var parameters = new RaidGeneratorType.Parameters(
+            rs.getInt("bosses_count"),
+            rs.getDouble("minions_per_personage"),
+            new BossScaling(rs.getDouble("health_multiplier"), rs.getDouble("power_exponent"))
+        );
+        return new RaidTemplate(
+            rs.getInt("id"),
+            rs.getString("name"),
+            RaidGeneratorType.valueOf(rs.getString("generator")).create(parameters)
         );
     }
 }
@@ -0,0 +1,41 @@
+package ru.homyakin.seeker.game.event.raid;
+
+import ru.homyakin.seeker.game.event.raid.generator.BossScaling;
+import ru.homyakin.seeker.game.event.raid.generator.MinionWaveGenerator;
+import ru.homyakin.seeker.game.event.raid.generator.MultiBossGenerator;
+import ru.homyakin.seeker.game.event.raid.generator.RaidBattleGenerator;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+
+/**
+ * Значения колонки raid_template.generator. Параметры генератора берутся из той же строки таблицы
+ */
+public enum RaidGeneratorType {
+    SINGLE_BOSS {
+        @Override
+        RaidBattleGenerator create(Parameters parameters) {
+            return new SingleBossGenerator(parameters.scaling());
+        }
+    },
+    MULTI_BOSS {
+        @Override
+        RaidBattleGenerator create(Parameters parameters) {
+            return new MultiBossGenerator(parameters.bossesCount(), parameters.scaling());
+        }
+    },
+    MINION_WAVE {
+        @Override
+        RaidBattleGenerator create(Parameters parameters) {
+            return new MinionWaveGenerator(parameters.minionsPerPersonage(), parameters.scaling());
+        }
+    },
+    ;
+
+    abstract RaidBattleGenerator create(Parameters parameters);
+
+    record Parameters(
+        int bossesCount,
+        double minionsPerPersonage,
+        BossScaling scaling
+    ) {
+    }
+}
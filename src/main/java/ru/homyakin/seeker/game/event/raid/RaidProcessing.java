@@ -1,67 +1,62 @@
 package ru.homyakin.seeker.game.event.raid;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import ru.homyakin.seeker.game.battle.BattlePersonage;
+import ru.homyakin.seeker.game.battle.BattleLogService;
+import ru.homyakin.seeker.game.battle.BattleRandom;
+import ru.homyakin.seeker.game.battle.PersonageRoster;
 import ru.homyakin.seeker.game.battle.TwoPersonageTeamsBattle;
 import ru.homyakin.seeker.game.event.models.Event;
 import ru.homyakin.seeker.game.event.models.EventResult;
-import ru.homyakin.seeker.game.models.Money;
+import ru.homyakin.seeker.game.event.models.LaunchedEvent;
 import ru.homyakin.seeker.game.personage.PersonageService;
-import ru.homyakin.seeker.game.personage.models.Personage;
-import ru.homyakin.seeker.utils.TimeUtils;
 
 @Service
 public class RaidProcessing {
-    private static final Logger logger = LoggerFactory.getLogger(RaidProcessing.class);
     private final PersonageService personageService;
     private final TwoPersonageTeamsBattle twoPersonageTeamsBattle;
     private final RaidDao raidDao;
+    private final BattleLogService battleLogService;
 
     public RaidProcessing(
         PersonageService personageService,
         TwoPersonageTeamsBattle twoPersonageTeamsBattle,
-        RaidDao raidDao
+        RaidDao raidDao,
+        BattleLogService battleLogService
     ) {
         this.personageService = personageService;
         this.twoPersonageTeamsBattle = twoPersonageTeamsBattle;
         this.raidDao = raidDao;
+        this.battleLogService = battleLogService;
     }
 
-    public EventResult process(Event event, List<Personage> participants) {
+    /**
+     * Участники читаются из базы сразу в массивы боя, награды считаются по этим же массивам
+     */
+    public EventResult process(Event event, LaunchedEvent launchedEvent) {
         final var raid = raidDao.getByEventId(event.id())
             .orElseThrow(() -> new IllegalStateException("Raid must be present"));
-        final var personages = new ArrayList<BattlePersonage>(participants.size());
-        final var idToPersonages = new HashMap<Long, BattlePersonage>();
-        for (final var participant: participants) {
-            final var personage = participant.toBattlePersonage();
-            personages.add(personage);
-            idToPersonages.put(participant.id(), personage);
-        }
+        final var participants = personageService.getRosterByLaunchedEvent(launchedEvent.id());
 
+        final var raidTeam = PersonageRoster.of(raid.template().generate(participants.size()));
+        final var raidTeamAtStart = raidTeam.copy();
+        final var participantsAtStart = participants.copy();
+        final var battleLog = battleLogService.newLog();
+        final long seed = BattleRandom.newSeed();
         final var result = twoPersonageTeamsBattle.battle(
-            new ArrayList<>(raid.template().generate(personages.size())),
-            personages
+            raidTeam,
+            participants,
+            BattleRandom.seeded(seed),
+            battleLog
         );
+        battleLogService.saveRaidLog(launchedEvent.id(), seed, raidTeamAtStart, participantsAtStart, battleLog);
 
         boolean doesParticipantsWin = result instanceof TwoPersonageTeamsBattle.Result.SecondTeamWin;
         int baseReward = doesParticipantsWin ? 10 : 2; // TODO баланс
-        final var endTime = TimeUtils.moscowTime();
-        for (final var participant: participants) {
-            final var personage = idToPersonages.get(participant.id());
-            if (personage == null) {
-                logger.error("Personage with id {} is missing in battle map", participant.id());
-                continue;
-            }
-            personageService.addMoney(
-                participant,
-                new Money((int) (baseReward + Math.sqrt((double) personage.damageDealtAndTaken() / 10)))
-            );
+        final var rewards = new int[participants.size()];
+        for (int i = 0; i < rewards.length; ++i) {
+            rewards[i] = (int) (baseReward + Math.sqrt((double) participants.damageDealtAndTaken(i) / 10));
         }
+        personageService.addMoney(participants.ids(), rewards);
 
         if (doesParticipantsWin) {
             return new EventResult.Success();
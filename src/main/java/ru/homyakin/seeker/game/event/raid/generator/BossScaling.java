@@ -0,0 +1,27 @@
+package ru.homyakin.seeker.game.event.raid.generator;
+
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+
+/**
+ * Кривая силы босса от количества участников: здоровье растёт линейно, атака и защита - степенью powerExponent.
+ * Здоровье делится поровну между bossesCount боссами
+ */
+public record BossScaling(
+    double healthMultiplier,
+    double powerExponent
+) {
+    public static final BossScaling DEFAULT = new BossScaling(1, 0.01);
+
+    public Characteristics boss(int personagesCount, int bossesCount) {
+        final var characteristics = Characteristics.createDefault();
+        final double power = Math.pow(personagesCount, powerExponent);
+        return new Characteristics(
+            (int) (characteristics.health() * healthMultiplier * personagesCount / bossesCount),
+            (int) (characteristics.attack() * power),
+            (int) (characteristics.defense() * power),
+            characteristics.strength(),
+            characteristics.agility(),
+            characteristics.wisdom()
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package ru.homyakin.seeker.game.event.raid.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import ru.homyakin.seeker.game.battle.BattlePersonage;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+
+/*
+Характеристики противников зависят только от количества участников, поэтому считаются один раз на размер рейда.
+Размеров немного - не больше, чем участников в самой большой группе.
+Персонажи боя создаются каждый раз заново, потому что бой меняет их здоровье.
+ */
+public abstract class CachedRaidBattleGenerator implements RaidBattleGenerator {
+    private final Map<Integer, List<Characteristics>> templates = new ConcurrentHashMap<>();
+
+    @Override
+    public List<BattlePersonage> generate(int personagesCount) {
+        final var characteristics = templates.computeIfAbsent(personagesCount, this::createTemplate);
+        final var team = new ArrayList<BattlePersonage>(characteristics.size());
+        for (int i = 0; i < characteristics.size(); ++i) {
+            // У противников рейда отрицательные id, чтобы не совпадать с персонажами
+            team.add(new BattlePersonage(-(i + 1), characteristics.get(i)));
+        }
+        return team;
+    }
+
+    protected abstract List<Characteristics> createTemplate(int personagesCount);
+}
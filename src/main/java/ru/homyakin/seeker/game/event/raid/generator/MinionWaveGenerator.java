@@ -0,0 +1,30 @@
+package ru.homyakin.seeker.game.event.raid.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+
+/**
+ * Босс и волна приспешников со стандартными характеристиками, приспешников minionsPerPersonage на участника
+ */
+public class MinionWaveGenerator extends CachedRaidBattleGenerator {
+    private final double minionsPerPersonage;
+    private final BossScaling scaling;
+
+    public MinionWaveGenerator(double minionsPerPersonage, BossScaling scaling) {
+        this.minionsPerPersonage = minionsPerPersonage;
+        this.scaling = scaling;
+    }
+
+    @Override
+    protected List<Characteristics> createTemplate(int personagesCount) {
+        final int minions = (int) Math.ceil(personagesCount * minionsPerPersonage);
+        final var team = new ArrayList<Characteristics>(minions + 1);
+        team.add(scaling.boss(personagesCount, 1));
+        final var minion = Characteristics.createDefault();
+        for (int i = 0; i < minions; ++i) {
+            team.add(minion);
+        }
+        return List.copyOf(team);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.homyakin.seeker.game.event.raid.generator;
+
+import java.util.Collections;
+import java.util.List;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+
+/**
+ * Несколько одинаковых боссов, которые делят здоровье одиночного босса
+ */
+public class MultiBossGenerator extends CachedRaidBattleGenerator {
+    private final int bossesCount;
+    private final BossScaling scaling;
+
+    public MultiBossGenerator(int bossesCount, BossScaling scaling) {
+        if (bossesCount < 1) {
+            throw new IllegalArgumentException("Bosses count must be positive, got " + bossesCount);
+        }
+        this.bossesCount = bossesCount;
+        this.scaling = scaling;
+    }
+
+    @Override
+    protected List<Characteristics> createTemplate(int personagesCount) {
+        return Collections.nCopies(bossesCount, scaling.boss(personagesCount, bossesCount));
+    }
+}
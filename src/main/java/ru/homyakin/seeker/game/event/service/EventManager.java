@@ -1,9 +1,28 @@
 package ru.homyakin.seeker.game.event.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.homyakin.seeker.game.event.models.EventResult;
+import ru.homyakin.seeker.game.event.models.GroupEventMessage;
+import ru.homyakin.seeker.game.event.models.GroupLaunchedEvent;
+import ru.homyakin.seeker.locale.Language;
+import ru.homyakin.seeker.infrastructure.mailbox.MailboxExecutor;
 import ru.homyakin.seeker.telegram.group.GroupStatsService;
 import ru.homyakin.seeker.telegram.group.models.Group;
 import ru.homyakin.seeker.telegram.group.GroupService;
@@ -27,6 +46,11 @@ public class EventManager {
     private final LaunchedEventService launchedEventService;
     private final EventProcessing eventProcessing;
     private final GroupStatsService groupStatsService;
+    private final MailboxExecutor mailboxExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService stopExecutor;
+    private final ExecutorService worldRaidExecutor;
+    private final Timer stopCycleTimer;
 
     public EventManager(
         EventConfig eventConfig,
@@ -35,7 +59,11 @@ public class EventManager {
         TelegramSender telegramSender,
         LaunchedEventService launchedEventService,
         EventProcessing eventProcessing,
-        GroupStatsService groupStatsService) {
+        GroupStatsService groupStatsService,
+        MailboxExecutor mailboxExecutor,
+        TransactionTemplate transactionTemplate,
+        MeterRegistry meterRegistry
+    ) {
         this.eventConfig = eventConfig;
         this.groupService = groupService;
         this.eventService = eventService;
@@ -43,67 +71,177 @@ public class EventManager {
         this.launchedEventService = launchedEventService;
         this.eventProcessing = eventProcessing;
         this.groupStatsService = groupStatsService;
+        this.mailboxExecutor = mailboxExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.stopExecutor = new ThreadPoolExecutor(
+            eventConfig.stopThreads(),
+            eventConfig.stopThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new CustomizableThreadFactory("event-stop-")
+        );
+        this.worldRaidExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("world-raid-"));
+        this.stopCycleTimer = Timer.builder("seeker.event.stop.cycle")
+            .description("Time to stop all expired events in one scheduler run")
+            .register(meterRegistry);
     }
 
     public void launchEventsInGroups() {
-        //TODO Здесь может возникнуть какая-нибудь многопоточная гонка, потом можно добавить локи на чаты
-        groupService
+        // Запуск идёт через ящик группы, чтобы не пересекаться с командами этой группы.
+        // Дожидаемся всех запусков, иначе следующий прогон шедулера может выбрать группу ещё раз.
+        // Отправку объявления не ждём: next_event_date сдвигается до отправки
+        final var launches = groupService
             .getGetGroupsWithLessNextEventDate(TimeUtils.moscowTime())
-            .forEach(group -> {
+            .stream()
+            .map(group -> mailboxExecutor.submit(group.id(), () -> {
                 logger.debug("Creating event for group " + group.id());
                 final var event = eventService.getRandomEvent();
                 launchEventInGroup(group, event);
+            }))
+            .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(launches).join();
+        } catch (Exception e) {
+            logger.error("Unable to launch events in some groups", e);
+        }
+    }
+
+    /**
+     * Мировой рейд: одно событие объявляется во всех активных группах, участники из всех групп
+     * попадают в один бой, а итог рассылается по сообщениям из grouptg_to_launched_event.
+     * Объявления отправляются пачками, после каждой пачки id сообщений сохраняются одним batch запросом.
+     * Рассылка по тысячам групп идёт минуты, поэтому работает в своём потоке и не держит поток шедулера
+     */
+    public CompletableFuture<Void> launchWorldRaid() {
+        if (!eventConfig.worldRaidEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture
+            .runAsync(this::announceWorldRaid, worldRaidExecutor)
+            .exceptionally(e -> {
+                logger.error("Unable to launch world event", e);
+                return null;
             });
     }
 
+    private void announceWorldRaid() {
+        final var groups = groupService.getActiveGroups();
+        if (groups.isEmpty()) {
+            return;
+        }
+        final var event = eventService.getRandomEvent();
+        final var launchedEvent = launchedEventService.createLaunchedEvent(event);
+        logger.info("Launching world event {} in {} groups", launchedEvent.id(), groups.size());
+
+        final var startMessages = new EnumMap<Language, String>(Language.class);
+        final int batchSize = eventConfig.worldRaidAnnounceBatchSize();
+        int announced = 0;
+        for (int from = 0; from < groups.size(); from += batchSize) {
+            final var batch = groups.subList(from, Math.min(from + batchSize, groups.size()));
+            final var sends = new ArrayList<CompletableFuture<Optional<GroupLaunchedEvent>>>(batch.size());
+            for (final var group : batch) {
+                final var text = startMessages.computeIfAbsent(
+                    group.language(),
+                    language -> event.toStartMessage(language, launchedEvent.endDate())
+                );
+                sends.add(telegramSender.send(
+                    SendMessageBuilder.builder()
+                        .chatId(group.id())
+                        .text(text)
+                        .keyboard(InlineKeyboards.joinRaidEventKeyboard(group.language(), launchedEvent.id()))
+                        .build()
+                ).thenApply(result -> result.map(
+                    message -> new GroupLaunchedEvent(launchedEvent.id(), group.id(), message.getMessageId())
+                ).toJavaOptional()));
+            }
+            final var groupEvents = sends.stream()
+                .map(CompletableFuture::join)
+                .flatMap(Optional::stream)
+                .toList();
+            launchedEventService.addGroupMessages(groupEvents);
+            announced += groupEvents.size();
+        }
+        if (announced == 0) {
+            launchedEventService.updateActive(launchedEvent, false);
+        }
+        logger.info("World event {} announced in {} groups", launchedEvent.id(), announced);
+    }
+
     public void stopEvents() {
-        launchedEventService
+        // Участник может быть только в одном активном событии, поэтому события завершаются параллельно
+        // без пересечений по персонажам. Дожидаемся всех, чтобы следующий прогон не выбрал их ещё раз
+        final long start = System.nanoTime();
+        final var stops = launchedEventService
             .getExpiredActiveEvents()
-            .forEach(this::stopLaunchedEvent);
+            .stream()
+            .map(launchedEvent -> CompletableFuture
+                .runAsync(() -> stopLaunchedEvent(launchedEvent), stopExecutor)
+                .exceptionally(e -> {
+                    logger.error("Unable to stop event " + launchedEvent.id(), e);
+                    return null;
+                })
+            )
+            .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(stops).join();
+        stopCycleTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worldRaidExecutor.shutdownNow();
+        stopExecutor.shutdown();
+        if (!stopExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Events weren't stopped in time");
+        }
     }
 
     private void stopLaunchedEvent(LaunchedEvent launchedEvent) {
         logger.debug("Stopping event " + launchedEvent.id());
-        final var result = eventProcessing.processEvent(launchedEvent);
-        launchedEventService.updateActive(launchedEvent, false);
-        launchedEventService.getGroupEvents(launchedEvent)
-            .forEach(groupEvent -> {
-                if (result instanceof EventResult.Success) {
-                    groupStatsService.increaseRaidsComplete(groupEvent.groupId(), 1);
-                }
-                final var group = groupService.getOrCreate(groupEvent.groupId());
-                final var event = eventService.getEventById(launchedEvent.eventId())
-                    .orElseThrow(() -> new IllegalStateException("Can't end nonexistent event"));
-                telegramSender.send(EditMessageTextBuilder.builder()
-                    .chatId(groupEvent.groupId())
-                    .messageId(groupEvent.messageId())
-                    .text(event.toStartMessage(group.language()))
-                    .build()
-                );
-                telegramSender.send(SendMessageBuilder.builder()
-                    .chatId(groupEvent.groupId())
-                    .text(event.endMessage(group.language(), result))
-                    .replyMessageId(groupEvent.messageId())
-                    .build()
-                );
-            });
+        final var event = eventService.getEventById(launchedEvent.eventId())
+            .orElseThrow(() -> new IllegalStateException("Can't end nonexistent event"));
+        // Событие, сообщения и языки групп читаются один раз, дальше запросов на группу нет
+        final var groupMessages = launchedEventService.getGroupMessages(launchedEvent);
+        // Награды, статус события и статистика групп записываются одной транзакцией
+        final var result = transactionTemplate.execute(status -> {
+            final var eventResult = eventProcessing.processEvent(event, launchedEvent);
+            launchedEventService.updateActive(launchedEvent, false);
+            if (eventResult instanceof EventResult.Success) {
+                groupStatsService.increaseRaidsComplete(groupIds(groupMessages), 1);
+            }
+            return eventResult;
+        });
 
+        // У мирового рейда групп тысячи, поэтому тексты собираются один раз на язык.
+        // Отправка идёт через очередь TelegramSender, ответов не ждём
+        final var startMessages = new EnumMap<Language, String>(Language.class);
+        final var endMessages = new EnumMap<Language, String>(Language.class);
+        for (final var groupMessage : groupMessages) {
+            telegramSender.send(EditMessageTextBuilder.builder()
+                .chatId(groupMessage.groupId())
+                .messageId(groupMessage.messageId())
+                .text(startMessages.computeIfAbsent(groupMessage.language(), event::toStartMessage))
+                .build()
+            );
+            telegramSender.send(SendMessageBuilder.builder()
+                .chatId(groupMessage.groupId())
+                .text(endMessages.computeIfAbsent(groupMessage.language(), it -> event.endMessage(it, result)))
+                .replyMessageId(groupMessage.messageId())
+                .build()
+            );
+        }
+    }
+
+    private static long[] groupIds(List<GroupEventMessage> groupMessages) {
+        final var ids = new long[groupMessages.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = groupMessages.get(i).groupId();
+        }
+        return ids;
     }
 
     private void launchEventInGroup(Group group, Event event) {
         final var launchedEvent = launchedEventService.createLaunchedEvent(event);
-        var result = telegramSender.send(
-            SendMessageBuilder.builder()
-                .chatId(group.id())
-                .text(event.toStartMessage(group.language(), launchedEvent.endDate()))
-                .keyboard(InlineKeyboards.joinRaidEventKeyboard(group.language(), launchedEvent.id()))
-                .build()
-        );
-        if (result.isLeft()) {
-            launchedEventService.updateActive(launchedEvent, false);
-            return;
-        }
-        launchedEventService.addGroupMessage(launchedEvent, group, result.get().getMessageId());
         groupService.updateNextEventDate(
             group,
             TimeUtils.moscowTime()
@@ -113,5 +251,23 @@ public class EventManager {
                     )
                 )
         );
+        // Лимит группы может держать сообщение до минуты, поэтому поток ящика его не ждёт:
+        // результат отправки обрабатывается отдельной задачей в ящике той же группы
+        telegramSender.send(
+            SendMessageBuilder.builder()
+                .chatId(group.id())
+                .text(event.toStartMessage(group.language(), launchedEvent.endDate()))
+                .keyboard(InlineKeyboards.joinRaidEventKeyboard(group.language(), launchedEvent.id()))
+                .build()
+        ).thenAccept(result -> mailboxExecutor.submit(group.id(), () -> {
+            if (result.isLeft()) {
+                launchedEventService.updateActive(launchedEvent, false);
+            } else {
+                launchedEventService.addGroupMessage(launchedEvent, group, result.get().getMessageId());
+            }
+        }).exceptionally(e -> {
+            logger.error("Unable to save launch result of event " + launchedEvent.id(), e);
+            return null;
+        }));
     }
 }
@@ -18,6 +18,12 @@ public class EventScheduler {
         eventManager.launchEventsInGroups();
     }
 
+    @Scheduled(cron = "${homyakin.seeker.event.worldRaidCron}")
+    public void scheduledWorldRaidLaunch() {
+        // Не ждём: рассылка идёт минутами, а поток шедулера у всех задач один
+        eventManager.launchWorldRaid();
+    }
+
     @Scheduled(cron = "0 * * * * *")
     public void scheduledStopEvents() {
         eventManager.stopEvents();
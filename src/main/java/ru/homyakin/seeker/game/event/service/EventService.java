@@ -1,25 +1,52 @@
 package ru.homyakin.seeker.game.event.service;
 
 import java.util.Optional;
+import java.util.random.RandomGenerator;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import ru.homyakin.seeker.game.event.database.EventDao;
 import ru.homyakin.seeker.game.event.models.Event;
+import ru.homyakin.seeker.game.event.models.EventCatalog;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshot;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshotFactory;
 
+/*
+События читаются в каталог при старте, запуск и завершение событий в базу за ними не ходят.
+Раз в catalogRefreshInterval сверяется версия событий из data_version, её увеличивают триггеры на event и event_locale,
+так что включение, выключение и смена веса подхватываются без перезапуска.
+ */
 @Service
 public class EventService {
-    private final EventDao eventDao;
+    private static final String DATA_VERSION = "event";
+    private final RandomGenerator random = RandomGenerator.getDefault();
+    private final VersionedSnapshot<EventCatalog> catalog;
 
     public EventService(
-        EventDao eventDao
+        EventDao eventDao,
+        VersionedSnapshotFactory snapshotFactory
     ) {
-        this.eventDao = eventDao;
+        this.catalog = snapshotFactory.create(DATA_VERSION, eventDao::getCatalog);
     }
 
     public Event getRandomEvent() {
-        return eventDao.getRandomEvent();
+        return catalog.get()
+            .getRandomEnabled(random)
+            .orElseThrow(() -> new IllegalStateException("No enabled events")); // TODO either
     }
 
     public Optional<Event> getEventById(Integer id) {
-        return eventDao.getById(id);
+        return catalog.get().getById(id);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void reload() {
+        catalog.reload();
+    }
+
+    @Scheduled(fixedDelayString = "${homyakin.seeker.event.catalogRefreshInterval}")
+    public void reloadIfChanged() {
+        catalog.reloadIfChanged();
     }
 }
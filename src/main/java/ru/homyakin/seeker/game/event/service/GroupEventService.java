@@ -3,6 +3,7 @@ package ru.homyakin.seeker.game.event.service;
 import java.util.List;
 import org.springframework.stereotype.Service;
 import ru.homyakin.seeker.game.event.database.GroupTgLaunchedEventDao;
+import ru.homyakin.seeker.game.event.models.GroupEventMessage;
 import ru.homyakin.seeker.game.event.models.GroupLaunchedEvent;
 import ru.homyakin.seeker.game.event.models.LaunchedEvent;
 import ru.homyakin.seeker.telegram.group.models.Group;
@@ -25,7 +26,13 @@ public class GroupEventService {
         return groupEvent;
     }
 
-    public List<GroupLaunchedEvent> getByLaunchedEventId(Long launchedEventId) {
-        return groupTgLaunchedEventDao.getByLaunchedEventId(launchedEventId);
+    public void createGroupEvents(List<GroupLaunchedEvent> groupEvents) {
+        if (!groupEvents.isEmpty()) {
+            groupTgLaunchedEventDao.saveBatch(groupEvents);
+        }
+    }
+
+    public List<GroupEventMessage> getMessagesByLaunchedEventId(long launchedEventId) {
+        return groupTgLaunchedEventDao.getMessagesByLaunchedEventId(launchedEventId);
     }
 }
@@ -7,6 +7,7 @@ import ru.homyakin.seeker.game.event.database.PersonageEventDao;
 import ru.homyakin.seeker.telegram.group.models.Group;
 import ru.homyakin.seeker.game.event.models.Event;
 import ru.homyakin.seeker.game.event.database.LaunchedEventDao;
+import ru.homyakin.seeker.game.event.models.GroupEventMessage;
 import ru.homyakin.seeker.game.event.models.GroupLaunchedEvent;
 import ru.homyakin.seeker.game.event.models.LaunchedEvent;
 import ru.homyakin.seeker.utils.TimeUtils;
@@ -41,6 +42,10 @@ public class LaunchedEventService {
         return groupEventService.createGroupEvent(launchedEvent, group, messageId);
     }
 
+    public void addGroupMessages(List<GroupLaunchedEvent> groupEvents) {
+        groupEventService.createGroupEvents(groupEvents);
+    }
+
     public void updateActive(LaunchedEvent launchedEvent, boolean isActive) {
         launchedEventDao.updateIsActive(launchedEvent.id(), isActive);
     }
@@ -57,7 +62,7 @@ public class LaunchedEventService {
         return launchedEventDao.getActiveEventsWithLessEndDate(TimeUtils.moscowTime());
     }
 
-    public List<GroupLaunchedEvent> getGroupEvents(LaunchedEvent launchedEvent) {
-        return groupEventService.getByLaunchedEventId(launchedEvent.id());
+    public List<GroupEventMessage> getGroupMessages(LaunchedEvent launchedEvent) {
+        return groupEventService.getMessagesByLaunchedEventId(launchedEvent.id());
     }
 }
@@ -2,14 +2,21 @@ package ru.homyakin.seeker.game.personage;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.game.battle.PersonageRoster;
+import ru.homyakin.seeker.game.event.config.EventConfig;
+import ru.homyakin.seeker.infrastructure.cache.EntityCache;
+import ru.homyakin.seeker.infrastructure.cache.EntityCacheFactory;
 import ru.homyakin.seeker.game.personage.models.Characteristics;
 import ru.homyakin.seeker.game.models.Money;
 import ru.homyakin.seeker.game.personage.models.Personage;
@@ -20,23 +27,64 @@ public class PersonageDao {
         SELECT * FROM personage WHERE id = :id
         """;
 
-    private static final String GET_BY_LAUNCHED_EVENT = """
-        SELECT p.* FROM personage_to_event le
-        LEFT JOIN personage p on p.id = le.personage_id
+    private static final String LOCK_BY_ID = """
+        SELECT id FROM personage WHERE id = :id FOR UPDATE
+        """;
+
+    // Стабильный порядок участников нужен, чтобы рейд можно было повторить по зерну боя
+    private static final String GET_ROSTER_BY_LAUNCHED_EVENT = """
+        SELECT p.id, p.health, p.attack, p.defense, p.strength, p.agility, p.wisdom FROM personage_to_event le
+        INNER JOIN personage p on p.id = le.personage_id
         WHERE le.launched_event_id = :launched_event_id
+        ORDER BY p.id
         """;
 
+    // Деньги здесь не пишутся: копия персонажа в памяти может отставать от начислений за рейды
     private static final String UPDATE = """
         UPDATE personage
         SET name = :name, strength = :strength, agility = :agility, wisdom = :wisdom,
-        health = :health, last_health_change = :last_health_change, money = :money
+        health = :health, last_health_change = :last_health_change
+        WHERE id = :id
+        RETURNING *
+        """;
+
+    private static final String UPDATE_WITH_PAYMENT = """
+        UPDATE personage
+        SET name = :name, strength = :strength, agility = :agility, wisdom = :wisdom,
+        health = :health, last_health_change = :last_health_change, money = money - :price
+        WHERE id = :id AND money >= :price
+        RETURNING *
+        """;
+
+    // Деньги меняются относительно текущего значения в базе, переполнение обрезается как в Money.add
+    private static final String ADD_MONEY = """
+        UPDATE personage
+        SET money = LEAST(money::BIGINT + :amount, 2147483647)
         WHERE id = :id
+        RETURNING *
+        """;
+
+    private static final String TAKE_MONEY = """
+        UPDATE personage
+        SET money = money - :amount
+        WHERE id = :id AND money >= :amount
+        RETURNING *
+        """;
+
+    private static final String ADD_MONEY_BATCH = """
+        UPDATE personage p
+        SET money = LEAST(p.money::BIGINT + r.delta, 2147483647)
+        FROM unnest(:ids::BIGINT[], :deltas::INTEGER[]) AS r(id, delta)
+        WHERE p.id = r.id
         """;
 
     private final SimpleJdbcInsert jdbcInsert;
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    // Отдельный шаблон с fetchSize: внутри транзакции драйвер читает участников курсором порциями
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final EntityCache<Long, Personage> cache;
 
-    public PersonageDao(DataSource dataSource) {
+    public PersonageDao(DataSource dataSource, EventConfig eventConfig, EntityCacheFactory cacheFactory) {
         jdbcInsert = new SimpleJdbcInsert(dataSource)
             .withTableName("personage")
             .usingColumns(
@@ -53,6 +101,10 @@ public class PersonageDao {
         jdbcInsert.setGeneratedKeyName("id");
 
         this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        final var streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(eventConfig.participantsFetchSize());
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+        this.cache = cacheFactory.create("personage");
     }
 
     public long save(Personage personage) {
@@ -72,7 +124,85 @@ public class PersonageDao {
         ).longValue();
     }
 
+    /**
+     * Обновляет всё, кроме денег. В кэш кладётся строка из базы с актуальными деньгами
+     */
     public void update(Personage personage) {
+        updateReturning(UPDATE, updateParams(personage), personage.id());
+    }
+
+    /**
+     * Обновляет персонажа и списывает price, только если денег в базе хватает
+     */
+    public Optional<Personage> updateWithPayment(Personage personage, Money price) {
+        final var params = updateParams(personage);
+        params.put("price", price.value());
+        return updateReturning(UPDATE_WITH_PAYMENT, params, personage.id());
+    }
+
+    public Optional<Personage> addMoney(long id, Money amount) {
+        final var params = new HashMap<String, Object>();
+        params.put("id", id);
+        params.put("amount", amount.value());
+        return updateReturning(ADD_MONEY, params, id);
+    }
+
+    /**
+     * Списывает amount, только если денег в базе хватает, иначе empty
+     */
+    public Optional<Personage> takeMoney(long id, Money amount) {
+        final var params = new HashMap<String, Object>();
+        params.put("id", id);
+        params.put("amount", amount.value());
+        return updateReturning(TAKE_MONEY, params, id);
+    }
+
+    /**
+     * Начисляет деньги нескольким персонажам одним запросом, не перезаписывая остальные поля.
+     * deltas[i] начисляется персонажу ids[i]
+     */
+    public void addMoneyBatch(long[] ids, int[] deltas) {
+        if (ids.length == 0) {
+            return;
+        }
+        final var params = new HashMap<String, Object>();
+        params.put("ids", ids);
+        params.put("deltas", deltas);
+        jdbcTemplate.update(
+            ADD_MONEY_BATCH,
+            params
+        );
+        // Деньги поменялись в обход update, закэшированные персонажи устарели
+        cache.invalidateAll(Arrays.stream(ids).boxed().toList());
+    }
+
+    public Optional<Personage> getById(Long id) {
+        return cache.get(id, this::loadById);
+    }
+
+    /**
+     * Блокирует строку персонажа до конца текущей транзакции, вне транзакции бесполезен
+     */
+    public void lockById(long id) {
+        jdbcTemplate.query(LOCK_BY_ID, Collections.singletonMap("id", id), rs -> {});
+    }
+
+    public void putToCache(Personage personage) {
+        cache.put(personage.id(), personage);
+    }
+
+    private Optional<Personage> updateReturning(String sql, Map<String, Object> params, long id) {
+        final var result = jdbcTemplate.query(sql, params, this::mapRow).stream().findFirst();
+        if (result.isPresent()) {
+            cache.put(id, result.get());
+        } else {
+            // Условие не выполнилось: денег в кэше могло быть больше, чем в базе
+            cache.invalidateAll(List.of(id));
+        }
+        return result;
+    }
+
+    private static HashMap<String, Object> updateParams(Personage personage) {
         final var params = new HashMap<String, Object>();
         params.put("id", personage.id());
         params.put("name", personage.name());
@@ -81,14 +211,10 @@ public class PersonageDao {
         params.put("wisdom", personage.characteristics().wisdom());
         params.put("health", personage.characteristics().health());
         params.put("last_health_change", personage.lastHealthChange());
-        params.put("money", personage.money().value());
-        jdbcTemplate.update(
-            UPDATE,
-            params
-        );
+        return params;
     }
 
-    public Optional<Personage> getById(Long id) {
+    private Optional<Personage> loadById(Long id) {
         final var params = Collections.singletonMap("id", id);
         final var result = jdbcTemplate.query(
             GET_BY_ID,
@@ -98,13 +224,28 @@ public class PersonageDao {
         return result.stream().findFirst();
     }
 
-    public List<Personage> getByLaunchedEvent(Long launchedEventId) {
+    /**
+     * Участники события сразу в массивах боя, без объектов Personage на каждую строку
+     */
+    public PersonageRoster getRosterByLaunchedEvent(Long launchedEventId) {
         final var params = Collections.singletonMap("launched_event_id", launchedEventId);
-        return jdbcTemplate.query(
-            GET_BY_LAUNCHED_EVENT,
+        final var roster = new PersonageRoster();
+        streamingJdbcTemplate.query(
+            GET_ROSTER_BY_LAUNCHED_EVENT,
             params,
-            this::mapRow
+            rs -> {
+                roster.add(
+                    rs.getLong("id"),
+                    rs.getInt("health"),
+                    rs.getInt("attack"),
+                    rs.getInt("defense"),
+                    rs.getInt("strength"),
+                    rs.getInt("agility"),
+                    rs.getInt("wisdom")
+                );
+            }
         );
+        return roster;
     }
 
     private Personage mapRow(ResultSet rs, int rowNum) throws SQLException {
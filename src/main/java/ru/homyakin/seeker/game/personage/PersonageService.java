@@ -1,11 +1,12 @@
 package ru.homyakin.seeker.game.personage;
 
 import io.vavr.control.Either;
-import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.homyakin.seeker.game.battle.PersonageRoster;
 import ru.homyakin.seeker.game.event.service.EventService;
 import ru.homyakin.seeker.game.event.service.LaunchedEventService;
 import ru.homyakin.seeker.game.models.Money;
@@ -28,11 +29,18 @@ public class PersonageService {
     private final PersonageDao personageDao;
     private final LaunchedEventService launchedEventService;
     private final EventService eventService;
-
-    public PersonageService(PersonageDao personageDao, LaunchedEventService launchedEventService, EventService eventService) {
+    private final TransactionTemplate transactionTemplate;
+
+    public PersonageService(
+        PersonageDao personageDao,
+        LaunchedEventService launchedEventService,
+        EventService eventService,
+        TransactionTemplate transactionTemplate
+    ) {
         this.personageDao = personageDao;
         this.launchedEventService = launchedEventService;
         this.eventService = eventService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public Personage createPersonage() {
@@ -53,17 +61,22 @@ public class PersonageService {
             );
         }
 
-        final var activeEvent = launchedEventService.getActiveEventByPersonageId(personageId);
-        if (activeEvent.isEmpty()) {
-            launchedEventService.addPersonageToLaunchedEvent(personageId, launchedEventId);
-            return Either.right(new Success());
-        }
-
-        if (activeEvent.get().id() == launchedEventId) {
-            return Either.left(new PersonageInThisEvent());
-        } else {
-            return Either.left(new PersonageInOtherEvent());
-        }
+        // Строка персонажа заблокирована до конца транзакции: параллельные вступления одного персонажа
+        // проверяют активное событие по очереди, и следующее видит вставку предыдущего
+        return transactionTemplate.execute(status -> {
+            personageDao.lockById(personageId);
+            final var activeEvent = launchedEventService.getActiveEventByPersonageId(personageId);
+            if (activeEvent.isEmpty()) {
+                launchedEventService.addPersonageToLaunchedEvent(personageId, launchedEventId);
+                return Either.<PersonageEventError, Success>right(new Success());
+            }
+
+            if (activeEvent.get().id() == launchedEventId) {
+                return Either.left(new PersonageInThisEvent());
+            } else {
+                return Either.left(new PersonageInOtherEvent());
+            }
+        });
     }
 
     public Optional<Personage> getById(long personageId) {
@@ -76,30 +89,34 @@ public class PersonageService {
             .orElseThrow(() -> new IllegalStateException("Personage must be present with id " + personageId));
     }
 
-    public List<Personage> getByLaunchedEvent(long launchedEventId) {
-        return personageDao.getByLaunchedEvent(launchedEventId).stream()
-            .map(personage -> personage.checkHealthAndRegenIfNeed(personageDao))
-            .toList();
+    public PersonageRoster getRosterByLaunchedEvent(long launchedEventId) {
+        return personageDao.getRosterByLaunchedEvent(launchedEventId);
     }
 
-    public Personage addMoney(Personage personage, Money money) {
-        final var updatedPersonage = personage.addMoney(money);
-        personageDao.update(updatedPersonage);
-        return updatedPersonage;
+    public Personage addMoney(long personageId, Money money) {
+        return personageDao.addMoney(personageId, money)
+            .orElseThrow(() -> new IllegalStateException("Personage must be present with id " + personageId));
     }
 
-    public Personage takeMoney(Personage personage, Money money) {
-        return addMoney(personage, money.negative());
+    public void addMoney(long[] personageIds, int[] money) {
+        personageDao.addMoneyBatch(personageIds, money);
+    }
+
+    /**
+     * Списание проверяется по деньгам в базе, а не по копии персонажа
+     */
+    public Either<NotEnoughMoney, Personage> takeMoney(Personage personage, Money money) {
+        return personageDao.takeMoney(personage.id(), money)
+            .<Either<NotEnoughMoney, Personage>>map(Either::right)
+            .orElseGet(() -> Either.left(new NotEnoughMoney(money)));
     }
 
     public Either<OrderError, Personage> orderMenuItem(Personage personage, MenuItem menuItem) {
         if (!menuItem.isAvailable()) {
             return Either.left(new OrderError.NotAvailableItem());
         }
-        if (personage.money().lessThan(menuItem.price())) {
-            return Either.left(new OrderError.NotEnoughMoney(menuItem.price(), personage.money()));
-        }
-        return Either.right(takeMoney(personage, menuItem.price()));
+        return takeMoney(personage, menuItem.price())
+            .<OrderError>mapLeft(error -> new OrderError.NotEnoughMoney(menuItem.price(), getByIdForce(personage.id()).money()));
     }
 
     public Either<NotEnoughLevelingPoints, Personage> incrementStrength(Personage personage) {
@@ -121,6 +138,9 @@ public class PersonageService {
     public Either<NotEnoughMoney, Personage> resetStats(Personage personage) {
         return personage
             .resetStats()
-            .peek(personageDao::update);
+            .flatMap(reset -> personageDao.updateWithPayment(reset, Personage.RESET_STATS_COST)
+                .<Either<NotEnoughMoney, Personage>>map(Either::right)
+                .orElseGet(() -> Either.left(new NotEnoughMoney(Personage.RESET_STATS_COST)))
+            );
     }
 }
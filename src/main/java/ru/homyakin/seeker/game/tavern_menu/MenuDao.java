@@ -2,8 +2,7 @@ package ru.homyakin.seeker.game.tavern_menu;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Optional;
+import java.util.ArrayList;
 import javax.sql.DataSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
@@ -16,10 +15,14 @@ import ru.homyakin.seeker.locale.Language;
 
 @Component
 public class MenuDao {
-    private static final String GET_AVAILABLE_MENU = "SELECT * FROM menu_item WHERE is_available = true";
-    private static final String GET_AVAILABLE_MENU_ITEM = "SELECT * FROM menu_item WHERE id = :id and is_available = true";
-
-    private static final String GET_MENU_ITEM_LOCALES = "SELECT * FROM menu_item_locale WHERE menu_item_id = :menu_item_id";
+    // Позиции без локалей не нужны, у каждой доступной позиции есть хотя бы локаль по умолчанию
+    private static final String GET_AVAILABLE_MENU = """
+        SELECT mi.id, mi.price, mi.is_available, mi.category_id, mil.language_id, mil.name, mil.order_template
+        FROM menu_item mi
+        INNER JOIN menu_item_locale mil ON mil.menu_item_id = mi.id
+        WHERE mi.is_available = true
+        ORDER BY mi.id
+        """;
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
@@ -27,31 +30,29 @@ public class MenuDao {
         this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
     }
 
+    /**
+     * Все доступные позиции вместе с локалями одним запросом
+     */
     public List<MenuItem> getAvailableMenu() {
-        return jdbcTemplate.query(GET_AVAILABLE_MENU, this::mapMenuItem)
-            .stream()
-            .map(it -> it.toMenuItem(getMenuItemLocales(it.id)))
-            .toList();
-    }
-
-    public Optional<MenuItem> getAvailableMenuItem(int id) {
-        final var param = Collections.singletonMap("id", id);
-        return jdbcTemplate.query(GET_AVAILABLE_MENU_ITEM, param, this::mapMenuItem)
-            .stream()
-            .findFirst()
-            .map(it -> it.toMenuItem(getMenuItemLocales(id)));
-    }
-
-    private List<MenuItemLocale> getMenuItemLocales(int menuItemId) {
-        final var params = Collections.singletonMap("menu_item_id", menuItemId);
-        return jdbcTemplate.query(
-            GET_MENU_ITEM_LOCALES,
-            params,
-            this::mapLocale
-        );
+        final var items = new ArrayList<MenuItem>();
+        final var locales = new ArrayList<MenuItemLocale>();
+        final var current = new MenuItemWithoutLocale[1];
+        jdbcTemplate.getJdbcTemplate().query(GET_AVAILABLE_MENU, rs -> {
+            final var item = mapMenuItem(rs);
+            if (current[0] != null && current[0].id() != item.id()) {
+                items.add(current[0].toMenuItem(List.copyOf(locales)));
+                locales.clear();
+            }
+            current[0] = item;
+            locales.add(mapLocale(rs));
+        });
+        if (current[0] != null) {
+            items.add(current[0].toMenuItem(List.copyOf(locales)));
+        }
+        return items;
     }
 
-    private MenuItemWithoutLocale mapMenuItem(ResultSet rs, int rowNum) throws SQLException {
+    private MenuItemWithoutLocale mapMenuItem(ResultSet rs) throws SQLException {
         return new MenuItemWithoutLocale(
             rs.getInt("id"),
             rs.getInt("price"),
@@ -60,7 +61,7 @@ public class MenuDao {
         );
     }
 
-    private MenuItemLocale mapLocale(ResultSet rs, int rowNum) throws SQLException {
+    private MenuItemLocale mapLocale(ResultSet rs) throws SQLException {
         return new MenuItemLocale(
             Language.getOrDefault(rs.getInt("language_id")),
             rs.getString("name"),
@@ -85,4 +86,3 @@ public class MenuDao {
         }
     }
 }
-
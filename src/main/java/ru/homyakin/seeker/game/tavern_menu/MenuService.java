@@ -1,38 +1,44 @@
 package ru.homyakin.seeker.game.tavern_menu;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Optional;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import ru.homyakin.seeker.game.tavern_menu.models.Category;
-import ru.homyakin.seeker.game.tavern_menu.models.TavernMenu;
 import ru.homyakin.seeker.game.tavern_menu.models.MenuItem;
+import ru.homyakin.seeker.game.tavern_menu.models.TavernMenu;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshot;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshotFactory;
 
+/*
+Меню читается в снимок при старте. Раз в refreshInterval сверяется версия меню из data_version,
+её увеличивают триггеры на menu_item и menu_item_locale; снимок перечитывается, только если версия изменилась.
+/menu и /order работают со снимком и в базу не ходят.
+ */
 @Component
 public class MenuService {
-    private final MenuDao menuDao;
+    private static final String DATA_VERSION = "menu";
+    private final VersionedSnapshot<TavernMenu> menu;
 
-    public MenuService(MenuDao menuDao) {
-        this.menuDao = menuDao;
+    public MenuService(MenuDao menuDao, VersionedSnapshotFactory snapshotFactory) {
+        this.menu = snapshotFactory.create(DATA_VERSION, () -> new TavernMenu(menuDao.getAvailableMenu()));
     }
 
     public TavernMenu getAvailableMenu() {
-        //TODO кэш
-        final var map = new HashMap<Category, List<MenuItem>>();
-        final var items = menuDao.getAvailableMenu();
-        for (final var item: items) {
-            if (map.containsKey(item.category())) {
-                map.get(item.category()).add(item);
-            } else {
-                map.put(item.category(), new ArrayList<>(List.of(item)));
-            }
-        }
-        return new TavernMenu(map);
+        return menu.get();
     }
 
     public Optional<MenuItem> getAvailableMenuItem(int id) {
-        return menuDao.getAvailableMenuItem(id);
+        return getAvailableMenu().getItem(id);
     }
-}
 
+    @EventListener(ContextRefreshedEvent.class)
+    public void reload() {
+        menu.reload();
+    }
+
+    @Scheduled(fixedDelayString = "${homyakin.seeker.tavern-menu.refreshInterval}")
+    public void reloadIfChanged() {
+        menu.reloadIfChanged();
+    }
+}
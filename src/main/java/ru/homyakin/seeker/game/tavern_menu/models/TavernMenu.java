@@ -1,25 +1,60 @@
 package ru.homyakin.seeker.game.tavern_menu.models;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import ru.homyakin.seeker.locale.Language;
 import ru.homyakin.seeker.locale.tavern_menu.TavernMenuLocalization;
 
-public record TavernMenu(
-    Map<Category, List<MenuItem>> categoryToItems
-) {
+/*
+Неизменяемый снимок доступного меню: позиции по id и по категориям, внутри категории по возрастанию цены.
+Текст меню на каждом языке собирается при первом запросе и дальше переиспользуется, пока снимок не заменят.
+ */
+public final class TavernMenu {
     private static final List<Category> CATEGORY_ORDER = List.of(Category.DRINK, Category.MAIN_DISH);
+    private final Map<Integer, MenuItem> idToItem;
+    private final Map<Category, List<MenuItem>> categoryToItems;
+    private final Map<Language, String> texts = new ConcurrentHashMap<>();
+
+    public TavernMenu(List<MenuItem> items) {
+        final var idToItem = new HashMap<Integer, MenuItem>();
+        final var categoryToItems = new EnumMap<Category, List<MenuItem>>(Category.class);
+        for (final var item: items) {
+            idToItem.put(item.id(), item);
+            categoryToItems.computeIfAbsent(item.category(), it -> new ArrayList<>()).add(item);
+        }
+        categoryToItems.replaceAll(
+            (category, categoryItems) -> categoryItems.stream().sorted(Comparator.comparing(MenuItem::price)).toList()
+        );
+        this.idToItem = Map.copyOf(idToItem);
+        this.categoryToItems = categoryToItems;
+    }
+
+    public Optional<MenuItem> getItem(int id) {
+        return Optional.ofNullable(idToItem.get(id));
+    }
+
+    public List<MenuItem> getItems(Category category) {
+        return categoryToItems.getOrDefault(category, List.of());
+    }
 
     public String tavernMenuText(Language language) {
+        return texts.computeIfAbsent(language, this::buildText);
+    }
+
+    private String buildText(Language language) {
         final var text = new StringBuilder(TavernMenuLocalization.menuHeader(language));
         for (final var category: CATEGORY_ORDER) {
             if (!categoryToItems.containsKey(category)) {
                 continue;
             }
             text.append("\n\n").append(category.getText(language)).append(":");
-            final var itemsSortedByPrice = categoryToItems.get(category).stream().sorted(Comparator.comparing(MenuItem::price)).toList();
-            for (final var menuItem: itemsSortedByPrice) {
+            for (final var menuItem: categoryToItems.get(category)) {
                 text.append("\n").append(menuItem.menuPositionText(language));
             }
         }
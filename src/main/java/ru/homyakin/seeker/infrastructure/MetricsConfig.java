@@ -0,0 +1,17 @@
+package ru.homyakin.seeker.infrastructure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.logging.LoggingMeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+Actuator в приложении не подключён, поэтому метрики периодически пишутся в лог
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new LoggingMeterRegistry();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.homyakin.seeker.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+Кэш сущностей перед DAO. DAO сам кладёт сущность в кэш после insert и update (write-through),
+поэтому кэш расходится с базой только при записи в обход DAO или другим инстансом, это ограничено expireAfterWrite.
+Отсутствие сущности не кэшируется: после getById обычно сразу идёт создание.
+ */
+public class EntityCache<K, V> {
+    private final Cache<K, V> cache;
+
+    EntityCache(Cache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Параллельные промахи по одному ключу ждут одну загрузку. Сброс ключа во время загрузки ждёт её конца,
+     * поэтому значение, прочитанное до изменения в базе, не переживает invalidateAll
+     */
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        return Optional.ofNullable(cache.get(key, k -> loader.apply(k).orElse(null)));
+    }
+
+    public Optional<V> getIfPresent(K key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    /**
+     * Для массовых изменений прямо в базе. Внутри транзакции ключи сбрасываются ещё раз после коммита,
+     * иначе параллельное чтение успеет положить в кэш значение до коммита
+     */
+    public void invalidateAll(Iterable<K> keys) {
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+}
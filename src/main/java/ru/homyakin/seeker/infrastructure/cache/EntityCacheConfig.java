@@ -0,0 +1,28 @@
+package ru.homyakin.seeker.infrastructure.cache;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "homyakin.seeker.cache")
+public class EntityCacheConfig {
+    private Long maximumSize;
+    private Duration expireAfterWrite;
+
+    public Long maximumSize() {
+        return maximumSize;
+    }
+
+    public Duration expireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setMaximumSize(Long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.homyakin.seeker.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/*
+Caffeine с ограничением по размеру (вытеснение W-TinyLFU) и временем жизни записи.
+Попадания, промахи, вытеснения и размер каждого кэша пишутся в метрики cache.* с тегом cache=<name>
+ */
+@Component
+public class EntityCacheFactory {
+    private final EntityCacheConfig config;
+    private final MeterRegistry meterRegistry;
+
+    public EntityCacheFactory(EntityCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <K, V> EntityCache<K, V> create(String name) {
+        final var cache = Caffeine.newBuilder()
+            .maximumSize(config.maximumSize())
+            .expireAfterWrite(config.expireAfterWrite())
+            .recordStats()
+            .<K, V>build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return new EntityCache<>(cache);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.homyakin.seeker.infrastructure.data_version;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+Неизменяемые данные вместе с версией, с которой они прочитаны. Читаются при первом обращении или reload,
+reloadIfChanged перечитывает их, только если версия в базе изменилась.
+ */
+public class VersionedSnapshot<T> {
+    private static final Logger logger = LoggerFactory.getLogger(VersionedSnapshot.class);
+    private final String name;
+    private final LongSupplier versionLoader;
+    private final Supplier<T> loader;
+    private volatile Loaded<T> loaded = null;
+
+    VersionedSnapshot(String name, LongSupplier versionLoader, Supplier<T> loader) {
+        this.name = name;
+        this.versionLoader = versionLoader;
+        this.loader = loader;
+    }
+
+    public T get() {
+        var current = loaded;
+        if (current == null) {
+            synchronized (this) {
+                if (loaded == null) {
+                    reload();
+                }
+                current = loaded;
+            }
+        }
+        return current.data();
+    }
+
+    public synchronized void reload() {
+        // Версия читается до данных: если их поменяют между запросами, следующая сверка перечитает их ещё раз
+        final long version = versionLoader.getAsLong();
+        loaded = new Loaded<>(version, loader.get());
+    }
+
+    public void reloadIfChanged() {
+        final var current = loaded;
+        if (current == null || current.version() != versionLoader.getAsLong()) {
+            logger.info("Data version of {} changed, reloading", name);
+            reload();
+        }
+    }
+
+    private record Loaded<T>(long version, T data) {
+    }
+}
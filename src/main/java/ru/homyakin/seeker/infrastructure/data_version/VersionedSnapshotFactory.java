@@ -0,0 +1,29 @@
+package ru.homyakin.seeker.infrastructure.data_version;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+Снимки справочников, которые перечитываются по версии из data_version.
+Версию увеличивают триггеры на таблицах справочника, name - имя строки в data_version.
+ */
+@Component
+public class VersionedSnapshotFactory {
+    private static final String GET_VERSION = "SELECT version FROM data_version WHERE name = :name";
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public VersionedSnapshotFactory(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    public <T> VersionedSnapshot<T> create(String name, Supplier<T> loader) {
+        return new VersionedSnapshot<>(name, () -> version(name), loader);
+    }
+
+    public long version(String name) {
+        return jdbcTemplate.queryForObject(GET_VERSION, Collections.singletonMap("name", name), Long.class);
+    }
+}
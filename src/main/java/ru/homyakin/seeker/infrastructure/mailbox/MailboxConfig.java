@@ -0,0 +1,46 @@
+package ru.homyakin.seeker.infrastructure.mailbox;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "homyakin.seeker.mailbox")
+public class MailboxConfig {
+    private Integer threads;
+    private Integer capacity;
+    private Integer batchSize;
+    private Duration idleTimeout;
+
+    public Integer threads() {
+        return threads;
+    }
+
+    public Integer capacity() {
+        return capacity;
+    }
+
+    public Integer batchSize() {
+        return batchSize;
+    }
+
+    public Duration idleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+}
@@ -0,0 +1,161 @@
+package ru.homyakin.seeker.infrastructure.mailbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/*
+У каждого чата свой почтовый ящик: задачи одного чата выполняются строго по очереди, разные чаты - параллельно.
+Через ящики идут и команды пользователей, и задачи шедулеров, поэтому изменения одной группы не пересекаются
+без блокировок в базе.
+Ящик за один заход выполняет не больше batchSize задач и уходит в конец очереди пула,
+чтобы большая группа не забирала все потоки. Пустые ящики удаляются после idleTimeout простоя.
+ */
+@Component
+public class MailboxExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(MailboxExecutor.class);
+    private final ExecutorService executor;
+    private final int capacity;
+    private final int batchSize;
+    private final long idleTimeoutNanos;
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Counter rejectedTasks;
+    private final Counter evictedMailboxes;
+
+    public MailboxExecutor(MailboxConfig config, MeterRegistry meterRegistry) {
+        this.capacity = config.capacity();
+        this.batchSize = config.batchSize();
+        this.idleTimeoutNanos = config.idleTimeout().toNanos();
+        this.executor = new ThreadPoolExecutor(
+            config.threads(),
+            config.threads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new CustomizableThreadFactory("mailbox-")
+        );
+
+        Gauge.builder("seeker.mailbox.count", mailboxes, Map::size)
+            .description("Mailboxes in memory")
+            .register(meterRegistry);
+        this.rejectedTasks = Counter.builder("seeker.mailbox.rejected")
+            .description("Tasks dropped because of full mailbox")
+            .register(meterRegistry);
+        this.evictedMailboxes = Counter.builder("seeker.mailbox.evicted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return false, если ящик чата переполнен и задача не будет выполнена
+     */
+    public boolean offer(long chatId, Runnable task) {
+        while (true) {
+            final var mailbox = mailboxes.computeIfAbsent(chatId, Mailbox::new);
+            final boolean needSchedule;
+            synchronized (mailbox) {
+                if (mailbox.isEvicted) {
+                    // Ящик успели удалить между computeIfAbsent и synchronized, берём новый
+                    continue;
+                }
+                if (mailbox.tasks.size() >= capacity) {
+                    rejectedTasks.increment();
+                    return false;
+                }
+                mailbox.tasks.add(task);
+                needSchedule = !mailbox.isScheduled;
+                mailbox.isScheduled = true;
+            }
+            if (needSchedule) {
+                executor.execute(() -> drain(mailbox));
+            }
+            return true;
+        }
+    }
+
+    public CompletableFuture<Void> submit(long chatId, Runnable task) {
+        final var future = new CompletableFuture<Void>();
+        final boolean isAccepted = offer(chatId, () -> {
+            try {
+                task.run();
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+        });
+        if (!isAccepted) {
+            future.completeExceptionally(new RejectedExecutionException("Mailbox of chat " + chatId + " is full"));
+        }
+        return future;
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void evictIdleMailboxes() {
+        final long now = System.nanoTime();
+        for (final var mailbox : mailboxes.values()) {
+            synchronized (mailbox) {
+                if (!mailbox.isScheduled && now - mailbox.lastActivity > idleTimeoutNanos) {
+                    mailbox.isEvicted = true;
+                    mailboxes.remove(mailbox.chatId, mailbox);
+                    evictedMailboxes.increment();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Mailboxes didn't finish tasks in time");
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        for (int i = 0; i < batchSize; ++i) {
+            final Runnable task;
+            synchronized (mailbox) {
+                task = mailbox.tasks.poll();
+                if (task == null) {
+                    mailbox.isScheduled = false;
+                    mailbox.lastActivity = System.nanoTime();
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                logger.error("Unable to execute task for chat " + mailbox.chatId, e);
+            }
+        }
+        executor.execute(() -> drain(mailbox));
+    }
+
+    private static class Mailbox {
+        private final long chatId;
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean isScheduled = false;
+        private boolean isEvicted = false;
+        private long lastActivity = System.nanoTime();
+
+        private Mailbox(long chatId) {
+            this.chatId = chatId;
+        }
+    }
+}
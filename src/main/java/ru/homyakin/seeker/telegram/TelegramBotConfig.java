@@ -10,6 +10,12 @@ import org.telegram.telegrambots.bots.DefaultBotOptions;
 public class TelegramBotConfig {
     private String token;
     private static String username;
+    private TelegramBotMode mode = TelegramBotMode.LONG_POLLING;
+    private String webhookUrl;
+    private Integer webhookPort;
+    private String webhookPath;
+    private String webhookSecret;
+    private Integer webhookThreads;
 
     @Bean
     public DefaultBotOptions createBotOptions() {
@@ -24,6 +30,33 @@ public class TelegramBotConfig {
         return username;
     }
 
+    public TelegramBotMode mode() {
+        return mode;
+    }
+
+    /**
+     * Внешний адрес, который передаётся телеграму при установке вебхука
+     */
+    public String webhookUrl() {
+        return webhookUrl;
+    }
+
+    public Integer webhookPort() {
+        return webhookPort;
+    }
+
+    public String webhookPath() {
+        return webhookPath;
+    }
+
+    public String webhookSecret() {
+        return webhookSecret;
+    }
+
+    public Integer webhookThreads() {
+        return webhookThreads;
+    }
+
     public void setToken(String token) {
         this.token = token;
     }
@@ -31,4 +64,28 @@ public class TelegramBotConfig {
     public void setUsername(String username) {
         TelegramBotConfig.username = username;
     }
+
+    public void setMode(TelegramBotMode mode) {
+        this.mode = mode;
+    }
+
+    public void setWebhookUrl(String webhookUrl) {
+        this.webhookUrl = webhookUrl;
+    }
+
+    public void setWebhookPort(Integer webhookPort) {
+        this.webhookPort = webhookPort;
+    }
+
+    public void setWebhookPath(String webhookPath) {
+        this.webhookPath = webhookPath;
+    }
+
+    public void setWebhookSecret(String webhookSecret) {
+        this.webhookSecret = webhookSecret;
+    }
+
+    public void setWebhookThreads(Integer webhookThreads) {
+        this.webhookThreads = webhookThreads;
+    }
 }
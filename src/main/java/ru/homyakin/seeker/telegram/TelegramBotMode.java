@@ -0,0 +1,7 @@
+package ru.homyakin.seeker.telegram;
+
+public enum TelegramBotMode {
+    LONG_POLLING,
+    WEBHOOK,
+    ;
+}
@@ -1,6 +1,7 @@
 package ru.homyakin.seeker.telegram;
 
 import io.vavr.control.Either;
+import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -12,27 +13,44 @@ import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.chatmember.ChatMember;
+import ru.homyakin.seeker.telegram.sender.EditMessageCoalescer;
+import ru.homyakin.seeker.telegram.sender.TelegramSendQueue;
 import ru.homyakin.seeker.utils.models.errors.TelegramError;
 
 @Component
 public class TelegramSender extends DefaultAbsSender {
     private static final Logger logger = LoggerFactory.getLogger(TelegramSender.class);
     private final String token;
+    private final TelegramSendQueue sendQueue;
+    private final EditMessageCoalescer editCoalescer;
 
-    protected TelegramSender(TelegramBotConfig botConfig, DefaultBotOptions options) {
+    protected TelegramSender(
+        TelegramBotConfig botConfig,
+        DefaultBotOptions options,
+        TelegramSendQueue sendQueue,
+        EditMessageCoalescer editCoalescer
+    ) {
         super(options);
         this.token = botConfig.token();
+        this.sendQueue = sendQueue;
+        this.editCoalescer = editCoalescer;
     }
 
-    public Either<TelegramError, Message> send(SendMessage sendMessage) {
-        try {
-            return Either.right(execute(sendMessage));
-        } catch (Exception e) {
-            logger.error(
-                "Unable send message with text %s to %s".formatted(sendMessage.getText(), sendMessage.getChatId()), e
-            );
-            return Either.left(new TelegramError());
-        }
+    /**
+     * Сообщение отправляется асинхронно через очередь с лимитами телеграма.
+     * Если нужен результат отправки, то нужно дождаться future.
+     */
+    public CompletableFuture<Either<TelegramError, Message>> send(SendMessage sendMessage) {
+        return sendQueue.enqueue(Long.parseLong(sendMessage.getChatId()), () -> execute(sendMessage))
+            .handle((message, e) -> {
+                if (e != null) {
+                    logger.error(
+                        "Unable send message with text %s to %s".formatted(sendMessage.getText(), sendMessage.getChatId()), e
+                    );
+                    return Either.left(new TelegramError());
+                }
+                return Either.right(message);
+            });
     }
 
     public Either<TelegramError, ChatMember> send(GetChatMember getChatMember) {
@@ -56,19 +74,27 @@ public class TelegramSender extends DefaultAbsSender {
         }
     }
 
+    /**
+     * Правки одного сообщения схлопываются, см. EditMessageCoalescer
+     */
     public void send(EditMessageText editMessageText) {
-        try {
-            execute(editMessageText);
-        } catch (Exception e) {
-            if (!e.getMessage().contains("Bad Request: message is not modified")) {
+        editCoalescer.submit(editMessageText, this::sendEdit);
+    }
+
+    private CompletableFuture<Boolean> sendEdit(EditMessageText editMessageText) {
+        return sendQueue.enqueueEdit(Long.parseLong(editMessageText.getChatId()), () -> execute(editMessageText))
+            .handle((message, e) -> {
+                if (e == null || String.valueOf(e.getMessage()).contains("Bad Request: message is not modified")) {
+                    return true;
+                }
                 logger.error(
                     "Unable edit message %d in chat %s".formatted(
                         editMessageText.getMessageId(), editMessageText.getChatId()
                     ),
                     e
                 );
-            }
-        }
+                return false;
+            });
     }
 
     @Override
@@ -1,5 +1,9 @@
 package ru.homyakin.seeker.telegram;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -8,8 +12,9 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 import org.telegram.telegrambots.meta.generics.BotOptions;
 import org.telegram.telegrambots.meta.generics.LongPollingBot;
+import ru.homyakin.seeker.telegram.command.CommandDispatcher;
 import ru.homyakin.seeker.telegram.command.CommandParser;
-import ru.homyakin.seeker.telegram.command.CommandProcessor;
+import ru.homyakin.seeker.telegram.models.UpdateType;
 import ru.homyakin.seeker.telegram.utils.TelegramUtils;
 
 /*
@@ -23,26 +28,50 @@ public class TelegramUpdateReceiver implements LongPollingBot {
     private final TelegramBotConfig config;
     private final DefaultBotOptions botOptions;
     private final CommandParser commandParser;
-    private final CommandProcessor commandProcessor;
+    private final CommandDispatcher commandDispatcher;
+    private final Map<UpdateType, Counter> acceptedUpdates = new EnumMap<>(UpdateType.class);
+    private final Map<UpdateType, Counter> discardedUpdates = new EnumMap<>(UpdateType.class);
 
     public TelegramUpdateReceiver(
         TelegramBotConfig config,
         DefaultBotOptions botOptions,
         CommandParser commandParser,
-        CommandProcessor commandProcessor
+        CommandDispatcher commandDispatcher,
+        MeterRegistry meterRegistry
     ) {
         this.config = config;
         this.botOptions = botOptions;
         this.commandParser = commandParser;
-        this.commandProcessor = commandProcessor;
+        this.commandDispatcher = commandDispatcher;
+        for (final var type : UpdateType.values()) {
+            acceptedUpdates.put(type, updatesCounter(meterRegistry, type, "accepted"));
+            discardedUpdates.put(type, updatesCounter(meterRegistry, type, "discarded"));
+        }
     }
 
     @Override
     public void onUpdateReceived(Update update) {
-        logger.debug("New update: " + update.toString());
-        if (TelegramUtils.needToProcessUpdate(update, getBotUsername())) {
-            commandParser.parse(update).ifPresent(commandProcessor::process);
+        logger.debug("New update: {}", update);
+        final var type = UpdateType.from(update);
+        // Сначала дешёвая проверка, что апдейт вообще может быть командой, и только потом разбор
+        if (!TelegramUtils.needToProcessUpdate(update, getBotUsername())) {
+            discardedUpdates.get(type).increment();
+            return;
+        }
+        final var command = commandParser.parse(update);
+        if (command.isEmpty()) {
+            discardedUpdates.get(type).increment();
+            return;
         }
+        acceptedUpdates.get(type).increment();
+        commandDispatcher.dispatch(TelegramUtils.getChatId(update), command.get());
+    }
+
+    private static Counter updatesCounter(MeterRegistry meterRegistry, UpdateType type, String result) {
+        return Counter.builder("seeker.updates")
+            .tag("type", type.name().toLowerCase())
+            .tag("result", result)
+            .register(meterRegistry);
     }
 
     @Override
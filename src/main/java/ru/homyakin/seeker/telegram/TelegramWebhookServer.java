@@ -0,0 +1,97 @@
+package ru.homyakin.seeker.telegram;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+/*
+Приём апдейтов через вебхук на встроенном в JDK http сервере.
+До ответа 200 апдейт только ставится в очередь чата, команда выполняется уже после ответа.
+Вебхук ставится с max_connections=1, и следующий апдейт телеграм шлёт только после ответа на предыдущий,
+поэтому апдейты одного чата попадают в очередь в том порядке, в котором их прислал телеграм.
+Без настоящего секрета сервер не стартует: иначе апдейты от имени любого пользователя мог бы прислать кто угодно.
+ */
+@Component
+public class TelegramWebhookServer {
+    private static final Logger logger = LoggerFactory.getLogger(TelegramWebhookServer.class);
+    private static final String SECRET_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+    // Значение из application.properties
+    private static final String DEFAULT_SECRET = "stub";
+    // Ограничения телеграма на secret_token в setWebhook
+    private static final Pattern SECRET_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,256}");
+    private final TelegramBotConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public TelegramWebhookServer(TelegramBotConfig config) {
+        this.config = config;
+    }
+
+    public void start(Consumer<Update> updateConsumer) throws IOException {
+        final var secret = config.webhookSecret();
+        if (secret == null || DEFAULT_SECRET.equals(secret) || !SECRET_PATTERN.matcher(secret).matches()) {
+            throw new IllegalStateException(
+                "homyakin.seeker.telegram.webhookSecret must be set to 1-256 characters A-Z, a-z, 0-9, _ or - "
+                    + "and differ from the default in webhook mode"
+            );
+        }
+        executor = Executors.newFixedThreadPool(config.webhookThreads(), new CustomizableThreadFactory("webhook-"));
+        server = HttpServer.create(new InetSocketAddress(config.webhookPort()), 0);
+        server.setExecutor(executor);
+        server.createContext(config.webhookPath(), exchange -> handle(exchange, updateConsumer));
+        server.start();
+        logger.info("Webhook server started on port {}", port());
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+        }
+    }
+
+    private void handle(HttpExchange exchange, Consumer<Update> updateConsumer) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!config.webhookSecret().equals(exchange.getRequestHeaders().getFirst(SECRET_HEADER))) {
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+            final Update update;
+            try (final var body = exchange.getRequestBody()) {
+                update = objectMapper.readValue(body, Update.class);
+            } catch (IOException e) {
+                logger.warn("Unable to parse update from webhook", e);
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            updateConsumer.accept(update);
+            exchange.sendResponseHeaders(200, -1);
+        } catch (Exception e) {
+            logger.error("Unable to process webhook request", e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.homyakin.seeker.telegram.command;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.infrastructure.mailbox.MailboxExecutor;
+
+/*
+Команды выполняются в почтовом ящике чата, см. MailboxExecutor.
+Если общее количество ожидающих команд достигает лимита, поток получения апдейтов ждёт освобождения места.
+ */
+@Component
+public class CommandDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(CommandDispatcher.class);
+    private final CommandProcessor commandProcessor;
+    private final MailboxExecutor mailboxExecutor;
+    private final Semaphore pendingPermits;
+    private final long enqueueTimeoutMillis;
+    private final Counter rejectedCommands;
+    private final Timer executionTimer;
+    private final Timer waitTimer;
+
+    public CommandDispatcher(
+        CommandProcessor commandProcessor,
+        MailboxExecutor mailboxExecutor,
+        CommandDispatcherConfig config,
+        MeterRegistry meterRegistry
+    ) {
+        this.commandProcessor = commandProcessor;
+        this.mailboxExecutor = mailboxExecutor;
+        this.pendingPermits = new Semaphore(config.maxPendingCommands());
+        this.enqueueTimeoutMillis = config.enqueueTimeout().toMillis();
+
+        final int maxPendingCommands = config.maxPendingCommands();
+        Gauge.builder("seeker.dispatcher.pending", pendingPermits, it -> maxPendingCommands - it.availablePermits())
+            .description("Commands waiting for execution")
+            .register(meterRegistry);
+        this.rejectedCommands = Counter.builder("seeker.dispatcher.rejected")
+            .description("Commands dropped because of full queue")
+            .register(meterRegistry);
+        this.executionTimer = Timer.builder("seeker.dispatcher.execution")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("seeker.dispatcher.wait")
+            .description("Time between receiving command and start of its execution")
+            .register(meterRegistry);
+    }
+
+    public void dispatch(long chatId, Command command) {
+        if (!acquirePermit()) {
+            rejectedCommands.increment();
+            logger.warn("Dispatcher is overloaded, command {} for chat {} is dropped", command, chatId);
+            return;
+        }
+        final long receivedAt = System.nanoTime();
+        final boolean isAccepted = mailboxExecutor.offer(chatId, () -> {
+            pendingPermits.release();
+            execute(command, receivedAt);
+        });
+        if (!isAccepted) {
+            pendingPermits.release();
+            rejectedCommands.increment();
+            logger.warn("Too many commands for chat {}, command {} is dropped", chatId, command);
+        }
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return pendingPermits.tryAcquire(enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void execute(Command command, long receivedAt) {
+        waitTimer.record(System.nanoTime() - receivedAt, TimeUnit.NANOSECONDS);
+        final long start = System.nanoTime();
+        try {
+            commandProcessor.process(command);
+        } catch (Exception e) {
+            logger.error("Unable to execute command " + command, e);
+        } finally {
+            executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.homyakin.seeker.telegram.command;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "homyakin.seeker.dispatcher")
+public class CommandDispatcherConfig {
+    private Integer maxPendingCommands;
+    private Duration enqueueTimeout;
+
+    public Integer maxPendingCommands() {
+        return maxPendingCommands;
+    }
+
+    public Duration enqueueTimeout() {
+        return enqueueTimeout;
+    }
+
+    public void setMaxPendingCommands(Integer maxPendingCommands) {
+        this.maxPendingCommands = maxPendingCommands;
+    }
+
+    public void setEnqueueTimeout(Duration enqueueTimeout) {
+        this.enqueueTimeout = enqueueTimeout;
+    }
+}
@@ -1,13 +1,11 @@
 package ru.homyakin.seeker.telegram.command;
 
-import com.vdurmont.emoji.EmojiParser;
 import java.util.Optional;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import org.telegram.telegrambots.meta.api.objects.ChatMemberUpdated;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.telegram.command.common.help.SelectHelp;
 import ru.homyakin.seeker.telegram.command.group.spin.Spin;
 import ru.homyakin.seeker.telegram.command.group.duel.AcceptDuel;
@@ -23,6 +21,7 @@ import ru.homyakin.seeker.telegram.command.group.spin.SpinTop;
 import ru.homyakin.seeker.telegram.command.group.stats.GetGroupStats;
 import ru.homyakin.seeker.telegram.command.group.tavern_menu.GetTavernMenu;
 import ru.homyakin.seeker.telegram.command.group.tavern_menu.Order;
+import ru.homyakin.seeker.telegram.command.type.CallbackCodec;
 import ru.homyakin.seeker.telegram.command.type.CommandType;
 import ru.homyakin.seeker.telegram.command.user.characteristics.CancelResetCharacteristics;
 import ru.homyakin.seeker.telegram.command.user.characteristics.IncreaseCharacteristic;
@@ -85,9 +84,7 @@ public class CommandParser {
     }
 
     private Optional<Command> parsePrivateMessage(Message message) {
-        return CommandType.getFromString(
-                EmojiParser.parseToAliases(message.getText())
-            )
+        return CommandType.getFromString(message.getText())
             .map(commandType -> switch (commandType) {
                 case CHANGE_LANGUAGE -> UserChangeLanguage.from(message);
                 case START -> StartUser.from(message);
@@ -103,7 +100,8 @@ public class CommandParser {
     }
 
     private Optional<Command> parseGroupMessage(Message message) {
-        return CommandType.getFromString(message.getText().split("@")[0].split(" ")[0])
+        final var text = message.getText();
+        return CommandType.getFromString(text, TelegramUtils.commandLength(text))
             .map(commandType -> switch (commandType) {
                 case CHANGE_LANGUAGE -> GroupChangeLanguage.from(message);
                 case GET_PROFILE -> GetProfileInGroup.from(message);
@@ -129,27 +127,25 @@ public class CommandParser {
     }
 
     private Optional<Command> parsePrivateCallback(CallbackQuery callback) {
-        final var text = callback.getData().split(TextConstants.CALLBACK_DELIMITER)[0];
-        return CommandType.getFromString(text)
-            .map(commandType -> switch (commandType) {
-                case SELECT_LANGUAGE -> UserSelectLanguage.from(callback);
-                case SELECT_HELP -> SelectHelp.from(callback);
+        return CallbackCodec.decode(callback.getData())
+            .map(data -> switch (data.type()) {
+                case SELECT_LANGUAGE -> UserSelectLanguage.from(callback, data);
+                case SELECT_HELP -> SelectHelp.from(callback, data);
                 case CONFIRM_RESET_CHARACTERISTICS -> ConfirmResetCharacteristics.from(callback);
                 case CANCEL_RESET_CHARACTERISTICS -> CancelResetCharacteristics.from(callback);
-                case INCREASE_CHARACTERISTIC -> IncreaseCharacteristic.from(callback);
+                case INCREASE_CHARACTERISTIC -> IncreaseCharacteristic.from(callback, data);
                 default -> null;
             });
     }
 
     private Optional<Command> parseGroupCallback(CallbackQuery callback) {
-        final var text = callback.getData().split(TextConstants.CALLBACK_DELIMITER)[0];
-        return CommandType.getFromString(text)
-            .map(commandType -> switch (commandType) {
-                case SELECT_LANGUAGE -> GroupSelectLanguage.from(callback);
-                case JOIN_EVENT -> JoinEvent.from(callback);
-                case DECLINE_DUEL -> DeclineDuel.from(callback);
-                case ACCEPT_DUEL -> AcceptDuel.from(callback);
-                case SELECT_HELP -> SelectHelp.from(callback);
+        return CallbackCodec.decode(callback.getData())
+            .map(data -> switch (data.type()) {
+                case SELECT_LANGUAGE -> GroupSelectLanguage.from(callback, data);
+                case JOIN_EVENT -> JoinEvent.from(callback, data);
+                case DECLINE_DUEL -> DeclineDuel.from(callback, data);
+                case ACCEPT_DUEL -> AcceptDuel.from(callback, data);
+                case SELECT_HELP -> SelectHelp.from(callback, data);
                 default -> null;
             });
     }
@@ -1,8 +1,8 @@
 package ru.homyakin.seeker.telegram.command.common.help;
 
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.telegram.command.Command;
+import ru.homyakin.seeker.telegram.command.type.CallbackData;
 import ru.homyakin.seeker.telegram.utils.TelegramUtils;
 
 public record SelectHelp(
@@ -11,12 +11,12 @@ public record SelectHelp(
     boolean isPrivate,
     String helpSection
 ) implements Command {
-    public static SelectHelp from(CallbackQuery callback) {
+    public static SelectHelp from(CallbackQuery callback, CallbackData data) {
         return new SelectHelp(
             callback.getMessage().getChatId(),
             callback.getMessage().getMessageId(),
             !TelegramUtils.isGroupMessage(callback.getMessage()),
-            callback.getData().split(TextConstants.CALLBACK_DELIMITER)[1]
+            data.stringPayload()
         );
     }
 }
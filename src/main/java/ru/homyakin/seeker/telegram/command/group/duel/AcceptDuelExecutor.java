@@ -1,10 +1,12 @@
 package ru.homyakin.seeker.telegram.command.group.duel;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.game.battle.BattleLogService;
+import ru.homyakin.seeker.game.battle.BattleRandom;
+import ru.homyakin.seeker.game.battle.PersonageRoster;
 import ru.homyakin.seeker.game.battle.TwoPersonageTeamsBattle;
 import ru.homyakin.seeker.game.duel.DuelService;
 import ru.homyakin.seeker.game.duel.models.DuelStatus;
@@ -30,6 +32,7 @@ public class AcceptDuelExecutor extends CommandExecutor<AcceptDuel> {
     private final TwoPersonageTeamsBattle twoPersonageTeamsBattle;
     private final GroupStatsService groupStatsService;
     private final UserService userService;
+    private final BattleLogService battleLogService;
 
     public AcceptDuelExecutor(
         GroupUserService groupUserService,
@@ -38,7 +41,8 @@ public class AcceptDuelExecutor extends CommandExecutor<AcceptDuel> {
         TelegramSender telegramSender,
         TwoPersonageTeamsBattle twoPersonageTeamsBattle,
         GroupStatsService groupStatsService,
-        UserService userService
+        UserService userService,
+        BattleLogService battleLogService
     ) {
         this.groupUserService = groupUserService;
         this.duelService = duelService;
@@ -47,6 +51,7 @@ public class AcceptDuelExecutor extends CommandExecutor<AcceptDuel> {
         this.twoPersonageTeamsBattle = twoPersonageTeamsBattle;
         this.groupStatsService = groupStatsService;
         this.userService = userService;
+        this.battleLogService = battleLogService;
     }
 
     @Override
@@ -79,12 +84,19 @@ public class AcceptDuelExecutor extends CommandExecutor<AcceptDuel> {
         // TODO вынести в отдельный поток и сервис
         final var personage1 = personageService.getByIdForce(duel.initiatingPersonageId());
         final var personage2 = personageService.getByIdForce(duel.acceptingPersonageId());
-        final var battlePersonage1 = personage1.toBattlePersonage();
-        final var battlePersonage2 = personage2.toBattlePersonage();
+        final var firstTeam = List.of(personage1.toBattlePersonage());
+        final var secondTeam = List.of(personage2.toBattlePersonage());
+        final var firstTeamAtStart = PersonageRoster.of(firstTeam);
+        final var secondTeamAtStart = PersonageRoster.of(secondTeam);
+        final var battleLog = battleLogService.newLog();
+        final long seed = BattleRandom.newSeed();
         final var battleResult = twoPersonageTeamsBattle.battle(
-            new ArrayList<>(List.of(battlePersonage1)),
-            new ArrayList<>(List.of(battlePersonage2))
+            firstTeam,
+            secondTeam,
+            BattleRandom.seeded(seed),
+            battleLog
         );
+        battleLogService.saveDuelLog(duel.id(), seed, firstTeamAtStart, secondTeamAtStart, battleLog);
 
         final Personage winner;
         final Personage looser;
@@ -1,8 +1,8 @@
 package ru.homyakin.seeker.telegram.command.group.duel;
 
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.telegram.command.Command;
+import ru.homyakin.seeker.telegram.command.type.CallbackData;
 
 public record DeclineDuel(
     String callbackId,
@@ -11,13 +11,13 @@ public record DeclineDuel(
     int messageId,
     long duelId
 ) implements Command {
-    public static DeclineDuel from(CallbackQuery callback) {
+    public static DeclineDuel from(CallbackQuery callback, CallbackData data) {
         return new DeclineDuel(
             callback.getId(),
             callback.getMessage().getChatId(),
             callback.getFrom().getId(),
             callback.getMessage().getMessageId(),
-            Long.parseLong(callback.getData().split(TextConstants.CALLBACK_DELIMITER)[1])
+            data.longPayload()
         );
     }
 }
@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import ru.homyakin.seeker.game.duel.DuelService;
+import ru.homyakin.seeker.game.duel.models.DuelStatus;
 import ru.homyakin.seeker.game.personage.PersonageService;
 import ru.homyakin.seeker.locale.duel.DuelLocalization;
 import ru.homyakin.seeker.telegram.TelegramSender;
@@ -53,6 +54,11 @@ public class DeclineDuelExecutor extends CommandExecutor<DeclineDuel> {
             return;
         }
 
+        if (duel.status() != DuelStatus.WAITING) {
+            //TODO нормальный обработчик
+            return;
+        }
+
         duelService.declineDuel(duel.id());
         final var initiator = personageService.getByIdForce(duel.initiatingPersonageId());
         final var initiatingUser = userService.getByPersonageIdForce(duel.initiatingPersonageId());
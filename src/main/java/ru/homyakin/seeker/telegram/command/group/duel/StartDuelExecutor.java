@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 import ru.homyakin.seeker.game.duel.DuelService;
 import ru.homyakin.seeker.game.duel.models.DuelError;
 import ru.homyakin.seeker.game.personage.PersonageService;
+import ru.homyakin.seeker.infrastructure.mailbox.MailboxExecutor;
 import ru.homyakin.seeker.locale.duel.DuelLocalization;
 import ru.homyakin.seeker.telegram.TelegramSender;
 import ru.homyakin.seeker.telegram.command.CommandExecutor;
@@ -26,19 +27,22 @@ public class StartDuelExecutor extends CommandExecutor<StartDuel> {
     private final PersonageService personageService;
     private final DuelService duelService;
     private final TelegramSender telegramSender;
+    private final MailboxExecutor mailboxExecutor;
 
     public StartDuelExecutor(
         GroupUserService groupUserService,
         UserService userService,
         PersonageService personageService,
         DuelService duelService,
-        TelegramSender telegramSender
+        TelegramSender telegramSender,
+        MailboxExecutor mailboxExecutor
     ) {
         this.groupUserService = groupUserService;
         this.userService = userService;
         this.personageService = personageService;
         this.duelService = duelService;
         this.telegramSender = telegramSender;
+        this.mailboxExecutor = mailboxExecutor;
     }
 
     @Override
@@ -83,12 +87,22 @@ public class StartDuelExecutor extends CommandExecutor<StartDuel> {
             .keyboard(InlineKeyboards.duelKeyboard(group.language(), duelResult.get().id()));
         initDuel.initiatorPosition().ifPresent(it -> builder.mentionPersonage(initiatingPersonage, user.id(), it));
         initDuel.acceptorPosition().ifPresent(it -> builder.mentionPersonage(acceptingPersonage, acceptingUser.id(), it));
-        final var telegramResult = telegramSender.send(builder.build());
-        if (telegramResult.isLeft()) {
-            logger.error("Can't send duel to group");
-            return;
-        }
-        duelService.addMessageIdToDuel(duelResult.get().id(), telegramResult.get().getMessageId());
+        // Сообщение может ждать лимита группы до минуты, поэтому id сообщения сохраняется
+        // отдельной задачей в ящике группы, а не в потоке, который выполняет команду
+        final long duelId = duelResult.get().id();
+        telegramSender.send(builder.build()).thenAccept(telegramResult -> {
+            if (telegramResult.isLeft()) {
+                logger.error("Can't send duel to group");
+                return;
+            }
+            mailboxExecutor.submit(
+                group.id(),
+                () -> duelService.addMessageIdToDuel(duelId, telegramResult.get().getMessageId())
+            ).exceptionally(e -> {
+                logger.error("Unable to save message of duel " + duelId, e);
+                return null;
+            });
+        });
     }
 
     private Either<Failure, ReplyInfo> validateCommandAndSendErrorIfNeed(StartDuel command, Group group) {
@@ -1,8 +1,8 @@
 package ru.homyakin.seeker.telegram.command.group.event;
 
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.telegram.command.Command;
+import ru.homyakin.seeker.telegram.command.type.CallbackData;
 
 public record JoinEvent(
     String callbackId,
@@ -11,13 +11,13 @@ public record JoinEvent(
     Long userId,
     long launchedEventId
 ) implements Command {
-    public static JoinEvent from(CallbackQuery callback) {
+    public static JoinEvent from(CallbackQuery callback, CallbackData data) {
         return new JoinEvent(
             callback.getId(),
             callback.getMessage().getChatId(),
             callback.getMessage().getMessageId(),
             callback.getFrom().getId(),
-            Long.parseLong(callback.getData().split(TextConstants.CALLBACK_DELIMITER)[1])
+            data.longPayload()
         );
     }
 }
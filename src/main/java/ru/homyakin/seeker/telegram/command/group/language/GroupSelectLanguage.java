@@ -1,9 +1,9 @@
 package ru.homyakin.seeker.telegram.command.group.language;
 
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.locale.Language;
 import ru.homyakin.seeker.telegram.command.Command;
+import ru.homyakin.seeker.telegram.command.type.CallbackData;
 
 public record GroupSelectLanguage(
     String callbackId,
@@ -12,13 +12,13 @@ public record GroupSelectLanguage(
     Long userId,
     Language language
 ) implements Command {
-    public static GroupSelectLanguage from(CallbackQuery callback) {
+    public static GroupSelectLanguage from(CallbackQuery callback, CallbackData data) {
         return new GroupSelectLanguage(
             callback.getId(),
             callback.getMessage().getChatId(),
             callback.getMessage().getMessageId(),
             callback.getFrom().getId(),
-            Language.getOrDefault(Integer.parseInt(callback.getData().split(TextConstants.CALLBACK_DELIMITER)[1]))
+            Language.getOrDefault(data.intPayload())
         );
     }
 }
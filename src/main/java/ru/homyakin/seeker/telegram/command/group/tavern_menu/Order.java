@@ -4,6 +4,7 @@ import java.util.Optional;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import ru.homyakin.seeker.telegram.command.Command;
 import ru.homyakin.seeker.telegram.command.type.CommandType;
+import ru.homyakin.seeker.telegram.utils.TelegramUtils;
 
 public record Order(
     long groupId,
@@ -12,10 +13,11 @@ public record Order(
     Optional<Integer> itemId
 ) implements Command {
     public static Order from(Message message) {
+        final var text = message.getText();
         Optional<Integer> itemId;
         try {
             itemId = Optional.of(
-                Integer.parseInt(message.getText().split("@")[0].replace(CommandType.ORDER.getText(), ""))
+                Integer.parseInt(text, CommandType.ORDER.getText().length(), TelegramUtils.commandLength(text), 10)
             );
         } catch (NumberFormatException e) {
             itemId = Optional.empty();
@@ -0,0 +1,79 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+import java.util.Optional;
+import ru.homyakin.seeker.infrastructure.TextConstants;
+
+/*
+Формат коллбэка: одна заглавная латинская буква типа команды и нагрузка, числа в 36-ричной системе.
+Старые кнопки вида joinEvent~123 ещё живут в чатах, они начинаются со строчной буквы и разбираются по-старому.
+ */
+public class CallbackCodec {
+    private static final int ID_RADIX = Character.MAX_RADIX;
+    private static final int LEGACY_RADIX = 10;
+    private static final CommandType[] TAG_TO_TYPE = new CommandType['Z' + 1];
+
+    static {
+        for (final var type : CommandType.values()) {
+            final char tag = tag(type);
+            if (tag != 0) {
+                TAG_TO_TYPE[tag] = type;
+            }
+        }
+    }
+
+    public static String encode(CommandType type) {
+        return String.valueOf(tagForce(type));
+    }
+
+    public static String encode(CommandType type, long id) {
+        return tagForce(type) + Long.toString(id, ID_RADIX);
+    }
+
+    public static String encode(CommandType type, Enum<?> value) {
+        return tagForce(type) + value.name();
+    }
+
+    public static Optional<CallbackData> decode(String data) {
+        if (data == null || data.isEmpty()) {
+            return Optional.empty();
+        }
+        final char first = data.charAt(0);
+        if (first >= 'A' && first <= 'Z') {
+            return Optional.ofNullable(TAG_TO_TYPE[first])
+                .map(type -> new CallbackData(type, data, 1, ID_RADIX));
+        }
+        return decodeLegacy(data);
+    }
+
+    private static Optional<CallbackData> decodeLegacy(String data) {
+        final int delimiter = data.indexOf(TextConstants.CALLBACK_DELIMITER);
+        final String text = delimiter == -1 ? data : data.substring(0, delimiter);
+        final int payloadStart = delimiter == -1 ? data.length() : delimiter + TextConstants.CALLBACK_DELIMITER.length();
+        return CommandType.getFromString(text)
+            .filter(type -> tag(type) != 0)
+            .map(type -> new CallbackData(type, data, payloadStart, LEGACY_RADIX));
+    }
+
+    private static char tagForce(CommandType type) {
+        final char tag = tag(type);
+        if (tag == 0) {
+            throw new IllegalArgumentException("Command " + type + " can't be a callback");
+        }
+        return tag;
+    }
+
+    // Буквы не менять, иначе перестанут работать уже отправленные кнопки
+    private static char tag(CommandType type) {
+        return switch (type) {
+            case SELECT_LANGUAGE -> 'L';
+            case JOIN_EVENT -> 'J';
+            case SELECT_HELP -> 'H';
+            case ACCEPT_DUEL -> 'A';
+            case DECLINE_DUEL -> 'D';
+            case CONFIRM_RESET_CHARACTERISTICS -> 'C';
+            case CANCEL_RESET_CHARACTERISTICS -> 'R';
+            case INCREASE_CHARACTERISTIC -> 'I';
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+/**
+ * Разобранные данные коллбэка. Полезная нагрузка не вырезается из строки, пока не понадобится
+ */
+public record CallbackData(
+    CommandType type,
+    String data,
+    int payloadStart,
+    int radix
+) {
+    public long longPayload() {
+        return Long.parseLong(data, payloadStart, data.length(), radix);
+    }
+
+    public int intPayload() {
+        return Integer.parseInt(data, payloadStart, data.length(), radix);
+    }
+
+    public String stringPayload() {
+        return data.substring(payloadStart);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+Префиксное дерево по текстам команд. Поиск проходит строку один раз и ничего не аллоцирует.
+Полное совпадение приоритетнее совпадения по префиксу, из префиксов выбирается самый длинный.
+Дерево неизменяемое, при добавлении текстов собирается заново.
+ */
+final class CommandTrie {
+    private final Node root;
+
+    private CommandTrie(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Ищет команду по первым length символам текста
+     * @return тип команды или null, если текст не подходит ни под одну команду
+     */
+    CommandType find(String text, int length) {
+        Node node = root;
+        CommandType prefixMatch = node.prefix;
+        for (int i = 0; i < length; ++i) {
+            node = node.child(text.charAt(i));
+            if (node == null) {
+                return prefixMatch;
+            }
+            if (node.prefix != null) {
+                prefixMatch = node.prefix;
+            }
+        }
+        return node.exact != null ? node.exact : prefixMatch;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static class Builder {
+        private final MutableNode root = new MutableNode();
+
+        Builder addExact(String text, CommandType type) {
+            nodeFor(text).exact = type;
+            return this;
+        }
+
+        Builder addPrefix(String text, CommandType type) {
+            nodeFor(text).prefix = type;
+            return this;
+        }
+
+        CommandTrie build() {
+            return new CommandTrie(root.compile());
+        }
+
+        private MutableNode nodeFor(String text) {
+            MutableNode node = root;
+            for (int i = 0; i < text.length(); ++i) {
+                node = node.children.computeIfAbsent(text.charAt(i), it -> new MutableNode());
+            }
+            return node;
+        }
+    }
+
+    private static class MutableNode {
+        private final Map<Character, MutableNode> children = new TreeMap<>();
+        private CommandType exact;
+        private CommandType prefix;
+
+        private Node compile() {
+            final var keys = new char[children.size()];
+            final var nodes = new Node[children.size()];
+            int i = 0;
+            for (final var entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().compile();
+                ++i;
+            }
+            return new Node(keys, nodes, exact, prefix);
+        }
+    }
+
+    private static class Node {
+        // Ключи отсортированы, поиск ребёнка бинпоиском
+        private final char[] keys;
+        private final Node[] children;
+        private final CommandType exact;
+        private final CommandType prefix;
+
+        private Node(char[] keys, Node[] children, CommandType exact, CommandType prefix) {
+            this.keys = keys;
+            this.children = children;
+            this.exact = exact;
+            this.prefix = prefix;
+        }
+
+        private Node child(char c) {
+            final int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
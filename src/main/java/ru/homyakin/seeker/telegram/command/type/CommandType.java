@@ -1,6 +1,6 @@
 package ru.homyakin.seeker.telegram.command.type;
 
-import java.util.Arrays;
+import com.vdurmont.emoji.EmojiParser;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -33,7 +33,8 @@ public enum CommandType {
     SPIN_TOP("/spintop", CheckType.EQUALS),
     ;
 
-    private static final Map<String, CommandType> textToType = new HashMap<>();
+    private static final Map<String, CommandType> localeTextToType = new HashMap<>();
+    private static volatile CommandTrie trie = buildTrie();
 
     private final String text;
     private final CheckType checkType;
@@ -48,27 +49,44 @@ public enum CommandType {
     }
 
     public static Optional<CommandType> getFromString(String text) {
-        if (textToType.containsKey(text)) {
-            return Optional.of(textToType.get(text));
-        }
-        return Arrays.stream(values())
-            .filter(type -> type.check(text))
-            .findFirst();
+        return getFromString(text, text.length());
+    }
+
+    /**
+     * Ищет команду по первым length символам, чтобы не вырезать команду из текста
+     */
+    public static Optional<CommandType> getFromString(String text, int length) {
+        return Optional.ofNullable(trie.find(text, length));
     }
 
-    public static void fillLocaleMap(MenuResource resource) {
-        textToType.put(resource.profileButton(), CommandType.GET_PROFILE);
-        textToType.put(resource.languageButton(), CommandType.CHANGE_LANGUAGE);
-        textToType.put(resource.receptionDeskButton(), CommandType.RECEPTION_DESK);
-        textToType.put(resource.backButton(), CommandType.BACK);
-        textToType.put(resource.resetCharacteristicsButton(), CommandType.RESET_CHARACTERISTICS);
+    public static synchronized void fillLocaleMap(MenuResource resource) {
+        localeTextToType.put(resource.profileButton(), CommandType.GET_PROFILE);
+        localeTextToType.put(resource.languageButton(), CommandType.CHANGE_LANGUAGE);
+        localeTextToType.put(resource.receptionDeskButton(), CommandType.RECEPTION_DESK);
+        localeTextToType.put(resource.backButton(), CommandType.BACK);
+        localeTextToType.put(resource.resetCharacteristicsButton(), CommandType.RESET_CHARACTERISTICS);
+        trie = buildTrie();
     }
 
-    private boolean check(String text) {
-        return switch (this.checkType) {
-            case EQUALS -> this.text.equals(text);
-            case STARTS_WITH -> text.startsWith(this.text);
-            case MAP -> false;
-        };
+    CheckType checkType() {
+        return checkType;
+    }
+
+    private static CommandTrie buildTrie() {
+        final var builder = CommandTrie.builder();
+        for (final var type : values()) {
+            switch (type.checkType) {
+                case EQUALS -> builder.addExact(type.text, type);
+                case STARTS_WITH -> builder.addPrefix(type.text, type);
+                case MAP -> {
+                }
+            }
+        }
+        // Тексты кнопок приоритетнее текстов команд. Кнопки приходят с эмодзи в юникоде, а в локализации они алиасами
+        localeTextToType.forEach((text, type) -> {
+            builder.addExact(text, type);
+            builder.addExact(EmojiParser.parseToUnicode(text), type);
+        });
+        return builder.build();
     }
 }
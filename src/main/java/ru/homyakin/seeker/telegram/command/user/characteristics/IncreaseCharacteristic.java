@@ -2,19 +2,19 @@ package ru.homyakin.seeker.telegram.command.user.characteristics;
 
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
 import ru.homyakin.seeker.game.personage.models.CharacteristicType;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.telegram.command.Command;
+import ru.homyakin.seeker.telegram.command.type.CallbackData;
 
 public record IncreaseCharacteristic(
     long userId,
     int messageId,
     CharacteristicType characteristicType
 ) implements Command {
-    public static IncreaseCharacteristic from(CallbackQuery callback) {
+    public static IncreaseCharacteristic from(CallbackQuery callback, CallbackData data) {
         return new IncreaseCharacteristic(
             callback.getFrom().getId(),
             callback.getMessage().getMessageId(),
-            CharacteristicType.findForce(callback.getData().split(TextConstants.CALLBACK_DELIMITER)[1])
+            CharacteristicType.findForce(data.stringPayload())
         );
     }
 }
@@ -1,9 +1,9 @@
 package ru.homyakin.seeker.telegram.command.user.language;
 
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.locale.Language;
 import ru.homyakin.seeker.telegram.command.Command;
+import ru.homyakin.seeker.telegram.command.type.CallbackData;
 
 public record UserSelectLanguage(
     String callbackId,
@@ -11,12 +11,12 @@ public record UserSelectLanguage(
     Integer messageId,
     Language language
 ) implements Command {
-    public static UserSelectLanguage from(CallbackQuery callback) {
+    public static UserSelectLanguage from(CallbackQuery callback, CallbackData data) {
         return new UserSelectLanguage(
             callback.getId(),
             callback.getFrom().getId(),
             callback.getMessage().getMessageId(),
-            Language.getOrDefault(Integer.parseInt(callback.getData().split(TextConstants.CALLBACK_DELIMITER)[1]))
+            Language.getOrDefault(data.intPayload())
         );
     }
 }
@@ -25,6 +25,13 @@ public class GroupService {
             .orElseGet(() -> createGroup(groupId));
     }
 
+    /**
+     * Группа только из кэша, без запроса в базу
+     */
+    public Optional<Group> getCached(long groupId) {
+        return groupDao.getCachedById(groupId);
+    }
+
     public void setNotActive(long groupId) {
         getGroup(groupId).map(group -> group.deactivate(groupDao));
     }
@@ -37,6 +44,10 @@ public class GroupService {
         return groupDao.getGetGroupsWithLessNextEventDate(maxNextEventDate);
     }
 
+    public List<Group> getActiveGroups() {
+        return groupDao.getActiveGroups();
+    }
+
     public void updateNextEventDate(Group group, LocalDateTime nextEventDate) {
         group.updateNextEventDate(nextEventDate, groupDao);
     }
@@ -8,9 +8,11 @@ import ru.homyakin.seeker.telegram.group.models.GroupStats;
 @Service
 public class GroupStatsService {
     private final GroupStatsDao groupStatsDao;
+    private final PendingGroupStats pendingGroupStats;
 
-    public GroupStatsService(GroupStatsDao groupStatsDao) {
+    public GroupStatsService(GroupStatsDao groupStatsDao, PendingGroupStats pendingGroupStats) {
         this.groupStatsDao = groupStatsDao;
+        this.pendingGroupStats = pendingGroupStats;
     }
 
     public void create(long groupId) {
@@ -18,18 +20,22 @@ public class GroupStatsService {
     }
 
     public Optional<GroupStats> findById(long groupId) {
-        return groupStatsDao.getById(groupId);
+        return pendingGroupStats.getById(groupId);
     }
 
     public void increaseRaidsComplete(long groupId, int amount) {
-        groupStatsDao.increaseRaidsComplete(groupId, amount);
+        pendingGroupStats.add(groupId, amount, 0, 0);
+    }
+
+    public void increaseRaidsComplete(long[] groupIds, int amount) {
+        pendingGroupStats.add(groupIds, amount, 0, 0);
     }
 
     public void increaseDuelsComplete(long groupId, int amount) {
-        groupStatsDao.increaseDuelsComplete(groupId, amount);
+        pendingGroupStats.add(groupId, 0, amount, 0);
     }
 
     public void increaseTavernMoneySpent(long groupId, long amount) {
-        groupStatsDao.increaseTavernMoneySpent(groupId, amount);
+        pendingGroupStats.add(groupId, 0, 0, amount);
     }
 }
@@ -2,9 +2,11 @@ package ru.homyakin.seeker.telegram.group;
 
 import java.util.Optional;
 import org.springframework.stereotype.Service;
+import ru.homyakin.seeker.game.personage.models.Personage;
 import ru.homyakin.seeker.telegram.group.models.Group;
 import ru.homyakin.seeker.utils.models.Pair;
 import ru.homyakin.seeker.telegram.group.database.GroupUserDao;
+import ru.homyakin.seeker.telegram.group.database.GroupUserResolveDao;
 import ru.homyakin.seeker.telegram.group.models.GroupUser;
 import ru.homyakin.seeker.telegram.user.UserService;
 import ru.homyakin.seeker.telegram.user.models.User;
@@ -14,22 +16,38 @@ public class GroupUserService {
     private final GroupService groupService;
     private final UserService userService;
     private final GroupUserDao groupUserDao;
+    private final GroupUserResolveDao groupUserResolveDao;
 
-    public GroupUserService(GroupService groupService, UserService userService, GroupUserDao groupUserDao) {
+    public GroupUserService(
+        GroupService groupService,
+        UserService userService,
+        GroupUserDao groupUserDao,
+        GroupUserResolveDao groupUserResolveDao
+    ) {
         this.groupService = groupService;
         this.userService = userService;
         this.groupUserDao = groupUserDao;
+        this.groupUserResolveDao = groupUserResolveDao;
     }
 
+    /**
+     * Если группа, пользователь и активное членство есть в кэше - без запросов,
+     * иначе всё создаётся или активируется одним запросом GroupUserResolveDao
+     */
     public Pair<Group, User> getAndActivateOrCreate(long groupId, long userId) {
-        final var group = groupService.getOrCreate(groupId);
-        final var user = userService.getOrCreateFromGroup(userId);
-        groupUserDao.getByGroupIdAndUserId(groupId, userId)
-            .ifPresentOrElse(
-                groupUser -> groupUser.activate(groupUserDao),
-                () -> groupUserDao.save(new GroupUser(groupId, userId, true))
-            );
-        return new Pair<>(group, user);
+        final var group = groupService.getCached(groupId).filter(Group::isActive);
+        final var user = userService.getCached(userId);
+        final var isActiveMember = groupUserDao.getCachedByGroupIdAndUserId(groupId, userId)
+            .filter(GroupUser::isActive)
+            .isPresent();
+        if (group.isPresent() && user.isPresent() && isActiveMember) {
+            return new Pair<>(group.get(), user.get());
+        }
+        // Пустой результат бывает, только если тот же пользователь или группа создаются параллельно, повтор их увидит
+        final var resolved = groupUserResolveDao.resolve(groupId, userId, Personage.createDefault())
+            .or(() -> groupUserResolveDao.resolve(groupId, userId, Personage.createDefault()))
+            .orElseThrow(() -> new IllegalStateException("Unable to resolve user %d in group %d".formatted(userId, groupId)));
+        return new Pair<>(resolved.group(), resolved.user());
     }
 
     public Optional<GroupUser> getRandomUserFromGroup(long groupId) {
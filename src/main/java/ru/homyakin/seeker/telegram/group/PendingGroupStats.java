@@ -0,0 +1,200 @@
+package ru.homyakin.seeker.telegram.group;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.homyakin.seeker.telegram.group.database.GroupStatsDao;
+import ru.homyakin.seeker.telegram.group.models.GroupStats;
+
+/*
+Приращения статистики групп копятся в памяти и раз в flushInterval записываются одним batch upsert,
+поэтому дуэли, заказы и рейды одной группы не упираются в блокировку одной строки grouptg_stats.
+Счётчик при сбросе не обнуляется, а уменьшается на записанное: приращение, пришедшее во время сброса, не теряется.
+После удачного сброса нулевые счётчики удаляются, чтобы карта не росла на все группы, которые когда-либо что-то делали.
+Внутри транзакции приращение учитывается только после коммита.
+ */
+@Component
+public class PendingGroupStats {
+    private static final Logger logger = LoggerFactory.getLogger(PendingGroupStats.class);
+    private final ConcurrentHashMap<Long, Counters> groupToCounters = new ConcurrentHashMap<>();
+    // Сброс берёт блокировку на запись, чтение статистики - на чтение: иначе между записью в базу и уменьшением
+    // счётчиков чтение увидело бы приращение дважды. Сами приращения блокировку не берут
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final GroupStatsDao groupStatsDao;
+
+    public PendingGroupStats(GroupStatsDao groupStatsDao) {
+        this.groupStatsDao = groupStatsDao;
+    }
+
+    public void add(long groupId, int raidsComplete, int duelsComplete, long tavernMoneySpent) {
+        add(new long[] {groupId}, raidsComplete, duelsComplete, tavernMoneySpent);
+    }
+
+    public void add(long[] groupIds, int raidsComplete, int duelsComplete, long tavernMoneySpent) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(groupIds, raidsComplete, duelsComplete, tavernMoneySpent);
+                }
+            });
+        } else {
+            addNow(groupIds, raidsComplete, duelsComplete, tavernMoneySpent);
+        }
+    }
+
+    /**
+     * Значение из базы вместе с ещё не записанными приращениями
+     */
+    public Optional<GroupStats> getById(long groupId) {
+        flushLock.readLock().lock();
+        try {
+            return groupStatsDao.getById(groupId).map(this::withPending);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${homyakin.seeker.group-stats.flushInterval}")
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            final var deltas = new ArrayList<Delta>();
+            groupToCounters.forEach((groupId, counters) -> {
+                final var delta = new Delta(
+                    groupId,
+                    counters,
+                    counters.raidsComplete.sum(),
+                    counters.duelsComplete.sum(),
+                    counters.tavernMoneySpent.sum()
+                );
+                if (!delta.isEmpty()) {
+                    deltas.add(delta);
+                }
+            });
+            if (deltas.isEmpty()) {
+                removeEmpty();
+                return;
+            }
+            final int size = deltas.size();
+            final var groupIds = new long[size];
+            final var raidsComplete = new int[size];
+            final var duelsComplete = new int[size];
+            final var tavernMoneySpent = new long[size];
+            for (int i = 0; i < size; ++i) {
+                final var delta = deltas.get(i);
+                groupIds[i] = delta.groupId();
+                raidsComplete[i] = (int) delta.raidsComplete();
+                duelsComplete[i] = (int) delta.duelsComplete();
+                tavernMoneySpent[i] = delta.tavernMoneySpent();
+            }
+            // Если запись не удалась, счётчики не тронуты и попадут в следующий сброс
+            groupStatsDao.addBatch(groupIds, raidsComplete, duelsComplete, tavernMoneySpent);
+            for (final var delta : deltas) {
+                delta.counters().raidsComplete.add(-delta.raidsComplete());
+                delta.counters().duelsComplete.add(-delta.duelsComplete());
+                delta.counters().tavernMoneySpent.add(-delta.tavernMoneySpent());
+            }
+            removeEmpty();
+            logger.debug("Flushed stats of {} groups", size);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    // Зависимые сервисы к этому моменту уже остановлены, так что сброс последний
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // Следующего сброса не будет: по логу приращения можно дописать в базу вручную
+            logger.error("Unable to flush group stats on shutdown", e);
+            groupToCounters.forEach((groupId, counters) -> {
+                if (!counters.isEmpty()) {
+                    logger.error(
+                        "Unflushed stats of group {}: raids complete {}, duels complete {}, tavern money spent {}",
+                        groupId,
+                        counters.raidsComplete.sum(),
+                        counters.duelsComplete.sum(),
+                        counters.tavernMoneySpent.sum()
+                    );
+                }
+            });
+        }
+    }
+
+    int pendingGroupsCount() {
+        return groupToCounters.size();
+    }
+
+    // Вызывается под блокировкой сброса. Приращения меняют счётчик внутри compute того же ключа,
+    // поэтому не попадут в уже удалённый счётчик
+    private void removeEmpty() {
+        for (final var groupId : groupToCounters.keySet()) {
+            groupToCounters.computeIfPresent(groupId, (id, counters) -> counters.isEmpty() ? null : counters);
+        }
+    }
+
+    private GroupStats withPending(GroupStats stored) {
+        final var counters = groupToCounters.get(stored.groupId());
+        if (counters == null) {
+            return stored;
+        }
+        return new GroupStats(
+            stored.groupId(),
+            stored.raidsComplete() + (int) counters.raidsComplete.sum(),
+            stored.duelsComplete() + (int) counters.duelsComplete.sum(),
+            stored.tavernMoneySpent() + counters.tavernMoneySpent.sum()
+        );
+    }
+
+    private void addNow(long[] groupIds, int raidsComplete, int duelsComplete, long tavernMoneySpent) {
+        for (final long groupId : groupIds) {
+            groupToCounters.compute(groupId, (id, existing) -> {
+                final var counters = existing == null ? new Counters() : existing;
+                if (raidsComplete != 0) {
+                    counters.raidsComplete.add(raidsComplete);
+                }
+                if (duelsComplete != 0) {
+                    counters.duelsComplete.add(duelsComplete);
+                }
+                if (tavernMoneySpent != 0) {
+                    counters.tavernMoneySpent.add(tavernMoneySpent);
+                }
+                return counters;
+            });
+        }
+    }
+
+    private static class Counters {
+        private final LongAdder raidsComplete = new LongAdder();
+        private final LongAdder duelsComplete = new LongAdder();
+        private final LongAdder tavernMoneySpent = new LongAdder();
+
+        private boolean isEmpty() {
+            return raidsComplete.sum() == 0 && duelsComplete.sum() == 0 && tavernMoneySpent.sum() == 0;
+        }
+    }
+
+    private record Delta(
+        long groupId,
+        Counters counters,
+        long raidsComplete,
+        long duelsComplete,
+        long tavernMoneySpent
+    ) {
+        public boolean isEmpty() {
+            return raidsComplete == 0 && duelsComplete == 0 && tavernMoneySpent == 0;
+        }
+    }
+}
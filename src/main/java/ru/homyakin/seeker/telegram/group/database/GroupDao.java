@@ -10,6 +10,8 @@ import java.util.Optional;
 import javax.sql.DataSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.infrastructure.cache.EntityCache;
+import ru.homyakin.seeker.infrastructure.cache.EntityCacheFactory;
 import ru.homyakin.seeker.locale.Language;
 import ru.homyakin.seeker.telegram.group.models.Group;
 
@@ -19,6 +21,9 @@ public class GroupDao {
     private static final String GET_GROUP_WITH_LESS_NEXT_EVENT_DATE = """
         SELECT * FROM grouptg WHERE next_event_date  < :next_event_date and is_active = true
         """;
+    private static final String GET_ACTIVE_GROUPS = """
+        SELECT * FROM grouptg WHERE is_active = true
+        """;
     private static final String SAVE_GROUP = """
         insert into grouptg (id, is_active, language_id, init_date, next_event_date)
         values (:id, :is_active, :language_id, :init_date, :next_event_date)
@@ -30,9 +35,11 @@ public class GroupDao {
         """;
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityCache<Long, Group> cache;
 
-    public GroupDao(DataSource dataSource) {
+    public GroupDao(DataSource dataSource, EntityCacheFactory cacheFactory) {
         jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        cache = cacheFactory.create("group");
     }
 
     public void save(Group group) {
@@ -46,9 +53,22 @@ public class GroupDao {
             SAVE_GROUP,
             params
         );
+        cache.put(group.id(), group);
     }
 
     public Optional<Group> getById(Long groupId) {
+        return cache.get(groupId, this::loadById);
+    }
+
+    public Optional<Group> getCachedById(long groupId) {
+        return cache.getIfPresent(groupId);
+    }
+
+    public void putToCache(Group group) {
+        cache.put(group.id(), group);
+    }
+
+    private Optional<Group> loadById(Long groupId) {
         final var params = Collections.singletonMap("id", groupId);
         final var result = jdbcTemplate.query(
             GET_GROUP_BY_ID,
@@ -67,6 +87,13 @@ public class GroupDao {
         );
     }
 
+    public List<Group> getActiveGroups() {
+        return jdbcTemplate.query(
+            GET_ACTIVE_GROUPS,
+            this::mapRow
+        );
+    }
+
     public void update(Group group) {
         final var params = new HashMap<String, Object>();
         params.put("id", group.id());
@@ -77,6 +104,7 @@ public class GroupDao {
             UPDATE,
             params
         );
+        cache.put(group.id(), group);
     }
 
     private Group mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -12,6 +12,14 @@ import ru.homyakin.seeker.telegram.group.models.GroupStats;
 
 @Repository
 public class GroupStatsDao {
+    private static final String ADD_BATCH = """
+        INSERT INTO grouptg_stats (grouptg_id, raids_complete, duels_complete, tavern_money_spent)
+        SELECT * FROM unnest(:ids::BIGINT[], :raids_complete::INT[], :duels_complete::INT[], :tavern_money_spent::BIGINT[])
+        ON CONFLICT (grouptg_id) DO UPDATE SET
+            raids_complete = grouptg_stats.raids_complete + EXCLUDED.raids_complete,
+            duels_complete = grouptg_stats.duels_complete + EXCLUDED.duels_complete,
+            tavern_money_spent = grouptg_stats.tavern_money_spent + EXCLUDED.tavern_money_spent
+        """;
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
     public GroupStatsDao(DataSource dataSource) {
@@ -30,28 +38,16 @@ public class GroupStatsDao {
         return jdbcTemplate.query(sql, param, this::mapRow).stream().findFirst();
     }
 
-    public void increaseRaidsComplete(long groupId, int amount) {
-        final var sql = "UPDATE grouptg_stats SET raids_complete = raids_complete + :amount WHERE grouptg_id = :grouptg_id";
+    /**
+     * Приращения по группам одним запросом, строка статистики создаётся, если её ещё нет
+     */
+    public void addBatch(long[] groupIds, int[] raidsComplete, int[] duelsComplete, long[] tavernMoneySpent) {
         final var params = new HashMap<String, Object>();
-        params.put("amount", amount);
-        params.put("grouptg_id", groupId);
-        jdbcTemplate.update(sql, params);
-    }
-
-    public void increaseDuelsComplete(long groupId, int amount) {
-        final var sql = "UPDATE grouptg_stats SET duels_complete = duels_complete + :amount WHERE grouptg_id = :grouptg_id";
-        final var params = new HashMap<String, Object>();
-        params.put("amount", amount);
-        params.put("grouptg_id", groupId);
-        jdbcTemplate.update(sql, params);
-    }
-
-    public void increaseTavernMoneySpent(long groupId, long amount) {
-        final var sql = "UPDATE grouptg_stats SET tavern_money_spent = tavern_money_spent + :amount WHERE grouptg_id = :grouptg_id";
-        final var params = new HashMap<String, Object>();
-        params.put("amount", amount);
-        params.put("grouptg_id", groupId);
-        jdbcTemplate.update(sql, params);
+        params.put("ids", groupIds);
+        params.put("raids_complete", raidsComplete);
+        params.put("duels_complete", duelsComplete);
+        params.put("tavern_money_spent", tavernMoneySpent);
+        jdbcTemplate.update(ADD_BATCH, params);
     }
 
     private GroupStats mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -8,6 +8,8 @@ import java.util.Optional;
 import javax.sql.DataSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.infrastructure.cache.EntityCache;
+import ru.homyakin.seeker.infrastructure.cache.EntityCacheFactory;
 import ru.homyakin.seeker.telegram.group.models.GroupUser;
 
 @Component
@@ -27,9 +29,11 @@ public class GroupUserDao {
         """;
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityCache<Key, GroupUser> cache;
 
-    public GroupUserDao(DataSource dataSource) {
+    public GroupUserDao(DataSource dataSource, EntityCacheFactory cacheFactory) {
         jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        cache = cacheFactory.create("group_user");
     }
 
     public void save(GroupUser groupUser) {
@@ -41,19 +45,31 @@ public class GroupUserDao {
             SAVE_GROUP_USER,
             params
         );
+        cache.put(Key.of(groupUser), groupUser);
     }
 
     public Optional<GroupUser> getByGroupIdAndUserId(long groupId, long userId) {
+        return cache.get(new Key(groupId, userId), this::loadByKey);
+    }
+
+    private Optional<GroupUser> loadByKey(Key key) {
         final var params = new HashMap<String, Object>();
-        params.put("grouptg_id", groupId);
-        params.put("usertg_id", userId);
+        params.put("grouptg_id", key.groupId());
+        params.put("usertg_id", key.userId());
         final var result = jdbcTemplate.query(
             GET_GROUP_USER_BY_KEY,
             params,
             this::mapRow
         );
         return result.stream().findFirst();
+    }
 
+    public Optional<GroupUser> getCachedByGroupIdAndUserId(long groupId, long userId) {
+        return cache.getIfPresent(new Key(groupId, userId));
+    }
+
+    public void putToCache(GroupUser groupUser) {
+        cache.put(Key.of(groupUser), groupUser);
     }
 
     public int countUsersInGroup(long groupId) {
@@ -90,6 +106,7 @@ public class GroupUserDao {
             UPDATE,
             params
         );
+        cache.put(Key.of(groupUser), groupUser);
     }
 
     private GroupUser mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -99,4 +116,10 @@ public class GroupUserDao {
             rs.getBoolean("is_active")
         );
     }
+
+    private record Key(long groupId, long userId) {
+        static Key of(GroupUser groupUser) {
+            return new Key(groupUser.groupId(), groupUser.userId());
+        }
+    }
 }
@@ -0,0 +1,178 @@
+package ru.homyakin.seeker.telegram.group.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.game.models.Money;
+import ru.homyakin.seeker.game.personage.PersonageDao;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.locale.Language;
+import ru.homyakin.seeker.telegram.group.models.Group;
+import ru.homyakin.seeker.telegram.group.models.GroupUser;
+import ru.homyakin.seeker.telegram.group.models.ResolvedGroupUser;
+import ru.homyakin.seeker.telegram.user.UserDao;
+import ru.homyakin.seeker.telegram.user.models.User;
+import ru.homyakin.seeker.utils.TimeUtils;
+
+/*
+Группа, пользователь, его персонаж и членство в группе одним запросом: чего нет - создаётся, неактивное - активируется.
+Все изменения в CTE одного запроса, поэтому внешние ключи на только что вставленные строки проверяются в конце запроса.
+Персонаж вставляется только вслед за пользователем с заранее взятым id: если пользователя параллельно создал
+другой запрос, вставка пользователя пропускается вместе с персонажем и персонаж-сирота не остаётся.
+Уже существующие строки не перезаписываются: upsert срабатывает только для неактивных, остальное читается из снимка.
+Результат кладётся в кэши DAO, чтобы следующая команда обошлась без запросов. Существующий персонаж не кэшируется:
+снимок запроса мог прочитать деньги до параллельного начисления, которое уже сбросило кэш.
+ */
+@Component
+public class GroupUserResolveDao {
+    private static final String RESOLVE = """
+        WITH upserted_group AS (
+            INSERT INTO grouptg (id, is_active, language_id, init_date, next_event_date)
+            VALUES (:grouptg_id, true, :language_id, :now, :now)
+            ON CONFLICT (id) DO UPDATE SET is_active = true WHERE grouptg.is_active = false
+            RETURNING *
+        ), resolved_group AS (
+            SELECT * FROM upserted_group
+            UNION ALL
+            SELECT * FROM grouptg WHERE id = :grouptg_id AND NOT EXISTS (SELECT 1 FROM upserted_group)
+        ), created_stats AS (
+            INSERT INTO grouptg_stats (grouptg_id)
+            SELECT id FROM upserted_group
+            ON CONFLICT DO NOTHING
+        ), existing_user AS (
+            SELECT * FROM usertg WHERE id = :usertg_id
+        ), created_user AS (
+            INSERT INTO usertg (id, is_active_private_messages, language_id, init_date, personage_id)
+            SELECT :usertg_id, false, :language_id, :now, nextval(pg_get_serial_sequence('personage', 'id'))
+            WHERE NOT EXISTS (SELECT 1 FROM existing_user)
+            ON CONFLICT (id) DO NOTHING
+            RETURNING *
+        ), created_personage AS (
+            INSERT INTO personage (id, name, money, health, attack, defense, strength, agility, wisdom, last_health_change)
+            SELECT personage_id, :name, :money, :health, :attack, :defense, :strength, :agility, :wisdom, :now
+            FROM created_user
+            RETURNING *
+        ), resolved_user AS (
+            SELECT * FROM created_user
+            UNION ALL
+            SELECT * FROM existing_user
+        ), resolved_personage AS (
+            SELECT * FROM created_personage
+            UNION ALL
+            SELECT p.* FROM personage p INNER JOIN existing_user u ON p.id = u.personage_id
+        ), upserted_group_user AS (
+            INSERT INTO grouptg_to_usertg (grouptg_id, usertg_id, is_active)
+            VALUES (:grouptg_id, :usertg_id, true)
+            ON CONFLICT (grouptg_id, usertg_id) DO UPDATE SET is_active = true WHERE grouptg_to_usertg.is_active = false
+            RETURNING *
+        ), resolved_group_user AS (
+            SELECT * FROM upserted_group_user
+            UNION ALL
+            SELECT * FROM grouptg_to_usertg
+            WHERE grouptg_id = :grouptg_id AND usertg_id = :usertg_id AND NOT EXISTS (SELECT 1 FROM upserted_group_user)
+        )
+        SELECT
+            g.is_active AS group_is_active, g.language_id AS group_language_id, g.next_event_date,
+            u.is_active_private_messages, u.language_id AS user_language_id, u.personage_id,
+            p.name, p.money, p.health, p.attack, p.defense, p.strength, p.agility, p.wisdom, p.last_health_change,
+            gu.is_active AS group_user_is_active, EXISTS (SELECT 1 FROM created_personage) AS is_new_personage
+        FROM resolved_group g
+        CROSS JOIN resolved_user u
+        INNER JOIN resolved_personage p ON p.id = u.personage_id
+        CROSS JOIN resolved_group_user gu
+        """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final GroupDao groupDao;
+    private final UserDao userDao;
+    private final GroupUserDao groupUserDao;
+    private final PersonageDao personageDao;
+
+    public GroupUserResolveDao(
+        DataSource dataSource,
+        GroupDao groupDao,
+        UserDao userDao,
+        GroupUserDao groupUserDao,
+        PersonageDao personageDao
+    ) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.groupDao = groupDao;
+        this.userDao = userDao;
+        this.groupUserDao = groupUserDao;
+        this.personageDao = personageDao;
+    }
+
+    /**
+     * Пустой результат, если тот же пользователь создаётся параллельно другим запросом:
+     * его строка вставлена после снимка нашего запроса, повтор её увидит
+     */
+    public Optional<ResolvedGroupUser> resolve(long groupId, long userId, Personage newPersonage) {
+        final var characteristics = newPersonage.characteristics();
+        final var params = new HashMap<String, Object>();
+        params.put("grouptg_id", groupId);
+        params.put("usertg_id", userId);
+        params.put("language_id", Language.DEFAULT.id());
+        params.put("now", TimeUtils.moscowTime());
+        params.put("name", newPersonage.name());
+        params.put("money", newPersonage.money().value());
+        params.put("health", characteristics.health());
+        params.put("attack", characteristics.attack());
+        params.put("defense", characteristics.defense());
+        params.put("strength", characteristics.strength());
+        params.put("agility", characteristics.agility());
+        params.put("wisdom", characteristics.wisdom());
+        final var result = jdbcTemplate.query(
+            RESOLVE,
+            params,
+            (rs, rowNum) -> mapRow(rs, groupId, userId)
+        ).stream().findFirst();
+        result.ifPresent(resolved -> {
+            groupDao.putToCache(resolved.group());
+            userDao.putToCache(resolved.user());
+            groupUserDao.putToCache(resolved.groupUser());
+            if (resolved.isNewPersonage()) {
+                personageDao.putToCache(resolved.personage());
+            }
+        });
+        return result;
+    }
+
+    private ResolvedGroupUser mapRow(ResultSet rs, long groupId, long userId) throws SQLException {
+        final long personageId = rs.getLong("personage_id");
+        return new ResolvedGroupUser(
+            new Group(
+                groupId,
+                rs.getBoolean("group_is_active"),
+                Language.getOrDefault(rs.getInt("group_language_id")),
+                rs.getTimestamp("next_event_date").toLocalDateTime()
+            ),
+            new User(
+                userId,
+                rs.getBoolean("is_active_private_messages"),
+                Language.getOrDefault(rs.getInt("user_language_id")),
+                personageId
+            ),
+            new GroupUser(groupId, userId, rs.getBoolean("group_user_is_active")),
+            new Personage(
+                personageId,
+                rs.getString("name"),
+                new Money(rs.getInt("money")),
+                new Characteristics(
+                    rs.getInt("health"),
+                    rs.getInt("attack"),
+                    rs.getInt("defense"),
+                    rs.getInt("strength"),
+                    rs.getInt("agility"),
+                    rs.getInt("wisdom")
+                ),
+                rs.getTimestamp("last_health_change").toLocalDateTime()
+            ),
+            rs.getBoolean("is_new_personage")
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package ru.homyakin.seeker.telegram.group.models;
+
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.telegram.user.models.User;
+
+public record ResolvedGroupUser(
+    Group group,
+    User user,
+    GroupUser groupUser,
+    Personage personage,
+    boolean isNewPersonage
+) {
+}
@@ -0,0 +1,33 @@
+package ru.homyakin.seeker.telegram.models;
+
+import org.telegram.telegrambots.meta.api.objects.Update;
+import ru.homyakin.seeker.telegram.utils.TelegramUtils;
+
+public enum UpdateType {
+    MY_CHAT_MEMBER,
+    PRIVATE_MESSAGE,
+    GROUP_MESSAGE,
+    PRIVATE_CALLBACK,
+    GROUP_CALLBACK,
+    OTHER,
+    ;
+
+    public static UpdateType from(Update update) {
+        if (update.hasMyChatMember()) {
+            return MY_CHAT_MEMBER;
+        }
+        if (update.hasMessage()) {
+            if (update.getMessage().isUserMessage()) {
+                return PRIVATE_MESSAGE;
+            }
+            return TelegramUtils.isGroupMessage(update.getMessage()) ? GROUP_MESSAGE : OTHER;
+        }
+        if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null) {
+            if (update.getCallbackQuery().getMessage().isUserMessage()) {
+                return PRIVATE_CALLBACK;
+            }
+            return TelegramUtils.isGroupMessage(update.getCallbackQuery().getMessage()) ? GROUP_CALLBACK : OTHER;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.homyakin.seeker.telegram.sender;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+
+/*
+Правки одного сообщения копятся editWindow, отправляется только последняя.
+Правка, совпадающая с последней отправленной в это сообщение, не отправляется совсем.
+Последние отправленные правки хранятся для editCacheSize сообщений.
+Зависит от очереди отправки, чтобы при остановке она закрывалась после финального сброса правок.
+ */
+@Component
+@DependsOn("telegramSendQueue")
+public class EditMessageCoalescer {
+    private final long windowMillis;
+    private final int cacheSize;
+    private final ScheduledExecutorService scheduler;
+    private final Map<MessageKey, PendingEdit> pendingEdits = new HashMap<>();
+    private final Map<MessageKey, EditMessageText> lastSentEdits;
+    private final Counter coalescedEdits;
+    private final Counter skippedEdits;
+
+    public EditMessageCoalescer(TelegramSendQueueConfig config, MeterRegistry meterRegistry) {
+        this.windowMillis = config.editWindow().toMillis();
+        this.cacheSize = config.editCacheSize();
+        this.lastSentEdits = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MessageKey, EditMessageText> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("edit-coalescer-"));
+        this.coalescedEdits = Counter.builder("seeker.telegram.edit.coalesced")
+            .description("Edits replaced by later edit of the same message")
+            .register(meterRegistry);
+        this.skippedEdits = Counter.builder("seeker.telegram.edit.skipped")
+            .description("Edits equal to already sent content")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param send отправка правки, future содержит true, если правка дошла до телеграма
+     */
+    public void submit(EditMessageText edit, Function<EditMessageText, CompletableFuture<Boolean>> send) {
+        final var key = new MessageKey(edit.getChatId(), edit.getMessageId());
+        synchronized (this) {
+            final var pending = pendingEdits.get(key);
+            if (pending != null) {
+                coalescedEdits.increment();
+                pendingEdits.put(key, new PendingEdit(edit, send));
+                return;
+            }
+            if (edit.equals(lastSentEdits.get(key))) {
+                skippedEdits.increment();
+                return;
+            }
+            pendingEdits.put(key, new PendingEdit(edit, send));
+        }
+        scheduler.schedule(() -> flush(key), windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Отложенные правки отправляем сразу, чтобы они успели уйти в очередь отправки до её остановки
+        scheduler.shutdownNow();
+        final Map<MessageKey, PendingEdit> remaining;
+        synchronized (this) {
+            remaining = new HashMap<>(pendingEdits);
+            pendingEdits.clear();
+        }
+        remaining.values().forEach(it -> it.send().apply(it.edit()));
+    }
+
+    private void flush(MessageKey key) {
+        final PendingEdit pending;
+        synchronized (this) {
+            pending = pendingEdits.remove(key);
+            if (pending == null) {
+                return;
+            }
+            if (pending.edit().equals(lastSentEdits.get(key))) {
+                skippedEdits.increment();
+                return;
+            }
+            // Запоминаем заранее, чтобы такая же правка, пришедшая во время отправки, не ушла второй раз
+            lastSentEdits.put(key, pending.edit());
+        }
+        pending.send().apply(pending.edit()).thenAccept(isSent -> {
+            if (!isSent) {
+                synchronized (this) {
+                    lastSentEdits.remove(key, pending.edit());
+                }
+            }
+        });
+    }
+
+    private record MessageKey(String chatId, Integer messageId) {
+    }
+
+    private record PendingEdit(
+        EditMessageText edit,
+        Function<EditMessageText, CompletableFuture<Boolean>> send
+    ) {
+    }
+}
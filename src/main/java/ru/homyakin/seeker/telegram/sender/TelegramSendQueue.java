@@ -0,0 +1,275 @@
+package ru.homyakin.seeker.telegram.sender;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+/*
+Очередь исходящих запросов с ограничениями телеграма: общий лимит бота и отдельные лимиты на группу и личный чат.
+Правки сообщений тратят только общий лимит: лимит чата в телеграме считается по новым сообщениям.
+Запросы одного чата уходят строго по очереди и по одному, поэтому порядок сообщений в чате сохраняется.
+Чаты обходятся по кругу, чтобы одна большая группа не забирала весь общий лимит.
+На 429 запрос возвращается в начало очереди чата и ждёт retry_after.
+ */
+@Component
+public class TelegramSendQueue {
+    private static final Logger logger = LoggerFactory.getLogger(TelegramSendQueue.class);
+    private static final int TOO_MANY_REQUESTS = 429;
+    private final TelegramSendQueueConfig config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<Long, ChatQueue> chats = new LinkedHashMap<>();
+    private final TokenBucket globalBucket;
+    private final ExecutorService pump;
+    private final ExecutorService requestExecutor;
+    private final AtomicInteger pendingRequests = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer requestTimer;
+    private final Counter retries;
+    private volatile boolean isRunning = true;
+
+    public TelegramSendQueue(TelegramSendQueueConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.globalBucket = new TokenBucket(config.globalLimit(), config.globalPeriod(), System.nanoTime());
+        this.requestExecutor = Executors.newFixedThreadPool(
+            config.threads(),
+            new CustomizableThreadFactory("telegram-sender-")
+        );
+        this.pump = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("telegram-send-queue-"));
+
+        Gauge.builder("seeker.telegram.queue.size", pendingRequests, AtomicInteger::get)
+            .description("Requests waiting for sending")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("seeker.telegram.queue.wait")
+            .description("Time between enqueueing request and start of its sending")
+            .register(meterRegistry);
+        this.requestTimer = Timer.builder("seeker.telegram.request")
+            .register(meterRegistry);
+        this.retries = Counter.builder("seeker.telegram.retries")
+            .description("Requests repeated after 429")
+            .register(meterRegistry);
+
+        pump.execute(this::pumpLoop);
+    }
+
+    public <T> CompletableFuture<T> enqueue(long chatId, Callable<T> request) {
+        return enqueue(chatId, request, true);
+    }
+
+    public <T> CompletableFuture<T> enqueueEdit(long chatId, Callable<T> request) {
+        return enqueue(chatId, request, false);
+    }
+
+    private <T> CompletableFuture<T> enqueue(long chatId, Callable<T> request, boolean usesChatLimit) {
+        final var result = new CompletableFuture<T>();
+        final var outgoing = new OutgoingRequest<>(chatId, request, usesChatLimit, result, System.nanoTime(), 0);
+        pendingRequests.incrementAndGet();
+        lock.lock();
+        try {
+            chats.computeIfAbsent(chatId, this::createChatQueue).requests.addLast(outgoing);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pendingRequests.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        if (pendingRequests.get() > 0) {
+            logger.warn("{} telegram requests weren't sent before shutdown", pendingRequests.get());
+        }
+        isRunning = false;
+        pump.shutdownNow();
+        requestExecutor.shutdown();
+        requestExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void pumpLoop() {
+        while (isRunning) {
+            final var ready = new ArrayList<OutgoingRequest<?>>();
+            lock.lock();
+            try {
+                final long waitNanos = collectReady(ready);
+                if (ready.isEmpty()) {
+                    if (waitNanos == Long.MAX_VALUE) {
+                        changed.await();
+                    } else {
+                        changed.awaitNanos(waitNanos);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            for (final var request : ready) {
+                requestExecutor.execute(() -> send(request));
+            }
+        }
+    }
+
+    /**
+     * Забирает по одному запросу из чатов, у которых есть лимит, и переносит эти чаты в конец обхода.
+     * @return сколько наносекунд ждать до появления следующего доступного запроса
+     */
+    private long collectReady(List<OutgoingRequest<?>> ready) {
+        final long now = System.nanoTime();
+        long waitNanos = Long.MAX_VALUE;
+        final var served = new ArrayList<ChatQueue>();
+        final var iterator = chats.values().iterator();
+        while (iterator.hasNext()) {
+            final var chat = iterator.next();
+            if (chat.requests.isEmpty()) {
+                if (!chat.isInFlight && chat.bucket.isFull(now)) {
+                    iterator.remove();
+                }
+                continue;
+            }
+            if (chat.isInFlight) {
+                continue;
+            }
+            final long globalWait = globalBucket.nanosToWait(now);
+            if (globalWait > 0) {
+                waitNanos = Math.min(waitNanos, globalWait);
+                break;
+            }
+            final boolean usesChatLimit = chat.requests.peekFirst().usesChatLimit();
+            final long bucketWait = usesChatLimit ? chat.bucket.nanosToWait(now) : 0;
+            final long chatWait = Math.max(bucketWait, chat.blockedUntil - now);
+            if (chatWait > 0) {
+                waitNanos = Math.min(waitNanos, chatWait);
+                continue;
+            }
+            globalBucket.acquire(now);
+            if (usesChatLimit) {
+                chat.bucket.acquire(now);
+            }
+            chat.isInFlight = true;
+            ready.add(chat.requests.pollFirst());
+            iterator.remove();
+            served.add(chat);
+        }
+        for (final var chat : served) {
+            chats.put(chat.chatId, chat);
+        }
+        return waitNanos;
+    }
+
+    private <T> void send(OutgoingRequest<T> request) {
+        if (request.attempt() == 0) {
+            waitTimer.record(System.nanoTime() - request.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        final long start = System.nanoTime();
+        T response = null;
+        Exception error = null;
+        try {
+            response = request.request().call();
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        final var retryAfter = Optional.ofNullable(error)
+            .flatMap(TelegramSendQueue::retryAfterSeconds)
+            .filter(it -> request.attempt() < config.maxRetries());
+        lock.lock();
+        try {
+            final var chat = chats.computeIfAbsent(request.chatId(), this::createChatQueue);
+            chat.isInFlight = false;
+            if (retryAfter.isPresent()) {
+                logger.warn("Too many requests to chat {}, retry after {} seconds", request.chatId(), retryAfter.get());
+                retries.increment();
+                chat.blockedUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter.get());
+                chat.requests.addFirst(request.nextAttempt());
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (retryAfter.isPresent()) {
+            return;
+        }
+
+        pendingRequests.decrementAndGet();
+        if (error != null) {
+            request.result().completeExceptionally(error);
+        } else {
+            request.result().complete(response);
+        }
+    }
+
+    private ChatQueue createChatQueue(long chatId) {
+        final long now = System.nanoTime();
+        // У групп и супергрупп отрицательный id
+        if (chatId < 0) {
+            return new ChatQueue(chatId, new TokenBucket(config.groupLimit(), config.groupPeriod(), now), now);
+        }
+        return new ChatQueue(chatId, new TokenBucket(config.privateLimit(), config.privatePeriod(), now), now);
+    }
+
+    private static Optional<Integer> retryAfterSeconds(Exception e) {
+        if (e instanceof TelegramApiRequestException requestException
+            && requestException.getErrorCode() != null
+            && requestException.getErrorCode() == TOO_MANY_REQUESTS
+            && requestException.getParameters() != null) {
+            return Optional.ofNullable(requestException.getParameters().getRetryAfter());
+        }
+        return Optional.empty();
+    }
+
+    private static class ChatQueue {
+        private final long chatId;
+        private final TokenBucket bucket;
+        private final Deque<OutgoingRequest<?>> requests = new ArrayDeque<>();
+        private boolean isInFlight = false;
+        private long blockedUntil;
+
+        private ChatQueue(long chatId, TokenBucket bucket, long now) {
+            this.chatId = chatId;
+            this.bucket = bucket;
+            this.blockedUntil = now;
+        }
+    }
+
+    private record OutgoingRequest<T>(
+        long chatId,
+        Callable<T> request,
+        boolean usesChatLimit,
+        CompletableFuture<T> result,
+        long enqueuedAt,
+        int attempt
+    ) {
+        public OutgoingRequest<T> nextAttempt() {
+            return new OutgoingRequest<>(chatId, request, usesChatLimit, result, enqueuedAt, attempt + 1);
+        }
+    }
+}
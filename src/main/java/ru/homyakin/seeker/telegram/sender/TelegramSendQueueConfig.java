@@ -0,0 +1,100 @@
+package ru.homyakin.seeker.telegram.sender;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "homyakin.seeker.telegram.sender")
+public class TelegramSendQueueConfig {
+    private Integer threads;
+    private Integer globalLimit;
+    private Duration globalPeriod;
+    private Integer groupLimit;
+    private Duration groupPeriod;
+    private Integer privateLimit;
+    private Duration privatePeriod;
+    private Integer maxRetries;
+    private Duration editWindow;
+    private Integer editCacheSize;
+
+    public Integer threads() {
+        return threads;
+    }
+
+    public Integer globalLimit() {
+        return globalLimit;
+    }
+
+    public Duration globalPeriod() {
+        return globalPeriod;
+    }
+
+    public Integer groupLimit() {
+        return groupLimit;
+    }
+
+    public Duration groupPeriod() {
+        return groupPeriod;
+    }
+
+    public Integer privateLimit() {
+        return privateLimit;
+    }
+
+    public Duration privatePeriod() {
+        return privatePeriod;
+    }
+
+    public Integer maxRetries() {
+        return maxRetries;
+    }
+
+    public Duration editWindow() {
+        return editWindow;
+    }
+
+    public Integer editCacheSize() {
+        return editCacheSize;
+    }
+
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    public void setGlobalLimit(Integer globalLimit) {
+        this.globalLimit = globalLimit;
+    }
+
+    public void setGlobalPeriod(Duration globalPeriod) {
+        this.globalPeriod = globalPeriod;
+    }
+
+    public void setGroupLimit(Integer groupLimit) {
+        this.groupLimit = groupLimit;
+    }
+
+    public void setGroupPeriod(Duration groupPeriod) {
+        this.groupPeriod = groupPeriod;
+    }
+
+    public void setPrivateLimit(Integer privateLimit) {
+        this.privateLimit = privateLimit;
+    }
+
+    public void setPrivatePeriod(Duration privatePeriod) {
+        this.privatePeriod = privatePeriod;
+    }
+
+    public void setMaxRetries(Integer maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public void setEditWindow(Duration editWindow) {
+        this.editWindow = editWindow;
+    }
+
+    public void setEditCacheSize(Integer editCacheSize) {
+        this.editCacheSize = editCacheSize;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.homyakin.seeker.telegram.sender;
+
+import java.time.Duration;
+
+/*
+Пропускает не больше limit запросов за period, пачкой можно отправить до limit запросов.
+Хранится только время, когда бакет полностью восстановится, так что пустой бакет ничем не отличается от нового.
+Не потокобезопасен, синхронизация на вызывающей стороне.
+ */
+class TokenBucket {
+    private final long interval;
+    private final long tolerance;
+    private long fullAt;
+
+    TokenBucket(int limit, Duration period, long now) {
+        this.interval = period.toNanos() / limit;
+        this.tolerance = interval * (limit - 1);
+        this.fullAt = now;
+    }
+
+    long nanosToWait(long now) {
+        return Math.max(0, Math.max(fullAt, now) - now - tolerance);
+    }
+
+    void acquire(long now) {
+        fullAt = Math.max(fullAt, now) + interval;
+    }
+
+    boolean isFull(long now) {
+        return fullAt <= now;
+    }
+}
@@ -8,6 +8,8 @@ import java.util.Optional;
 import javax.sql.DataSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import ru.homyakin.seeker.infrastructure.cache.EntityCache;
+import ru.homyakin.seeker.infrastructure.cache.EntityCacheFactory;
 import ru.homyakin.seeker.locale.Language;
 import ru.homyakin.seeker.telegram.user.models.User;
 import ru.homyakin.seeker.utils.TimeUtils;
@@ -30,9 +32,11 @@ public class UserDao {
         """;
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityCache<Long, User> cache;
 
-    public UserDao(DataSource dataSource) {
+    public UserDao(DataSource dataSource, EntityCacheFactory cacheFactory) {
         jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        cache = cacheFactory.create("user");
     }
 
     public void save(User user) {
@@ -47,9 +51,22 @@ public class UserDao {
             SAVE_USER,
             params
         );
+        cache.put(user.id(), user);
     }
 
     public Optional<User> getById(Long userId) {
+        return cache.get(userId, this::loadById);
+    }
+
+    public Optional<User> getCachedById(long userId) {
+        return cache.getIfPresent(userId);
+    }
+
+    public void putToCache(User user) {
+        cache.put(user.id(), user);
+    }
+
+    private Optional<User> loadById(Long userId) {
         final var params = Collections.singletonMap("id", userId);
         final var result = jdbcTemplate.query(
             GET_USER_BY_ID,
@@ -77,6 +94,7 @@ public class UserDao {
             UPDATE,
             params
         );
+        cache.put(user.id(), user);
     }
 
     private User mapRow(ResultSet rs, int rowNum) throws SQLException {
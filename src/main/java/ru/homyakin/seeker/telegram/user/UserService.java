@@ -1,6 +1,7 @@
 package ru.homyakin.seeker.telegram.user;
 
 import io.vavr.control.Either;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -42,6 +43,13 @@ public class UserService {
             .orElseGet(() -> createUser(userId, false));
     }
 
+    /**
+     * Пользователь только из кэша, без запроса в базу
+     */
+    public Optional<User> getCached(long userId) {
+        return userDao.getCachedById(userId);
+    }
+
     public User getOrCreateFromPrivate(Long userId) {
         return userDao
             .getById(userId)
@@ -2,12 +2,12 @@ package ru.homyakin.seeker.telegram.utils;
 
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import ru.homyakin.seeker.game.personage.models.CharacteristicType;
-import ru.homyakin.seeker.infrastructure.TextConstants;
 import ru.homyakin.seeker.locale.duel.DuelLocalization;
 import ru.homyakin.seeker.locale.help.HelpLocalization;
 import ru.homyakin.seeker.locale.personal.CharacteristicLocalization;
 import ru.homyakin.seeker.locale.raid.RaidLocalization;
 import ru.homyakin.seeker.telegram.command.common.help.HelpSection;
+import ru.homyakin.seeker.telegram.command.type.CallbackCodec;
 import ru.homyakin.seeker.telegram.command.type.CommandType;
 import ru.homyakin.seeker.locale.Language;
 
@@ -25,10 +25,7 @@ public class InlineKeyboards {
             } else {
                 text = languages[i].value();
             }
-            builder.addButton(
-                text,
-                CommandType.SELECT_LANGUAGE.getText() + TextConstants.CALLBACK_DELIMITER + languages[i].id()
-            );
+            builder.addButton(text, CallbackCodec.encode(CommandType.SELECT_LANGUAGE, languages[i].id()));
         }
         return builder.build();
     }
@@ -39,37 +36,36 @@ public class InlineKeyboards {
             .addRow()
             .addButton(
                 RaidLocalization.joinRaidEvent(language),
-                CommandType.JOIN_EVENT.getText() + TextConstants.CALLBACK_DELIMITER + chatEventId
+                CallbackCodec.encode(CommandType.JOIN_EVENT, chatEventId)
             )
             .build();
     }
 
     public static InlineKeyboardMarkup duelKeyboard(Language language, long duelId) {
-        final var callbackPostfix = TextConstants.CALLBACK_DELIMITER + duelId;
         return InlineKeyboardBuilder
             .builder()
             .addRow()
             .addButton(
-                DuelLocalization.declineDuelButton(language), CommandType.DECLINE_DUEL.getText() + callbackPostfix
+                DuelLocalization.declineDuelButton(language), CallbackCodec.encode(CommandType.DECLINE_DUEL, duelId)
             )
             .addButton(
-                DuelLocalization.acceptDuelButton(language), CommandType.ACCEPT_DUEL.getText() + callbackPostfix
+                DuelLocalization.acceptDuelButton(language), CallbackCodec.encode(CommandType.ACCEPT_DUEL, duelId)
             )
             .build();
     }
 
     public static InlineKeyboardMarkup helpKeyboard(Language language) {
-        final var callbackPrefix = CommandType.SELECT_HELP.getText() + TextConstants.CALLBACK_DELIMITER;
+        final var type = CommandType.SELECT_HELP;
         return InlineKeyboardBuilder
             .builder()
             .addRow()
-            .addButton(HelpLocalization.raidsButton(language), callbackPrefix + HelpSection.RAIDS.name())
-            .addButton(HelpLocalization.duelsButton(language), callbackPrefix + HelpSection.DUELS.name())
+            .addButton(HelpLocalization.raidsButton(language), CallbackCodec.encode(type, HelpSection.RAIDS))
+            .addButton(HelpLocalization.duelsButton(language), CallbackCodec.encode(type, HelpSection.DUELS))
             .addRow()
-            .addButton(HelpLocalization.menuButton(language), callbackPrefix + HelpSection.MENU.name())
-            .addButton(HelpLocalization.personageButton(language), callbackPrefix + HelpSection.PERSONAGE.name())
+            .addButton(HelpLocalization.menuButton(language), CallbackCodec.encode(type, HelpSection.MENU))
+            .addButton(HelpLocalization.personageButton(language), CallbackCodec.encode(type, HelpSection.PERSONAGE))
             .addRow()
-            .addButton(HelpLocalization.infoButton(language), callbackPrefix + HelpSection.INFO.name())
+            .addButton(HelpLocalization.infoButton(language), CallbackCodec.encode(type, HelpSection.INFO))
             .build();
     }
 
@@ -77,19 +73,25 @@ public class InlineKeyboards {
         return InlineKeyboardBuilder
             .builder()
             .addRow()
-            .addButton(CharacteristicLocalization.cancelButton(language), CommandType.CANCEL_RESET_CHARACTERISTICS.getText())
-            .addButton(CharacteristicLocalization.confirmButton(language), CommandType.CONFIRM_RESET_CHARACTERISTICS.getText())
+            .addButton(
+                CharacteristicLocalization.cancelButton(language),
+                CallbackCodec.encode(CommandType.CANCEL_RESET_CHARACTERISTICS)
+            )
+            .addButton(
+                CharacteristicLocalization.confirmButton(language),
+                CallbackCodec.encode(CommandType.CONFIRM_RESET_CHARACTERISTICS)
+            )
             .build();
     }
 
     public static InlineKeyboardMarkup chooseCharacteristicsKeyboard(Language language) {
-        final var callbackPrefix = CommandType.INCREASE_CHARACTERISTIC.getText() + TextConstants.CALLBACK_DELIMITER;
+        final var type = CommandType.INCREASE_CHARACTERISTIC;
         return InlineKeyboardBuilder
             .builder()
             .addRow()
-            .addButton(CharacteristicLocalization.strengthButton(language), callbackPrefix + CharacteristicType.STRENGTH.name())
-            .addButton(CharacteristicLocalization.agilityButton(language), callbackPrefix + CharacteristicType.AGILITY.name())
-            .addButton(CharacteristicLocalization.wisdomButton(language), callbackPrefix + CharacteristicType.WISDOM.name())
+            .addButton(CharacteristicLocalization.strengthButton(language), CallbackCodec.encode(type, CharacteristicType.STRENGTH))
+            .addButton(CharacteristicLocalization.agilityButton(language), CallbackCodec.encode(type, CharacteristicType.AGILITY))
+            .addButton(CharacteristicLocalization.wisdomButton(language), CallbackCodec.encode(type, CharacteristicType.WISDOM))
             .build();
     }
 }
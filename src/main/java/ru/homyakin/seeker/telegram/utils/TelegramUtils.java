@@ -19,6 +19,19 @@ public class TelegramUtils {
         return false;
     }
 
+    public static long getChatId(Update update) {
+        if (update.hasMyChatMember()) {
+            return update.getMyChatMember().getChat().getId();
+        }
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
+        }
+        if (update.hasCallbackQuery()) {
+            return update.getCallbackQuery().getMessage().getChatId();
+        }
+        throw new IllegalStateException("Unable to get chat from update " + update.getUpdateId());
+    }
+
     public static boolean isGroupMessage(Message message) {
         return message.isGroupMessage() || message.isSuperGroupMessage();
     }
@@ -33,7 +46,34 @@ public class TelegramUtils {
         return chat.isGroupChat() || chat.isSuperGroupChat();
     }
 
+    /**
+     * Длина команды в начале текста без упоминания бота и аргументов: /cmd@bot args -> /cmd
+     */
+    public static int commandLength(String text) {
+        for (int i = 0; i < text.length(); ++i) {
+            final char c = text.charAt(i);
+            if (c == '@' || Character.isWhitespace(c)) {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    // Команды с упоминанием другого бота отбрасываются сразу
     private static boolean isBotCommand(String text, String botUsername) {
-        return text.startsWith("/") && (!text.contains("@") || text.endsWith(botUsername));
+        if (!text.startsWith("/")) {
+            return false;
+        }
+        final int commandLength = commandLength(text);
+        if (commandLength == text.length() || text.charAt(commandLength) != '@') {
+            return true;
+        }
+        final int mentionStart = commandLength + 1;
+        int mentionEnd = mentionStart;
+        while (mentionEnd < text.length() && !Character.isWhitespace(text.charAt(mentionEnd))) {
+            ++mentionEnd;
+        }
+        return mentionEnd - mentionStart == botUsername.length()
+            && text.regionMatches(true, mentionStart, botUsername, 0, botUsername.length());
     }
 }
@@ -0,0 +1,74 @@
+package ru.homyakin.seeker.utils;
+
+import java.util.random.RandomGenerator;
+
+/*
+Выбор случайного индекса пропорционально весу за O(1), метод Уокера в варианте Воуза.
+Таблицы строятся один раз за O(n), выбор - одно случайное число и одно сравнение.
+ */
+public final class AliasSampler {
+    private final double[] probability;
+    private final int[] alias;
+
+    public AliasSampler(int[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("Weights must not be empty");
+        }
+        long total = 0;
+        for (final int weight: weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + weight);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+
+        final int n = weights.length;
+        probability = new double[n];
+        alias = new int[n];
+        // Вес каждого индекса нормируется так, чтобы средний был равен 1
+        final var scaled = new double[n];
+        final var small = new int[n];
+        final var large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; ++i) {
+            scaled[i] = (double) weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            final int less = small[--smallSize];
+            final int more = large[--largeSize];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // Оставшиеся отличаются от 1 только ошибкой округления
+        while (largeSize > 0) {
+            probability[large[--largeSize]] = 1;
+        }
+        while (smallSize > 0) {
+            probability[small[--smallSize]] = 1;
+        }
+    }
+
+    public int size() {
+        return probability.length;
+    }
+
+    public int sample(RandomGenerator random) {
+        final int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
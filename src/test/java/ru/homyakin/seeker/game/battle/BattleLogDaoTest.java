@@ -0,0 +1,131 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.duel.DuelDao;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.test_utils.EventUtils;
+import ru.homyakin.seeker.test_utils.GroupUtils;
+import ru.homyakin.seeker.test_utils.PersonageUtils;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class BattleLogDaoTest {
+    private final BattleLogDao battleLogDao = new BattleLogDao(TestDatabase.dataSource());
+    private final TwoPersonageTeamsBattle battle = new TwoPersonageTeamsBattle();
+
+    @Test
+    @DisplayName("Raid is replayed from saved seed with the same hits")
+    public void raidIsReplayedFromSavedSeed() {
+        final var launchedEventId = launchedEvent();
+        final long seed = BattleRandom.newSeed();
+        final var boss = PersonageRoster.of(new SingleBossGenerator().generate(20));
+        final var raiders = PersonageRoster.of(raiders(20));
+        final var bossAtStart = boss.copy();
+        final var raidersAtStart = raiders.copy();
+        final var log = BattleLog.create();
+        battle.battle(boss, raiders, BattleRandom.seeded(seed), log);
+
+        battleLogDao.saveForLaunchedEvent(launchedEventId, seed, bossAtStart, raidersAtStart, log);
+        final var saved = battleLogDao.getByLaunchedEventId(launchedEventId).orElseThrow();
+        final var replayed = BattleLog.create();
+        battle.battle(saved.firstTeam(), saved.secondTeam(), BattleRandom.seeded(saved.seed()), replayed);
+
+        Assertions.assertEquals(seed, saved.seed());
+        Assertions.assertEquals(log.hits(), replayed.hits());
+    }
+
+    @Test
+    @DisplayName("Seed and starting characteristics are saved with disabled log and replay the duel after stat change")
+    public void disabledLogKeepsSeedAndCharacteristics() {
+        final var personageDao = PersonageUtils.createDao(TestDatabase.dataSource());
+        final var first = personageDao.save(Personage.createDefault());
+        final var second = personageDao.save(Personage.createDefault());
+        final var duelId = createDuel(first, second);
+        final var firstTeam = PersonageRoster.of(List.of(personageDao.getById(first).orElseThrow().toBattlePersonage()));
+        final var secondTeam = PersonageRoster.of(List.of(personageDao.getById(second).orElseThrow().toBattlePersonage()));
+        final var expected = BattleLog.create();
+        battle.battle(firstTeam.copy(), secondTeam.copy(), BattleRandom.seeded(13), expected);
+
+        battleLogDao.saveForDuel(duelId, 13, firstTeam, secondTeam, BattleLog.disabled());
+        TestDatabase.jdbcTemplate().update(
+            "UPDATE personage SET strength = strength + 10 WHERE id = :id",
+            Map.of("id", first)
+        );
+        final var saved = battleLogDao.getByDuelId(duelId).orElseThrow();
+        Assertions.assertEquals(0, saved.log().size());
+        Assertions.assertArrayEquals(firstTeam.characteristics(), saved.firstTeam().characteristics());
+        Assertions.assertArrayEquals(secondTeam.characteristics(), saved.secondTeam().characteristics());
+
+        final var replayed = BattleLog.create();
+        battle.battle(saved.firstTeam(), saved.secondTeam(), BattleRandom.seeded(saved.seed()), replayed);
+        Assertions.assertFalse(expected.hits().isEmpty());
+        Assertions.assertEquals(expected.hits(), replayed.hits());
+    }
+
+    @Test
+    @DisplayName("Duel log is read back with the same hits and team order")
+    public void duelLogRoundtrip() {
+        final var personageDao = PersonageUtils.createDao(TestDatabase.dataSource());
+        final var first = personageDao.save(Personage.createDefault());
+        final var second = personageDao.save(Personage.createDefault());
+        final var duelId = createDuel(first, second);
+        final var firstTeam = List.of(personageDao.getById(first).orElseThrow().toBattlePersonage());
+        final var secondTeam = List.of(personageDao.getById(second).orElseThrow().toBattlePersonage());
+        final var firstAtStart = PersonageRoster.of(firstTeam);
+        final var secondAtStart = PersonageRoster.of(secondTeam);
+        final var log = BattleLog.create();
+        battle.battle(firstTeam, secondTeam, BattleRandom.seeded(42), log);
+
+        battleLogDao.saveForDuel(duelId, 42, firstAtStart, secondAtStart, log);
+        final var saved = battleLogDao.getByDuelId(duelId).orElseThrow();
+
+        Assertions.assertArrayEquals(new long[]{first}, saved.firstTeam().ids());
+        Assertions.assertArrayEquals(new long[]{second}, saved.secondTeam().ids());
+        Assertions.assertEquals(42, saved.seed());
+        Assertions.assertFalse(log.hits().isEmpty());
+        Assertions.assertEquals(log.hits(), saved.log().hits());
+        Assertions.assertTrue(battleLogDao.getByLaunchedEventId(duelId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Raid log keeps roster order, boss ids and every hit")
+    public void raidLogRoundtrip() {
+        final var launchedEventId = launchedEvent();
+        final var boss = PersonageRoster.of(new SingleBossGenerator().generate(50));
+        final var raiders = PersonageRoster.of(raiders(50));
+        final var log = BattleLog.create();
+        battle.battle(boss, raiders, BattleRandom.seeded(7), log);
+
+        battleLogDao.saveForLaunchedEvent(launchedEventId, 7, boss, raiders, log);
+        final var saved = battleLogDao.getByLaunchedEventId(launchedEventId).orElseThrow();
+
+        Assertions.assertArrayEquals(boss.ids(), saved.firstTeam().ids());
+        Assertions.assertArrayEquals(raiders.ids(), saved.secondTeam().ids());
+        Assertions.assertEquals(log.size(), saved.log().size());
+        Assertions.assertEquals(log.hits(), saved.log().hits());
+    }
+
+    private static long createDuel(long first, long second) {
+        return new DuelDao(TestDatabase.dataSource()).create(
+            first,
+            second,
+            GroupUtils.createGroup(TestDatabase.jdbcTemplate(), true),
+            Duration.ofMinutes(1)
+        );
+    }
+
+    private static long launchedEvent() {
+        final var jdbcTemplate = TestDatabase.jdbcTemplate();
+        return EventUtils.launchEvent(jdbcTemplate, EventUtils.createDisabledEvent(jdbcTemplate), false);
+    }
+
+    private static List<BattlePersonage> raiders(int count) {
+        return new ArrayList<>(PersonageUtils.generateDefault(count).stream().map(Personage::toBattlePersonage).toList());
+    }
+}
@@ -0,0 +1,98 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.test_utils.PersonageUtils;
+
+public class BattleLogTest {
+    private final TwoPersonageTeamsBattle battle = new TwoPersonageTeamsBattle();
+
+    @Test
+    @DisplayName("Log has every hit: damage per attacker matches the battle and dodges deal nothing")
+    public void logMatchesBattle() {
+        final var raiders = raiders(10);
+        final var boss = new SingleBossGenerator().generate(raiders.size());
+        final var log = BattleLog.create();
+
+        final var result = battle.battle(boss, raiders, BattleRandom.seeded(1), log);
+
+        Assertions.assertEquals(result.turns(), log.size());
+        final var firstTeamDamage = new long[boss.size()];
+        final var secondTeamDamage = new long[raiders.size()];
+        for (final var hit : log.hits()) {
+            if (hit.isDodge()) {
+                Assertions.assertEquals(0, hit.damage());
+            }
+            if (hit.isSecondTeamAttacks()) {
+                secondTeamDamage[hit.attacker()] += hit.damage();
+            } else {
+                firstTeamDamage[hit.attacker()] += hit.damage();
+            }
+        }
+        for (int i = 0; i < boss.size(); ++i) {
+            Assertions.assertEquals(boss.get(i).damageDealt(), firstTeamDamage[i]);
+        }
+        for (int i = 0; i < raiders.size(); ++i) {
+            Assertions.assertEquals(raiders.get(i).damageDealt(), secondTeamDamage[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Compressed log is restored without changes")
+    public void compressionRoundTrip() {
+        final var raiders = raiders(50);
+        final var log = BattleLog.create();
+        battle.battle(new SingleBossGenerator().generate(raiders.size()), raiders, BattleRandom.seeded(2), log);
+
+        final var compressed = log.compress();
+        final var restored = BattleLog.decompress(compressed, log.size());
+
+        Assertions.assertEquals(log.hits(), restored.hits());
+        Assertions.assertTrue(compressed.length < log.size() * Long.BYTES);
+    }
+
+    @Test
+    @DisplayName("Truncated log or wrong hits count is rejected instead of hanging")
+    public void brokenCompressedLogIsRejected() {
+        final var raiders = raiders(50);
+        final var log = BattleLog.create();
+        battle.battle(new SingleBossGenerator().generate(raiders.size()), raiders, BattleRandom.seeded(4), log);
+        final var compressed = log.compress();
+        final var truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BattleLog.decompress(truncated, log.size()));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BattleLog.decompress(compressed, log.size() + 1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BattleLog.decompress(new byte[0], 1));
+        });
+    }
+
+    @Test
+    @DisplayName("Logging doesn't change the battle and disabled log records nothing")
+    public void loggingDoesNotAffectBattle() {
+        final var logged = raiders(5);
+        final var notLogged = raiders(5);
+        final var log = BattleLog.create();
+        final var disabled = BattleLog.disabled();
+
+        battle.battle(new SingleBossGenerator().generate(5), logged, BattleRandom.seeded(3), log);
+        battle.battle(new SingleBossGenerator().generate(5), notLogged, BattleRandom.seeded(3), disabled);
+
+        for (int i = 0; i < logged.size(); ++i) {
+            Assertions.assertEquals(logged.get(i).health(), notLogged.get(i).health());
+            Assertions.assertEquals(logged.get(i).damageDealtAndTaken(), notLogged.get(i).damageDealtAndTaken());
+        }
+        Assertions.assertEquals(0, disabled.size());
+    }
+
+    private static List<BattlePersonage> raiders(int count) {
+        return new ArrayList<>(PersonageUtils.generateDefault(count).stream().map(Personage::toBattlePersonage).toList());
+    }
+}
@@ -0,0 +1,50 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.test_utils.CommonUtils;
+import ru.homyakin.seeker.test_utils.PersonageUtils;
+
+public class BattleSimulatorTest {
+    private static final int BATTLES = 100_000;
+    private final TwoPersonageTeamsBattle battle = new TwoPersonageTeamsBattle();
+
+    @Test
+    @DisplayName("Simulation with the same seed gives the same report for any number of threads")
+    public void sameSeedSameReport() {
+        final var raiders = raiders(4);
+        final var boss = new SingleBossGenerator().generate(raiders.size());
+
+        final var singleThread = new BattleSimulator(battle, new ForkJoinPool(1)).simulate(boss, raiders, 20_000, 42);
+        final var fourThreads = new BattleSimulator(battle, new ForkJoinPool(4)).simulate(boss, raiders, 20_000, 42);
+
+        Assertions.assertEquals(singleThread, fourThreads);
+    }
+
+    // Значения сняты с текущих констант боя. Если тест упал после изменения баланса - обновить их осознанно
+    @Test
+    @DisplayName("Balance of default duel and single boss raid didn't change")
+    public void balanceRegression() {
+        final var simulator = new BattleSimulator(battle, ForkJoinPool.commonPool());
+        final var duelist = List.of(new BattlePersonage(1, Characteristics.createDefault()));
+        final var raiders = raiders(4);
+
+        final var duel = simulator.simulate(duelist, duelist, BATTLES, 42);
+        final var raid = simulator.simulate(new SingleBossGenerator().generate(raiders.size()), raiders, BATTLES, 42);
+
+        Assertions.assertTrue(CommonUtils.compareDoubles(duel.firstTeamWinRate(), 0.5, 0.01), duel.format());
+        Assertions.assertTrue(CommonUtils.compareDoubles(duel.meanTurns(), 13.2, 0.5), duel.format());
+        Assertions.assertTrue(CommonUtils.compareDoubles(raid.firstTeamWinRate(), 0.372, 0.02), raid.format());
+        Assertions.assertTrue(CommonUtils.compareDoubles(raid.meanTurns(), 56.2, 2), raid.format());
+    }
+
+    private static List<BattlePersonage> raiders(int count) {
+        return PersonageUtils.generateDefault(count).stream().map(Personage::toBattlePersonage).toList();
+    }
+}
@@ -0,0 +1,69 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+
+public class BattleTeamTest {
+    @Test
+    @DisplayName("Personages without health neither attack nor get targeted")
+    public void deadPersonagesAreSkipped() {
+        final var team = team(personage(1, 0), personage(2, 100), personage(3, 0), personage(4, 100));
+        final var attackers = new HashSet<Integer>();
+        final var targets = new HashSet<Integer>();
+
+        for (int i = 0; i < 100; ++i) {
+            final int attacker = team.nextAttacker();
+            attackers.add(attacker);
+            targets.add(team.randomAlive());
+            team.endTurn(attacker);
+        }
+
+        Assertions.assertEquals(Set.of(1, 3), attackers);
+        Assertions.assertEquals(Set.of(1, 3), targets);
+    }
+
+    @Test
+    @DisplayName("Team without alive personages fails fast instead of looping")
+    public void deadTeamThrows() {
+        final var team = team(personage(1, 0), personage(2, 0));
+
+        Assertions.assertFalse(team.hasAlive());
+        Assertions.assertThrows(IllegalStateException.class, team::nextAttacker);
+    }
+
+    @Test
+    @DisplayName("Battle against team with dead personages finishes")
+    public void battleWithDeadPersonagesFinishes() {
+        final var result = new TwoPersonageTeamsBattle().battle(
+            List.of(personage(1, 0), personage(2, 100)),
+            List.of(personage(3, 0)),
+            BattleRandom.seeded(42)
+        );
+
+        Assertions.assertTrue(result instanceof TwoPersonageTeamsBattle.Result.FirstTeamWin);
+    }
+
+    private static BattleTeam team(BattlePersonage... personages) {
+        return new BattleTeam(PersonageRoster.of(List.of(personages)), BattleRandom.seeded(42), false);
+    }
+
+    private static BattlePersonage personage(long id, int health) {
+        final var defaults = Characteristics.createDefault();
+        return new BattlePersonage(
+            id,
+            new Characteristics(
+                health,
+                defaults.attack(),
+                defaults.defense(),
+                defaults.strength(),
+                defaults.agility(),
+                defaults.wisdom()
+            )
+        );
+    }
+}
@@ -0,0 +1,129 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+import ru.homyakin.seeker.test_utils.LegacyTwoPersonageTeamsBattle;
+
+/*
+Бенчмарки боя на размерах, которые встречаются в дуэлях и рейдах, и на больших командах для запаса.
+Персонажи копируются внутри замера, потому что бой меняет их здоровье, а в боте они тоже создаются на каждый бой.
+Аллокации смотреть через -prof gc, он включён в профиле benchmark по умолчанию.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwoPersonageTeamsBattleBenchmark {
+    private static final TwoPersonageTeamsBattle battle = new TwoPersonageTeamsBattle();
+    private static final LegacyTwoPersonageTeamsBattle legacyBattle = new LegacyTwoPersonageTeamsBattle();
+
+    @State(Scope.Thread)
+    public static class DuelState {
+        private List<BattlePersonage> first;
+        private List<BattlePersonage> second;
+        private final RandomGenerator battleRandom = BattleRandom.seeded(42);
+
+        @Setup
+        public void setup() {
+            final var random = new Random(42);
+            first = personages(1, 1, random);
+            second = personages(2, 1, random);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RaidState {
+        @Param({"1", "10", "100", "1000", "10000", "50000"})
+        private int personages;
+        private List<BattlePersonage> boss;
+        private List<BattlePersonage> raiders;
+        private final RandomGenerator battleRandom = BattleRandom.seeded(42);
+
+        @Setup
+        public void setup() {
+            boss = new SingleBossGenerator().generate(personages);
+            raiders = personages(1, personages, new Random(42));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TeamsState {
+        @Param({"1", "10", "100", "1000", "10000"})
+        private int teamSize;
+        private List<BattlePersonage> first;
+        private List<BattlePersonage> second;
+        private final RandomGenerator battleRandom = BattleRandom.seeded(42);
+
+        @Setup
+        public void setup() {
+            final var random = new Random(42);
+            first = personages(1, teamSize, random);
+            second = personages(teamSize + 1, teamSize, random);
+        }
+    }
+
+    @Benchmark
+    public TwoPersonageTeamsBattle.Result duel(DuelState state) {
+        return battle.battle(copy(state.first), copy(state.second), state.battleRandom);
+    }
+
+    @Benchmark
+    public TwoPersonageTeamsBattle.Result raid(RaidState state) {
+        return battle.battle(copy(state.boss), copy(state.raiders), state.battleRandom);
+    }
+
+    @Benchmark
+    public TwoPersonageTeamsBattle.Result teams(TeamsState state) {
+        return battle.battle(copy(state.first), copy(state.second), state.battleRandom);
+    }
+
+    @Benchmark
+    public TwoPersonageTeamsBattle.Result legacyTeams(TeamsState state) {
+        return legacyBattle.battle(copy(state.first), copy(state.second), state.battleRandom);
+    }
+
+    private static ArrayList<BattlePersonage> copy(List<BattlePersonage> personages) {
+        final var copy = new ArrayList<BattlePersonage>(personages.size());
+        for (final var personage : personages) {
+            copy.add(personage.clone());
+        }
+        return copy;
+    }
+
+    // Характеристики около стандартных с разбросом, как у прокачанных по-разному персонажей
+    private static List<BattlePersonage> personages(long firstId, int count, Random random) {
+        final var defaults = Characteristics.createDefault();
+        final var personages = new ArrayList<BattlePersonage>(count);
+        for (int i = 0; i < count; ++i) {
+            personages.add(new BattlePersonage(
+                firstId + i,
+                new Characteristics(
+                    defaults.health(),
+                    defaults.attack(),
+                    defaults.defense(),
+                    1 + random.nextInt(15),
+                    1 + random.nextInt(15),
+                    1 + random.nextInt(15)
+                )
+            ));
+        }
+        return personages;
+    }
+}
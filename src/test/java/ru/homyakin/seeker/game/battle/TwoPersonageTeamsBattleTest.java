@@ -0,0 +1,205 @@
+package ru.homyakin.seeker.game.battle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+import ru.homyakin.seeker.test_utils.CommonUtils;
+import ru.homyakin.seeker.test_utils.LegacyTwoPersonageTeamsBattle;
+
+public class TwoPersonageTeamsBattleTest {
+    private static final int REPEAT = 4000;
+    // Около 4 стандартных отклонений разницы двух оценок вероятности при REPEAT боях
+    private static final double WIN_RATE_EPSILON = 0.045;
+    private static final double DAMAGE_RELATIVE_EPSILON = 0.05;
+    private final TwoPersonageTeamsBattle battle = new TwoPersonageTeamsBattle();
+    private final LegacyTwoPersonageTeamsBattle legacyBattle = new LegacyTwoPersonageTeamsBattle();
+
+    @Test
+    @DisplayName("Array engine gives the same outcome distribution as the legacy engine")
+    public void sameDistributionAsLegacy() {
+        final var random = new Random(42);
+        final var scenarios = List.of(
+            new Scenario("equal duel", personages(1, 1, random), personages(2, 1, random)),
+            new Scenario(
+                "uneven duel",
+                List.of(new BattlePersonage(1, new Characteristics(500, 50, 20, 12, 3, 9))),
+                List.of(new BattlePersonage(2, Characteristics.createDefault()))
+            ),
+            new Scenario("boss raid", new SingleBossGenerator().generate(4), personages(1, 4, random)),
+            new Scenario("teams", personages(1, 10, random), personages(11, 12, random))
+        );
+
+        for (final var scenario : scenarios) {
+            final var actual = stats(scenario, battle::battle);
+            final var expected = stats(scenario, legacyBattle::battle);
+
+            Assertions.assertTrue(
+                CommonUtils.compareDoubles(actual.firstTeamWinRate(), expected.firstTeamWinRate(), WIN_RATE_EPSILON),
+                "%s: win rate %f, legacy %f".formatted(scenario.name(), actual.firstTeamWinRate(), expected.firstTeamWinRate())
+            );
+            Assertions.assertTrue(
+                CommonUtils.compareDoubles(
+                    actual.averageDamage() / expected.averageDamage(), 1, DAMAGE_RELATIVE_EPSILON
+                ),
+                "%s: damage %f, legacy %f".formatted(scenario.name(), actual.averageDamage(), expected.averageDamage())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Battle state is written back: losers are dead and dealt damage equals lost health")
+    public void stateIsWrittenBack() {
+        final var random = new Random(7);
+        final var first = copy(personages(1, 30, random));
+        final var second = copy(personages(31, 25, random));
+        final long firstHealth = first.stream().mapToLong(BattlePersonage::health).sum();
+        final long secondHealth = second.stream().mapToLong(BattlePersonage::health).sum();
+
+        final var result = battle.battle(first, second, BattleRandom.seeded(7));
+
+        final var winners = result instanceof TwoPersonageTeamsBattle.Result.FirstTeamWin ? first : second;
+        final var losers = winners == first ? second : first;
+        Assertions.assertTrue(losers.stream().allMatch(BattlePersonage::isDead));
+        Assertions.assertTrue(winners.stream().anyMatch(it -> !it.isDead()));
+        Assertions.assertEquals(
+            secondHealth - second.stream().mapToLong(BattlePersonage::health).sum(),
+            first.stream().mapToLong(BattlePersonage::damageDealt).sum()
+        );
+        Assertions.assertEquals(
+            firstHealth - first.stream().mapToLong(BattlePersonage::health).sum(),
+            second.stream().mapToLong(BattlePersonage::damageDealt).sum()
+        );
+    }
+
+    @Test
+    @DisplayName("Battle with the same seed and rosters is replayed exactly")
+    public void sameSeedReplaysBattle() {
+        final var random = new Random(11);
+        final var first = personages(1, 20, random);
+        final var second = personages(21, 20, random);
+
+        final long seed = BattleRandom.newSeed();
+
+        final var original = replay(first, second, seed);
+        final var replayed = replay(first, second, seed);
+        final var otherBattles = List.of(
+            replay(first, second, BattleRandom.newSeed()),
+            replay(first, second, BattleRandom.newSeed())
+        );
+
+        Assertions.assertEquals(original, replayed);
+        Assertions.assertTrue(otherBattles.stream().noneMatch(original::equals));
+    }
+
+    @Test
+    @DisplayName("Roster filled row by row replays the same battle as personage lists")
+    public void rosterReplaysListBattle() {
+        final var random = new Random(13);
+        final var first = personages(1, 20, random);
+        final var second = personages(21, 40, random);
+        final var firstRoster = roster(first);
+        final var secondRoster = roster(second);
+
+        battle.battle(firstRoster, secondRoster, BattleRandom.seeded(13), BattleLog.disabled());
+
+        final var state = new ArrayList<Long>();
+        for (final var roster : List.of(firstRoster, secondRoster)) {
+            for (int i = 0; i < roster.size(); ++i) {
+                state.add((long) roster.health(i));
+                state.add(roster.damageDealtAndTaken(i));
+            }
+        }
+        Assertions.assertEquals(replay(first, second, 13), state);
+        Assertions.assertEquals(second.get(39).id(), secondRoster.ids()[39]);
+    }
+
+    private List<Long> replay(List<BattlePersonage> firstTeam, List<BattlePersonage> secondTeam, long seed) {
+        final var first = copy(firstTeam);
+        final var second = copy(secondTeam);
+        battle.battle(first, second, BattleRandom.seeded(seed));
+        final var state = new ArrayList<Long>();
+        for (final var team : List.of(first, second)) {
+            for (final var personage : team) {
+                state.add((long) personage.health());
+                state.add(personage.damageDealtAndTaken());
+            }
+        }
+        return state;
+    }
+
+    private Stats stats(Scenario scenario, Engine engine) {
+        final var random = BattleRandom.seeded(scenario.name().hashCode());
+        int firstTeamWins = 0;
+        long damage = 0;
+        for (int i = 0; i < REPEAT; ++i) {
+            final var first = copy(scenario.first());
+            final var second = copy(scenario.second());
+            if (engine.battle(first, second, random) instanceof TwoPersonageTeamsBattle.Result.FirstTeamWin) {
+                ++firstTeamWins;
+            }
+            damage += second.stream().mapToLong(BattlePersonage::damageDealtAndTaken).sum();
+        }
+        return new Stats((double) firstTeamWins / REPEAT, (double) damage / REPEAT);
+    }
+
+    // Состав растёт с минимальной ёмкости, как при чтении строк из базы
+    private static PersonageRoster roster(List<BattlePersonage> personages) {
+        final var roster = new PersonageRoster(1);
+        for (final var personage : personages) {
+            final var characteristics = personage.characteristics();
+            roster.add(
+                personage.id(),
+                personage.health(),
+                characteristics.attack(),
+                characteristics.defense(),
+                characteristics.strength(),
+                characteristics.agility(),
+                characteristics.wisdom()
+            );
+        }
+        return roster;
+    }
+
+    private static ArrayList<BattlePersonage> copy(List<BattlePersonage> personages) {
+        return new ArrayList<>(personages.stream().map(BattlePersonage::clone).toList());
+    }
+
+    private static List<BattlePersonage> personages(long firstId, int count, Random random) {
+        final var defaults = Characteristics.createDefault();
+        final var personages = new ArrayList<BattlePersonage>(count);
+        for (int i = 0; i < count; ++i) {
+            personages.add(new BattlePersonage(
+                firstId + i,
+                new Characteristics(
+                    defaults.health(),
+                    defaults.attack(),
+                    defaults.defense(),
+                    1 + random.nextInt(15),
+                    1 + random.nextInt(15),
+                    1 + random.nextInt(15)
+                )
+            ));
+        }
+        return personages;
+    }
+
+    private interface Engine {
+        TwoPersonageTeamsBattle.Result battle(
+            ArrayList<BattlePersonage> first,
+            ArrayList<BattlePersonage> second,
+            RandomGenerator random
+        );
+    }
+
+    private record Scenario(String name, List<BattlePersonage> first, List<BattlePersonage> second) {
+    }
+
+    private record Stats(double firstTeamWinRate, double averageDamage) {
+    }
+}
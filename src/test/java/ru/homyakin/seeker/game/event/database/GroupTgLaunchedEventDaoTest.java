@@ -0,0 +1,50 @@
+package ru.homyakin.seeker.game.event.database;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.event.models.GroupEventMessage;
+import ru.homyakin.seeker.game.event.models.GroupLaunchedEvent;
+import ru.homyakin.seeker.locale.Language;
+import ru.homyakin.seeker.test_utils.EventUtils;
+import ru.homyakin.seeker.test_utils.GroupUtils;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class GroupTgLaunchedEventDaoTest {
+    private final GroupTgLaunchedEventDao groupTgLaunchedEventDao = new GroupTgLaunchedEventDao(TestDatabase.dataSource());
+
+    @Test
+    @DisplayName("World raid announcements of many groups are saved by one batch and read with group language")
+    public void saveBatchMapsGroupsToOneEvent() {
+        final var jdbcTemplate = TestDatabase.jdbcTemplate();
+        final long launchedEventId = EventUtils.launchEvent(jdbcTemplate, EventUtils.createDisabledEvent(jdbcTemplate), true);
+        final var groupEvents = new ArrayList<GroupLaunchedEvent>();
+        final var expected = new HashSet<GroupEventMessage>();
+        for (int i = 0; i < 250; ++i) {
+            final var language = i % 2 == 0 ? Language.RU : Language.EN;
+            final long groupId = GroupUtils.createGroup(jdbcTemplate, true, language);
+            groupEvents.add(new GroupLaunchedEvent(launchedEventId, groupId, i + 1));
+            expected.add(new GroupEventMessage(groupId, i + 1, language));
+        }
+
+        groupTgLaunchedEventDao.saveBatch(groupEvents);
+
+        final var messages = groupTgLaunchedEventDao.getMessagesByLaunchedEventId(launchedEventId);
+        Assertions.assertEquals(groupEvents.size(), messages.size());
+        Assertions.assertEquals(expected, new HashSet<>(messages));
+    }
+
+    @Test
+    @DisplayName("Empty batch writes nothing")
+    public void emptyBatch() {
+        final var jdbcTemplate = TestDatabase.jdbcTemplate();
+        final long launchedEventId = EventUtils.launchEvent(jdbcTemplate, EventUtils.createDisabledEvent(jdbcTemplate), true);
+
+        groupTgLaunchedEventDao.saveBatch(List.of());
+
+        Assertions.assertTrue(groupTgLaunchedEventDao.getMessagesByLaunchedEventId(launchedEventId).isEmpty());
+    }
+}
@@ -0,0 +1,52 @@
+package ru.homyakin.seeker.game.event.raid;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshotFactory;
+import ru.homyakin.seeker.test_utils.EventUtils;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class RaidDaoTest {
+    @Test
+    @DisplayName("Raid added after startup is found without restart")
+    public void newRaidIsFound() {
+        final var raidDao = new RaidDao(TestDatabase.dataSource(), new VersionedSnapshotFactory(TestDatabase.dataSource()));
+        raidDao.reload();
+        final int eventId = EventUtils.createDisabledEvent(TestDatabase.jdbcTemplate());
+        Assertions.assertTrue(raidDao.getByEventId(eventId).isEmpty());
+
+        createRaid(eventId, 2);
+
+        final var raid = raidDao.getByEventId(eventId);
+        Assertions.assertTrue(raid.isPresent());
+        Assertions.assertEquals(2, raid.get().template().id());
+    }
+
+    @Test
+    @DisplayName("Changed raid template is picked up by version check, unchanged snapshot is kept")
+    public void changedRaidIsReloaded() {
+        final var raidDao = new RaidDao(TestDatabase.dataSource(), new VersionedSnapshotFactory(TestDatabase.dataSource()));
+        final int eventId = EventUtils.createDisabledEvent(TestDatabase.jdbcTemplate());
+        createRaid(eventId, 1);
+        final var before = raidDao.getByEventId(eventId).orElseThrow();
+
+        raidDao.reloadIfChanged();
+        Assertions.assertSame(before, raidDao.getByEventId(eventId).orElseThrow());
+
+        TestDatabase.jdbcTemplate().update(
+            "UPDATE raid SET template_id = 3 WHERE event_id = :event_id",
+            Map.of("event_id", eventId)
+        );
+        raidDao.reloadIfChanged();
+        Assertions.assertEquals(3, raidDao.getByEventId(eventId).orElseThrow().template().id());
+    }
+
+    private static void createRaid(int eventId, int templateId) {
+        TestDatabase.jdbcTemplate().update(
+            "INSERT INTO raid (event_id, template_id, name) VALUES (:event_id, :template_id, 'Test raid')",
+            Map.of("event_id", eventId, "template_id", templateId)
+        );
+    }
+}
@@ -0,0 +1,92 @@
+package ru.homyakin.seeker.game.personage;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.models.Money;
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.test_utils.PersonageUtils;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class PersonageDaoTest {
+    private final PersonageDao personageDao = PersonageUtils.createDao(TestDatabase.dataSource());
+
+    @Test
+    @DisplayName("Update of stale personage copy keeps money added in database")
+    public void updateDoesNotOverwriteMoney() {
+        final long id = createPersonage(10);
+        final var staleCopy = personageDao.getById(id).orElseThrow();
+
+        personageDao.addMoneyBatch(new long[]{id}, new int[]{100});
+        personageDao.update(withResetCharacteristics(staleCopy));
+
+        Assertions.assertEquals(110, moneyInDatabase(id));
+        Assertions.assertEquals(new Money(110), personageDao.getById(id).orElseThrow().money());
+    }
+
+    @Test
+    @DisplayName("Money is taken only when database has enough, whatever cached copy says")
+    public void takeMoneyChecksDatabase() {
+        final long id = createPersonage(100);
+        final var otherInstanceDao = PersonageUtils.createDao(TestDatabase.dataSource());
+        Assertions.assertEquals(new Money(100), personageDao.getById(id).orElseThrow().money());
+
+        Assertions.assertTrue(otherInstanceDao.takeMoney(id, new Money(80)).isPresent());
+        Assertions.assertTrue(personageDao.takeMoney(id, new Money(80)).isEmpty());
+
+        Assertions.assertEquals(20, moneyInDatabase(id));
+        Assertions.assertEquals(new Money(20), personageDao.getById(id).orElseThrow().money());
+    }
+
+    @Test
+    @DisplayName("Payment for update is refused without changing personage when money is not enough")
+    public void updateWithPaymentIsAtomic() {
+        final long id = createPersonage(Personage.RESET_STATS_COST.value() - 1);
+        final var personage = personageDao.getById(id).orElseThrow();
+
+        final var result = personageDao.updateWithPayment(withResetCharacteristics(personage), Personage.RESET_STATS_COST);
+
+        Assertions.assertTrue(result.isEmpty());
+        Assertions.assertEquals(personage, personageDao.getById(id).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Batch payout adds to current money and saturates at int range")
+    public void addMoneyBatchSaturates() {
+        final long rich = createPersonage(Integer.MAX_VALUE - 5);
+        final long poor = createPersonage(7);
+
+        personageDao.addMoneyBatch(new long[]{rich, poor}, new int[]{10, 3});
+
+        Assertions.assertEquals(Integer.MAX_VALUE, moneyInDatabase(rich));
+        Assertions.assertEquals(10, moneyInDatabase(poor));
+    }
+
+    private long createPersonage(int money) {
+        final long id = personageDao.save(Personage.createDefault());
+        TestDatabase.jdbcTemplate().update(
+            "UPDATE personage SET money = :money WHERE id = :id",
+            Map.of("id", id, "money", money)
+        );
+        return id;
+    }
+
+    private static Personage withResetCharacteristics(Personage personage) {
+        return new Personage(
+            personage.id(),
+            personage.name(),
+            personage.money(),
+            personage.characteristics().reset(),
+            personage.lastHealthChange()
+        );
+    }
+
+    private static int moneyInDatabase(long id) {
+        return TestDatabase.jdbcTemplate().queryForObject(
+            "SELECT money FROM personage WHERE id = :id",
+            Map.of("id", id),
+            Integer.class
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package ru.homyakin.seeker.game.personage;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.event.database.EventDao;
+import ru.homyakin.seeker.game.event.database.GroupTgLaunchedEventDao;
+import ru.homyakin.seeker.game.event.database.LaunchedEventDao;
+import ru.homyakin.seeker.game.event.database.PersonageEventDao;
+import ru.homyakin.seeker.game.event.service.EventService;
+import ru.homyakin.seeker.game.event.service.GroupEventService;
+import ru.homyakin.seeker.game.event.service.LaunchedEventService;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshotFactory;
+import ru.homyakin.seeker.test_utils.EventUtils;
+import ru.homyakin.seeker.test_utils.PersonageUtils;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class PersonageServiceTest {
+    private static final int ATTEMPTS = 8;
+    private final PersonageService personageService = createService();
+
+    @Test
+    @DisplayName("Concurrent joins of one personage to different events leave exactly one active event")
+    public void oneActiveEventPerPersonage() throws Exception {
+        final var jdbcTemplate = TestDatabase.jdbcTemplate();
+        final int eventId = EventUtils.createDisabledEvent(jdbcTemplate);
+        final var executor = Executors.newFixedThreadPool(ATTEMPTS);
+        try {
+            for (int round = 0; round < 20; ++round) {
+                final long personageId = personageService.createPersonage().id();
+                final var launchedEvents = new long[]{
+                    EventUtils.launchEvent(jdbcTemplate, eventId, true),
+                    EventUtils.launchEvent(jdbcTemplate, eventId, true)
+                };
+                final var start = new CountDownLatch(1);
+                final var results = new ArrayList<Future<Boolean>>();
+                for (int i = 0; i < ATTEMPTS; ++i) {
+                    final long launchedEventId = launchedEvents[i % launchedEvents.length];
+                    final Callable<Boolean> join = () -> {
+                        start.await();
+                        return personageService.addEvent(personageId, launchedEventId).isRight();
+                    };
+                    results.add(executor.submit(join));
+                }
+                start.countDown();
+
+                int joined = 0;
+                for (final var result : results) {
+                    joined += result.get() ? 1 : 0;
+                }
+                Assertions.assertEquals(1, joined);
+                Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM personage_to_event WHERE personage_id = :personage_id",
+                    Map.of("personage_id", personageId),
+                    Integer.class
+                ));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static PersonageService createService() {
+        final var dataSource = TestDatabase.dataSource();
+        return new PersonageService(
+            PersonageUtils.createDao(dataSource),
+            new LaunchedEventService(
+                new LaunchedEventDao(dataSource),
+                new PersonageEventDao(dataSource),
+                new GroupEventService(new GroupTgLaunchedEventDao(dataSource))
+            ),
+            new EventService(new EventDao(dataSource), new VersionedSnapshotFactory(dataSource)),
+            TestDatabase.transactionTemplate()
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package ru.homyakin.seeker.game.raid;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.battle.BattlePersonage;
+import ru.homyakin.seeker.game.battle.BattleRandom;
+import ru.homyakin.seeker.game.battle.TwoPersonageTeamsBattle;
+import ru.homyakin.seeker.game.event.raid.generator.BossScaling;
+import ru.homyakin.seeker.game.event.raid.generator.MinionWaveGenerator;
+import ru.homyakin.seeker.game.event.raid.generator.MultiBossGenerator;
+import ru.homyakin.seeker.game.event.raid.generator.SingleBossGenerator;
+import ru.homyakin.seeker.game.personage.models.Characteristics;
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.test_utils.PersonageUtils;
+
+public class RaidBattleGeneratorTest {
+    @Test
+    @DisplayName("Default single boss keeps the old scaling formula")
+    public void singleBossFormula() {
+        final var defaults = Characteristics.createDefault();
+        final var boss = new SingleBossGenerator().generate(7);
+
+        Assertions.assertEquals(1, boss.size());
+        Assertions.assertEquals(defaults.health() * 7, boss.get(0).health());
+        Assertions.assertEquals(-1, boss.get(0).id());
+    }
+
+    @Test
+    @DisplayName("Multiple bosses share health of a single boss")
+    public void multiBossSharesHealth() {
+        final var bosses = new MultiBossGenerator(2, BossScaling.DEFAULT).generate(10);
+        final var single = new SingleBossGenerator().generate(10);
+
+        Assertions.assertEquals(2, bosses.size());
+        Assertions.assertEquals(single.get(0).health(), bosses.stream().mapToInt(BattlePersonage::health).sum());
+        Assertions.assertNotEquals(bosses.get(0).id(), bosses.get(1).id());
+    }
+
+    @Test
+    @DisplayName("Minion wave has a boss and minions proportional to participants")
+    public void minionWaveSize() {
+        final var generator = new MinionWaveGenerator(0.5, BossScaling.DEFAULT);
+
+        Assertions.assertEquals(1 + 5, generator.generate(10).size());
+        Assertions.assertEquals(1 + 2, generator.generate(3).size());
+    }
+
+    @Test
+    @DisplayName("Cached template gives new personages for every raid")
+    public void cachedTemplateGivesFreshPersonages() {
+        final var generator = new SingleBossGenerator();
+        final var first = generator.generate(5);
+        new TwoPersonageTeamsBattle().battle(
+            first,
+            PersonageUtils.generateDefault(5).stream().map(Personage::toBattlePersonage).toList(),
+            BattleRandom.seeded(1)
+        );
+        Assertions.assertTrue(first.get(0).health() < Characteristics.createDefault().health() * 5);
+
+        final var second = generator.generate(5);
+
+        Assertions.assertNotSame(first.get(0), second.get(0));
+        Assertions.assertEquals(Characteristics.createDefault().health() * 5, second.get(0).health());
+    }
+}
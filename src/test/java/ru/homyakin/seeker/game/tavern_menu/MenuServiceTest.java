@@ -0,0 +1,76 @@
+package ru.homyakin.seeker.game.tavern_menu;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.infrastructure.data_version.VersionedSnapshotFactory;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class MenuServiceTest {
+    private final MenuDao menuDao = new MenuDao(TestDatabase.dataSource());
+    private final VersionedSnapshotFactory snapshotFactory = new VersionedSnapshotFactory(TestDatabase.dataSource());
+
+    @Test
+    @DisplayName("Changes of menu items and their locales increase menu version")
+    public void triggersIncreaseVersion() {
+        final long initial = menuVersion();
+        final int id = createItem();
+        final long afterInsert = menuVersion();
+
+        update("UPDATE menu_item_locale SET name = 'Тёмный эль' WHERE menu_item_id = :id", id);
+        final long afterLocaleUpdate = menuVersion();
+        update("UPDATE menu_item SET price = 20 WHERE id = :id", id);
+
+        Assertions.assertTrue(afterInsert > initial);
+        Assertions.assertTrue(afterLocaleUpdate > afterInsert);
+        Assertions.assertTrue(menuVersion() > afterLocaleUpdate);
+    }
+
+    @Test
+    @DisplayName("Snapshot is kept while version is the same and reloaded after menu change")
+    public void snapshotFollowsVersion() {
+        final var menuService = new MenuService(menuDao, snapshotFactory);
+        final int id = createItem();
+        final var before = menuService.getAvailableMenu();
+        Assertions.assertTrue(before.getItem(id).isPresent());
+
+        menuService.reloadIfChanged();
+        Assertions.assertSame(before, menuService.getAvailableMenu());
+
+        update("UPDATE menu_item SET is_available = false WHERE id = :id", id);
+        Assertions.assertTrue(menuService.getAvailableMenuItem(id).isPresent());
+        menuService.reloadIfChanged();
+        Assertions.assertTrue(menuService.getAvailableMenuItem(id).isEmpty());
+    }
+
+    private long menuVersion() {
+        return snapshotFactory.version("menu");
+    }
+
+    private static int createItem() {
+        final var jdbcTemplate = TestDatabase.jdbcTemplate();
+        // У menu_item.id нет последовательности
+        final int id = jdbcTemplate.queryForObject(
+            """
+            INSERT INTO menu_item (id, price, is_available, category_id)
+            SELECT coalesce(max(id), 0) + 1, 10, true, 1 FROM menu_item
+            RETURNING id
+            """,
+            Map.of(),
+            Integer.class
+        );
+        update(
+            """
+            INSERT INTO menu_item_locale (menu_item_id, language_id, name, order_template)
+            VALUES (:id, 1, 'Эль', ARRAY['${personage_icon_with_name} пьёт эль'])
+            """,
+            id
+        );
+        return id;
+    }
+
+    private static void update(String sql, int id) {
+        TestDatabase.jdbcTemplate().update(sql, Map.of("id", id));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.homyakin.seeker.infrastructure;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class DatabaseMigrationTest {
+    @Test
+    @DisplayName("Migrations apply to empty database and repeated run changes nothing")
+    public void migrationsAreRepeatable() {
+        final var jdbcTemplate = TestDatabase.jdbcTemplate();
+        final var countChangeSets = "SELECT count(*) FROM databasechangelog";
+        final var applied = jdbcTemplate.queryForObject(countChangeSets, Map.of(), Long.class);
+
+        TestDatabase.migrate(TestDatabase.dataSource());
+
+        Assertions.assertEquals(applied, jdbcTemplate.queryForObject(countChangeSets, Map.of(), Long.class));
+        Assertions.assertTrue(applied > 0);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.homyakin.seeker.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EntityCacheTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Present entity is loaded once, absent entity is loaded every time")
+    public void onlyPresentEntitiesAreCached() {
+        final EntityCache<Long, String> cache = createCache(10);
+        final var loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; ++i) {
+            Assertions.assertEquals(Optional.of("1"), cache.get(1L, key -> {
+                loads.incrementAndGet();
+                return Optional.of(String.valueOf(key));
+            }));
+            Assertions.assertEquals(Optional.empty(), cache.get(2L, key -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            }));
+        }
+
+        Assertions.assertEquals(4, loads.get());
+        Assertions.assertEquals(2, registry.get("cache.gets").tag("cache", "test").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(4, registry.get("cache.gets").tag("cache", "test").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Written entity is returned without load, invalidated entity is loaded again")
+    public void writeThroughAndInvalidate() {
+        final EntityCache<Long, String> cache = createCache(10);
+        cache.put(1L, "written");
+
+        Assertions.assertEquals(Optional.of("written"), cache.get(1L, key -> Optional.of("loaded")));
+
+        cache.invalidateAll(List.of(1L));
+        Assertions.assertEquals(Optional.of("loaded"), cache.get(1L, key -> Optional.of("loaded")));
+    }
+
+    @Test
+    @DisplayName("Concurrent misses of one key wait for a single load")
+    public void concurrentMissesLoadOnce() throws Exception {
+        final EntityCache<Long, String> cache = createCache(10);
+        final var loads = new AtomicInteger();
+        final var start = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(8);
+        try {
+            final var results = new ArrayList<Future<Optional<String>>>();
+            for (int i = 0; i < 8; ++i) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(1L, key -> {
+                        loads.incrementAndGet();
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return Optional.of("loaded");
+                    });
+                }));
+            }
+            start.countDown();
+            for (final var result : results) {
+                Assertions.assertEquals(Optional.of("loaded"), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    private EntityCache<Long, String> createCache(long maximumSize) {
+        final var config = new EntityCacheConfig();
+        config.setMaximumSize(maximumSize);
+        config.setExpireAfterWrite(Duration.ofMinutes(1));
+        return new EntityCacheFactory(config, registry).create("test");
+    }
+}
@@ -0,0 +1,45 @@
+package ru.homyakin.seeker.infrastructure.data_version;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class VersionedSnapshotTest {
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final VersionedSnapshot<Integer> snapshot = new VersionedSnapshot<>(
+        "test",
+        version::get,
+        loads::incrementAndGet
+    );
+
+    @Test
+    @DisplayName("Data is loaded on first access and reloaded only after version change")
+    public void reloadsOnlyChangedVersion() {
+        Assertions.assertEquals(1, snapshot.get());
+        snapshot.reloadIfChanged();
+        Assertions.assertEquals(1, snapshot.get());
+
+        version.incrementAndGet();
+        Assertions.assertEquals(1, snapshot.get());
+        snapshot.reloadIfChanged();
+        Assertions.assertEquals(2, snapshot.get());
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Version is read before data, so change during load is picked up by next check")
+    public void changeDuringLoadIsNotLost() {
+        final var racing = new VersionedSnapshot<>("test", version::get, () -> {
+            final int data = loads.incrementAndGet();
+            version.incrementAndGet();
+            return data;
+        });
+
+        Assertions.assertEquals(1, racing.get());
+        racing.reloadIfChanged();
+        Assertions.assertEquals(2, racing.get());
+    }
+}
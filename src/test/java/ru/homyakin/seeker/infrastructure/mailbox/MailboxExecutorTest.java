@@ -0,0 +1,126 @@
+package ru.homyakin.seeker.infrastructure.mailbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MailboxExecutorTest {
+    private MailboxExecutor mailboxExecutor;
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        mailboxExecutor.shutdown();
+    }
+
+    @Test()
+    @DisplayName("Tasks of one chat are executed in order and never concurrently")
+    public void tasksOfOneChatAreSerialized() {
+        mailboxExecutor = createExecutor(1000, Duration.ofMinutes(1));
+        final int chats = 20;
+        final int tasksPerChat = 200;
+        final Map<Long, List<Integer>> executed = new HashMap<>();
+        final Map<Long, AtomicInteger> running = new HashMap<>();
+        final var overlaps = new AtomicInteger();
+        for (long chatId = 0; chatId < chats; ++chatId) {
+            executed.put(chatId, Collections.synchronizedList(new ArrayList<>()));
+            running.put(chatId, new AtomicInteger());
+        }
+
+        final var futures = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < tasksPerChat; ++i) {
+            for (long chatId = 0; chatId < chats; ++chatId) {
+                final long chat = chatId;
+                final int number = i;
+                futures.add(mailboxExecutor.submit(chat, () -> {
+                    if (running.get(chat).incrementAndGet() != 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    executed.get(chat).add(number);
+                    running.get(chat).decrementAndGet();
+                }));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        Assertions.assertEquals(0, overlaps.get());
+        for (final var numbers : executed.values()) {
+            Assertions.assertEquals(tasksPerChat, numbers.size());
+            for (int i = 0; i < tasksPerChat; ++i) {
+                Assertions.assertEquals(i, numbers.get(i));
+            }
+        }
+    }
+
+    @Test()
+    @DisplayName("Task is rejected when mailbox is full")
+    public void fullMailboxRejectsTask() throws InterruptedException {
+        mailboxExecutor = createExecutor(1, Duration.ofMinutes(1));
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        Assertions.assertTrue(mailboxExecutor.offer(1, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(mailboxExecutor.offer(1, () -> {}));
+        Assertions.assertFalse(mailboxExecutor.offer(1, () -> {}));
+        Assertions.assertTrue(mailboxExecutor.offer(2, () -> {}));
+        release.countDown();
+    }
+
+    @Test()
+    @DisplayName("Idle mailbox is evicted and chat keeps working after eviction")
+    public void idleMailboxIsEvicted() {
+        final var registry = new SimpleMeterRegistry();
+        mailboxExecutor = createExecutor(10, Duration.ZERO, registry);
+        mailboxExecutor.submit(1, () -> {}).join();
+
+        // Future завершается внутри задачи, а ящик становится свободным чуть позже, когда drain увидит пустую очередь
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("seeker.mailbox.count").gauge().value() != 0) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Mailbox wasn't evicted in time");
+            mailboxExecutor.evictIdleMailboxes();
+            Thread.onSpinWait();
+        }
+
+        Assertions.assertEquals(0, registry.get("seeker.mailbox.count").gauge().value());
+        Assertions.assertEquals(1, registry.get("seeker.mailbox.evicted").counter().count());
+        final var counter = new AtomicInteger();
+        mailboxExecutor.submit(1, counter::incrementAndGet).join();
+        Assertions.assertEquals(1, counter.get());
+    }
+
+    private static MailboxExecutor createExecutor(int capacity, Duration idleTimeout) {
+        return createExecutor(capacity, idleTimeout, new SimpleMeterRegistry());
+    }
+
+    private static MailboxExecutor createExecutor(int capacity, Duration idleTimeout, SimpleMeterRegistry registry) {
+        final var config = new MailboxConfig();
+        config.setThreads(4);
+        config.setCapacity(capacity);
+        config.setBatchSize(3);
+        config.setIdleTimeout(idleTimeout);
+        return new MailboxExecutor(config, registry);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package ru.homyakin.seeker.load;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.homyakin.seeker.Application;
+import ru.homyakin.seeker.game.event.service.EventManager;
+import ru.homyakin.seeker.game.event.service.EventService;
+import ru.homyakin.seeker.game.tavern_menu.MenuService;
+import ru.homyakin.seeker.locale.LocalizationInitializer;
+import ru.homyakin.seeker.telegram.TelegramBotConfig;
+import ru.homyakin.seeker.telegram.TelegramUpdateReceiver;
+import ru.homyakin.seeker.telegram.command.type.CallbackCodec;
+import ru.homyakin.seeker.telegram.command.type.CommandType;
+import ru.homyakin.seeker.utils.TimeUtils;
+
+/*
+Нагрузочный прогон бота: поток апдейтов подаётся в TelegramUpdateReceiver так же, как это делает long polling,
+телеграм заменён на StubTelegramSender, база - настоящий PostgreSQL в докере.
+Только пропускная способность: проверки здесь лишь о том, что сценарий дошёл до конца,
+корректность DAO и сервисов проверяют обычные тесты рядом с кодом.
+Не запускается вместе с обычными тестами: mvn -Pload-test test
+Параметры:
+    -Dload.groups, -Dload.users, -Dload.messages - размер синтетических сценариев
+    -Dload.updates=path - файл с записанными апдейтами, по одному json на строку
+    -Dload.jdbcUrl, -Dload.jdbcUser, -Dload.jdbcPassword - своя база вместо контейнера
+ */
+public class BotLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(BotLoadTest.class);
+    private static final int GROUPS = Integer.getInteger("load.groups", 20);
+    private static final int USERS_PER_GROUP = Integer.getInteger("load.users", 20);
+    private static final int MESSAGES_PER_USER = Integer.getInteger("load.messages", 10);
+    private static final Duration COMPLETION_TIMEOUT = Duration.ofMinutes(5);
+    // Каждый сценарий работает со своими группами и пользователями, база между сценариями не чистится
+    private static final AtomicLong idOffset = new AtomicLong();
+    private static PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private TelegramUpdateReceiver receiver;
+    private StubTelegramSender sender;
+    private MeterRegistry registry;
+    private LoadMetricsPostProcessor metrics;
+    private UpdateFactory updates;
+    private final List<LoadReport> reports = new ArrayList<>();
+
+    @BeforeAll
+    public static void startDatabase() {
+        // В обычном запуске это делает Application.main
+        LocalizationInitializer.initLocale();
+        if (System.getProperty("load.jdbcUrl") != null) {
+            return;
+        }
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+    }
+
+    @AfterAll
+    public static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @BeforeEach
+    public void startBot() {
+        context = new SpringApplicationBuilder(Application.class)
+            .initializers(applicationContext -> {
+                final var genericContext = (GenericApplicationContext) applicationContext;
+                genericContext.registerBean(LoadMetricsPostProcessor.class);
+                // LoggingMeterRegistry отдаёт значения за прошлую минуту, для замера нужны накопленные
+                genericContext.registerBean(SimpleMeterRegistry.class, SimpleMeterRegistry::new, it -> it.setPrimary(true));
+                genericContext.registerBean(StubTelegramSender.class, it -> it.setPrimary(true));
+            })
+            .run(
+                "--spring.config.additional-location=classpath:/load/",
+                "--spring.datasource.url=" + property("load.jdbcUrl", postgres == null ? null : postgres.getJdbcUrl()),
+                "--spring.datasource.username=" + property("load.jdbcUser", postgres == null ? null : postgres.getUsername()),
+                "--spring.datasource.password=" + property("load.jdbcPassword", postgres == null ? null : postgres.getPassword())
+            );
+        receiver = context.getBean(TelegramUpdateReceiver.class);
+        sender = context.getBean(StubTelegramSender.class);
+        registry = context.getBean(MeterRegistry.class);
+        metrics = context.getBean(LoadMetricsPostProcessor.class);
+        updates = new UpdateFactory(TelegramBotConfig.username());
+    }
+
+    @AfterEach
+    public void stopBot() {
+        context.close();
+        reports.forEach(it -> logger.info("\n{}", it.format()));
+    }
+
+    @Test
+    @DisplayName("Group chatter: plain messages with commands in between")
+    public void groupChatter() {
+        final var groups = groupIds();
+        final var random = new Random(42);
+        final var stream = new ArrayList<Update>();
+        for (int i = 0; i < MESSAGES_PER_USER; ++i) {
+            for (final long groupId : groups) {
+                for (final long userId : userIds(groupId)) {
+                    // Примерно каждое пятое сообщение - команда, остальное бот должен отбросить без разбора
+                    final String text = switch (random.nextInt(10)) {
+                        case 0 -> "/me";
+                        case 1 -> "/me@" + TelegramBotConfig.username();
+                        case 2 -> "/menu@other_bot";
+                        default -> "Just talking " + i;
+                    };
+                    stream.add(updates.message(groupId, userId, text));
+                }
+            }
+        }
+
+        final var report = replay("group chatter", stream);
+
+        Assertions.assertTrue(report.commands() > 0);
+    }
+
+    @Test
+    @DisplayName("Warm /me: profile of users the bot already knows")
+    public void warmProfile() {
+        final var groups = groupIds();
+        prepareUsers(groups);
+        final var stream = new ArrayList<Update>();
+        for (final long groupId : groups) {
+            for (final long userId : userIds(groupId)) {
+                stream.add(updates.message(groupId, userId, "/me"));
+            }
+        }
+
+        final var report = replay("warm profile", stream);
+
+        Assertions.assertEquals(stream.size(), report.commands() + report.rejected());
+    }
+
+    @Test
+    @DisplayName("Duel storm: every second user starts a duel and opponent accepts it")
+    public void duelStorm() {
+        final var groups = groupIds();
+        prepareUsers(groups);
+        final var jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+        jdbcTemplate.update(
+            "UPDATE personage SET money = 1000 WHERE id IN (SELECT personage_id FROM usertg WHERE id IN (:ids))",
+            Map.of("ids", groups.stream().flatMap(it -> userIds(it).stream()).toList())
+        );
+
+        final var duelStarts = new ArrayList<Update>();
+        final var acceptors = new HashMap<Integer, Long>();
+        for (final long groupId : groups) {
+            final var users = userIds(groupId);
+            for (int i = 0; i + 1 < users.size(); i += 2) {
+                final Message target = updates.groupMessage(groupId, users.get(i + 1), "Hi");
+                acceptors.put(target.getMessageId(), users.get(i + 1));
+                duelStarts.add(updates.reply(groupId, users.get(i), "/duel", target));
+            }
+        }
+        replay("duel start", duelStarts);
+
+        final var accepts = new ArrayList<Update>();
+        for (final var message : sender.pollMessagesWithButtons()) {
+            final var acceptor = acceptors.get(message.replyToMessageId());
+            if (acceptor == null) {
+                continue;
+            }
+            message.callbackData()
+                .stream()
+                .filter(it -> isCallback(it, CommandType.ACCEPT_DUEL))
+                .forEach(it -> accepts.add(updates.callback(message.chatId(), acceptor, message.messageId(), it)));
+        }
+        final long finishedBefore = count(jdbcTemplate, "SELECT count(*) FROM duel WHERE winner_personage_id IS NOT NULL");
+        final long logsBefore = count(jdbcTemplate, "SELECT count(*) FROM battle_log WHERE duel_id IS NOT NULL");
+        final var report = replay("duel accept", accepts);
+
+        Assertions.assertEquals(duelStarts.size(), accepts.size());
+        Assertions.assertEquals(accepts.size(), report.commands() + report.rejected());
+        // У каждой завершённой дуэли сохранён журнал боя
+        Assertions.assertEquals(
+            count(jdbcTemplate, "SELECT count(*) FROM duel WHERE winner_personage_id IS NOT NULL") - finishedBefore,
+            count(jdbcTemplate, "SELECT count(*) FROM battle_log WHERE duel_id IS NOT NULL") - logsBefore
+        );
+    }
+
+    @Test
+    @DisplayName("Join event flood: everybody clicks the raid button, some of them twice")
+    public void joinEventFlood() {
+        final var groups = groupIds();
+        prepareUsers(groups);
+        final var jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+        seedEvent(jdbcTemplate);
+        // Рейды читаются в снимок при старте, а событие добавлено после
+        jdbcTemplate.update(
+            "UPDATE grouptg SET next_event_date = :date WHERE id IN (:ids)",
+            Map.of("date", TimeUtils.moscowTime().minusMinutes(1), "ids", groups)
+        );
+        context.getBean(EventManager.class).launchEventsInGroups();
+
+        final var random = new Random(42);
+        final var clicks = new ArrayList<Update>();
+        for (final var message : sender.pollMessagesWithButtons()) {
+            if (!groups.contains(message.chatId())) {
+                continue;
+            }
+            for (final var data : message.callbackData()) {
+                if (!isCallback(data, CommandType.JOIN_EVENT)) {
+                    continue;
+                }
+                for (final long userId : userIds(message.chatId())) {
+                    final int times = random.nextInt(4) == 0 ? 2 : 1;
+                    for (int i = 0; i < times; ++i) {
+                        clicks.add(updates.callback(message.chatId(), userId, message.messageId(), data));
+                    }
+                }
+            }
+        }
+        final var report = replay("join event", clicks);
+
+        Assertions.assertFalse(clicks.isEmpty());
+        Assertions.assertEquals(clicks.size(), report.commands() + report.rejected());
+
+        // Все запущенные рейды истекают в одну минуту и завершаются одним прогоном шедулера
+        final var moneyBefore = participantsMoney(jdbcTemplate, groups);
+        final long raids = count(jdbcTemplate, "SELECT count(*) FROM launched_event WHERE is_active = true");
+        final long raidLogsBefore = count(jdbcTemplate, "SELECT count(*) FROM battle_log WHERE launched_event_id IS NOT NULL");
+        jdbcTemplate.update(
+            "UPDATE launched_event SET end_date = :date WHERE is_active = true",
+            Map.of("date", TimeUtils.moscowTime().minusMinutes(1))
+        );
+        context.getBean(EventManager.class).stopEvents();
+        waitTelegramQueue();
+        final var stopCycle = registry.get("seeker.event.stop.cycle").timer();
+        logger.info("Raids of {} groups stopped in {} ms", groups.size(), (long) stopCycle.totalTime(TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(0, count(jdbcTemplate, "SELECT count(*) FROM launched_event WHERE is_active = true"));
+        Assertions.assertEquals(
+            raids,
+            count(jdbcTemplate, "SELECT count(*) FROM battle_log WHERE launched_event_id IS NOT NULL") - raidLogsBefore
+        );
+        // Даже проигравший рейд участник получает награду
+        final var moneyAfter = participantsMoney(jdbcTemplate, groups);
+        Assertions.assertTrue(moneyAfter.participants() > 0);
+        Assertions.assertTrue(moneyAfter.money() - moneyBefore.money() >= 2L * moneyAfter.participants());
+    }
+
+    @Test
+    @DisplayName("World raid: one event announced in every group, everybody joins, one battle")
+    public void worldRaid() {
+        final var groups = groupIds();
+        prepareUsers(groups);
+        final var jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+        seedEvent(jdbcTemplate);
+        context.getBean(EventManager.class).launchWorldRaid().join();
+
+        final var clicks = new ArrayList<Update>();
+        final var announcedGroups = new HashSet<Long>();
+        final var buttons = new HashSet<String>();
+        for (final var message : sender.pollMessagesWithButtons()) {
+            if (!groups.contains(message.chatId())) {
+                continue;
+            }
+            for (final var data : message.callbackData()) {
+                if (!isCallback(data, CommandType.JOIN_EVENT)) {
+                    continue;
+                }
+                announcedGroups.add(message.chatId());
+                buttons.add(data);
+                for (final long userId : userIds(message.chatId())) {
+                    clicks.add(updates.callback(message.chatId(), userId, message.messageId(), data));
+                }
+            }
+        }
+        Assertions.assertEquals(new HashSet<>(groups), announcedGroups);
+        Assertions.assertEquals(1, buttons.size());
+        final long launchedEventId = jdbcTemplate.queryForObject(
+            "SELECT max(launched_event_id) FROM grouptg_to_launched_event WHERE grouptg_id = :id",
+            Map.of("id", groups.get(0)),
+            Long.class
+        );
+        final var params = Map.of("id", launchedEventId, "groups", groups);
+        Assertions.assertEquals(
+            groups.size(),
+            jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM grouptg_to_launched_event WHERE launched_event_id = :id AND grouptg_id IN (:groups)",
+                params,
+                Long.class
+            )
+        );
+
+        replay("world raid join", clicks);
+        Assertions.assertEquals(
+            clicks.size(),
+            jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM personage_to_event WHERE launched_event_id = :id",
+                params,
+                Long.class
+            )
+        );
+
+        jdbcTemplate.update("UPDATE launched_event SET end_date = :date WHERE id = :id", Map.of(
+            "date", TimeUtils.moscowTime().minusMinutes(1),
+            "id", launchedEventId
+        ));
+        context.getBean(EventManager.class).stopEvents();
+        waitTelegramQueue();
+        final var stopCycle = registry.get("seeker.event.stop.cycle").timer();
+        logger.info(
+            "World raid of {} participants stopped in {} ms", clicks.size(), (long) stopCycle.totalTime(TimeUnit.MILLISECONDS)
+        );
+        Assertions.assertEquals(
+            (long) clicks.size(),
+            jdbcTemplate.queryForObject(
+                "SELECT cardinality(second_team) FROM battle_log WHERE launched_event_id = :id",
+                params,
+                Integer.class
+            ).longValue()
+        );
+        Assertions.assertFalse(jdbcTemplate.queryForObject(
+            "SELECT is_active FROM launched_event WHERE id = :id",
+            params,
+            Boolean.class
+        ));
+    }
+
+    @Test
+    @DisplayName("Tavern menu: /menu in every group")
+    public void tavernMenu() {
+        final var groups = groupIds();
+        prepareUsers(groups);
+        final var jdbcTemplate = context.getBean(NamedParameterJdbcTemplate.class);
+        final var menuService = context.getBean(MenuService.class);
+        jdbcTemplate.getJdbcTemplate().update("""
+            INSERT INTO menu_item (id, price, is_available, category_id) VALUES (1000, 10, true, 1)
+            ON CONFLICT (id) DO UPDATE SET is_available = true
+            """);
+        jdbcTemplate.getJdbcTemplate().update("""
+            INSERT INTO menu_item_locale (menu_item_id, language_id, name, order_template)
+            VALUES (1000, 1, 'Нагрузочный эль', ARRAY['${personage_icon_with_name} пьёт эль'])
+            ON CONFLICT DO NOTHING
+            """);
+        menuService.reloadIfChanged();
+
+        final var stream = new ArrayList<Update>();
+        for (final long groupId : groups) {
+            for (final long userId : userIds(groupId)) {
+                stream.add(updates.message(groupId, userId, "/menu"));
+            }
+        }
+        final var report = replay("tavern menu", stream);
+
+        Assertions.assertEquals(stream.size(), report.commands() + report.rejected());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "load.updates", matches = ".+")
+    @DisplayName("Replay of recorded updates")
+    public void recordedUpdates() throws IOException {
+        final var objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        final var stream = new ArrayList<Update>();
+        for (final var line : Files.readAllLines(Path.of(System.getProperty("load.updates")))) {
+            if (!line.isBlank()) {
+                stream.add(objectMapper.readValue(line, Update.class));
+            }
+        }
+
+        replay("recorded", stream);
+    }
+
+    /**
+     * Подаёт апдейты в одном потоке, как long polling, и ждёт выполнения всех принятых команд
+     */
+    private LoadReport replay(String phase, List<Update> stream) {
+        final double acceptedBefore = acceptedUpdates();
+        final var before = LoadReport.Snapshot.take(registry, metrics, sender);
+        stream.forEach(receiver::onUpdateReceived);
+        final long expected = before.commands() + before.rejected() + (long) (acceptedUpdates() - acceptedBefore);
+
+        final long deadline = System.nanoTime() + COMPLETION_TIMEOUT.toNanos();
+        LoadReport.Snapshot after = LoadReport.Snapshot.take(registry, metrics, sender);
+        while (after.commands() + after.rejected() < expected) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Commands of phase " + phase + " weren't executed in time");
+            sleep(10);
+            after = LoadReport.Snapshot.take(registry, metrics, sender);
+        }
+        waitTelegramQueue();
+
+        final var report = LoadReport.between(phase, stream.size(), before, after.withTelegramRequests(sender.requests()));
+        reports.add(report);
+        return report;
+    }
+
+    // Отдельно от команд ждём отправки схлопнутых правок и сообщений, которые не ждали результата
+    private void waitTelegramQueue() {
+        final var queueSize = registry.get("seeker.telegram.queue.size").gauge();
+        int emptyChecks = 0;
+        while (emptyChecks < 5) {
+            sleep(100);
+            emptyChecks = queueSize.value() == 0 ? emptyChecks + 1 : 0;
+        }
+    }
+
+    private double acceptedUpdates() {
+        return registry.find("seeker.updates")
+            .tag("result", "accepted")
+            .counters()
+            .stream()
+            .mapToDouble(Counter::count)
+            .sum();
+    }
+
+    // Группы, пользователи и персонажи создаются первой командой, создание не входит в замер сценария
+    private void prepareUsers(List<Long> groups) {
+        final var stream = new ArrayList<Update>();
+        for (final long groupId : groups) {
+            for (final long userId : userIds(groupId)) {
+                stream.add(updates.message(groupId, userId, "/me"));
+            }
+        }
+        replay("preparation", stream);
+        sender.pollMessagesWithButtons();
+    }
+
+    private static long count(NamedParameterJdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(sql, Long.class);
+    }
+
+    private ParticipantsMoney participantsMoney(NamedParameterJdbcTemplate jdbcTemplate, List<Long> groups) {
+        return jdbcTemplate.queryForObject(
+            """
+                SELECT count(*), coalesce(sum(p.money), 0) FROM personage p
+                WHERE p.id IN (SELECT personage_id FROM personage_to_event)
+                AND p.id IN (SELECT personage_id FROM usertg WHERE id IN (:users))
+                """,
+            Map.of("users", groups.stream().flatMap(it -> userIds(it).stream()).toList()),
+            (rs, rowNum) -> new ParticipantsMoney(rs.getLong(1), rs.getLong(2))
+        );
+    }
+
+    private record ParticipantsMoney(long participants, long money) {
+    }
+
+    private void seedEvent(NamedParameterJdbcTemplate jdbcTemplate) {
+        jdbcTemplate.getJdbcTemplate().update("""
+            INSERT INTO event (id, type_id, duration, is_enabled) VALUES (1, 1, interval '1 hour', true)
+            ON CONFLICT DO NOTHING
+            """);
+        jdbcTemplate.getJdbcTemplate().update("""
+            INSERT INTO event_locale (event_id, language_id, intro, description)
+            VALUES (1, 1, 'Нагрузочный босс', 'Описание'), (1, 2, 'Load boss', 'Description')
+            ON CONFLICT DO NOTHING
+            """);
+        jdbcTemplate.getJdbcTemplate().update("""
+            INSERT INTO raid (event_id, template_id, name) VALUES (1, 1, 'Load boss')
+            ON CONFLICT DO NOTHING
+            """);
+        // Каталог событий перечитывается по версии, не дожидаемся планировщика
+        context.getBean(EventService.class).reloadIfChanged();
+    }
+
+    private static boolean isCallback(String data, CommandType type) {
+        return CallbackCodec.decode(data).filter(it -> it.type() == type).isPresent();
+    }
+
+    private static List<Long> groupIds() {
+        final long offset = idOffset.getAndAdd(GROUPS);
+        final var groups = new ArrayList<Long>(GROUPS);
+        for (int i = 1; i <= GROUPS; ++i) {
+            groups.add(-1_000_000_000_000L - offset - i);
+        }
+        return groups;
+    }
+
+    private static List<Long> userIds(long groupId) {
+        final long base = (-groupId - 1_000_000_000_000L) * USERS_PER_GROUP;
+        final var users = new ArrayList<Long>(USERS_PER_GROUP);
+        for (int i = 1; i <= USERS_PER_GROUP; ++i) {
+            users.add(base + i);
+        }
+        return users;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.homyakin.seeker.load;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/*
+Считает запросы в базу по созданным statement'ам и добавляет гистограмму к таймерам диспетчера.
+Батч считается одним запросом, как и уходит в базу.
+Перцентили микрометра нельзя посчитать для отрезка прогона, поэтому используются накопительные бакеты:
+разница снимков до и после фазы даёт распределение только этой фазы.
+ */
+public class LoadMetricsPostProcessor implements BeanPostProcessor {
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "createStatement", "prepareCall");
+    // Границы от 100мкс до минуты с шагом 25%, этой точности достаточно для p50 и p99
+    private static final double[] LATENCY_BUCKETS = latencyBuckets();
+    private final AtomicLong queries = new AtomicLong();
+
+    public long queries() {
+        return queries.get();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return countingDataSource(dataSource);
+        }
+        if (bean instanceof MeterRegistry meterRegistry) {
+            meterRegistry.config().meterFilter(histogramFilter());
+        }
+        return bean;
+    }
+
+    private DataSource countingDataSource(DataSource dataSource) {
+        return (DataSource) Proxy.newProxyInstance(
+            DataSource.class.getClassLoader(),
+            new Class<?>[]{DataSource.class},
+            (proxy, method, args) -> {
+                final var result = invoke(dataSource, method, args);
+                if (result instanceof Connection connection) {
+                    return countingConnection(connection);
+                }
+                return result;
+            }
+        );
+    }
+
+    private Connection countingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if (STATEMENT_METHODS.contains(method.getName())) {
+                    queries.incrementAndGet();
+                }
+                return invoke(connection, method, args);
+            }
+        );
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static double[] latencyBuckets() {
+        final var buckets = new ArrayList<Double>();
+        final double max = Duration.ofMinutes(1).toNanos();
+        for (double bucket = Duration.ofNanos(100_000).toNanos(); bucket < max; bucket *= 1.25) {
+            buckets.add(Math.floor(bucket));
+        }
+        return buckets.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static MeterFilter histogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().startsWith("seeker.dispatcher")) {
+                    return config;
+                }
+                // Бакеты не должны сбрасываться посреди прогона
+                return DistributionStatisticConfig.builder()
+                    .serviceLevelObjectives(LATENCY_BUCKETS)
+                    .expiry(Duration.ofHours(1))
+                    .bufferLength(1)
+                    .build()
+                    .merge(config);
+            }
+        };
+    }
+}
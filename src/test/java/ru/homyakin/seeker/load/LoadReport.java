@@ -0,0 +1,108 @@
+package ru.homyakin.seeker.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Результат одной фазы нагрузки. Задержки берутся из таймеров диспетчера:
+ * wait - от получения апдейта до начала выполнения команды, execution - само выполнение
+ */
+record LoadReport(
+    String phase,
+    long updates,
+    long commands,
+    long rejected,
+    Duration elapsed,
+    double waitP50Millis,
+    double waitP99Millis,
+    double executionP50Millis,
+    double executionP99Millis,
+    long queries,
+    long telegramRequests
+) {
+    double commandsPerSecond() {
+        return commands * 1_000_000_000.0 / Math.max(elapsed.toNanos(), 1);
+    }
+
+    double queriesPerCommand() {
+        return commands == 0 ? 0 : (double) queries / commands;
+    }
+
+    String format() {
+        return """
+            %s: %d updates, %d commands, %d rejected in %d ms
+              throughput: %.1f commands/s
+              wait:       p50 %.2f ms, p99 %.2f ms
+              execution:  p50 %.2f ms, p99 %.2f ms
+              database:   %.2f queries/command (%d total)
+              telegram:   %d requests""".formatted(
+            phase, updates, commands, rejected, elapsed.toMillis(),
+            commandsPerSecond(),
+            waitP50Millis, waitP99Millis,
+            executionP50Millis, executionP99Millis,
+            queriesPerCommand(), queries,
+            telegramRequests
+        );
+    }
+
+    static LoadReport between(String phase, long updates, Snapshot before, Snapshot after) {
+        return new LoadReport(
+            phase,
+            updates,
+            after.commands() - before.commands(),
+            after.rejected() - before.rejected(),
+            Duration.ofNanos(after.takenAt() - before.takenAt()),
+            percentile(before.waiting(), after.waiting(), 0.5),
+            percentile(before.waiting(), after.waiting(), 0.99),
+            percentile(before.execution(), after.execution(), 0.5),
+            percentile(before.execution(), after.execution(), 0.99),
+            after.queries() - before.queries(),
+            after.telegramRequests() - before.telegramRequests()
+        );
+    }
+
+    /**
+     * Верхняя граница бакета, в который попадает перцентиль, среди значений, записанных между снимками
+     */
+    private static double percentile(HistogramSnapshot before, HistogramSnapshot after, double quantile) {
+        final var beforeBuckets = before.histogramCounts();
+        final var afterBuckets = after.histogramCounts();
+        final double threshold = quantile * (after.count() - before.count());
+        for (int i = 0; i < afterBuckets.length; ++i) {
+            final double count = afterBuckets[i].count() - (beforeBuckets.length > i ? beforeBuckets[i].count() : 0);
+            if (count > 0 && count >= threshold) {
+                return afterBuckets[i].bucket(TimeUnit.MILLISECONDS);
+            }
+        }
+        return after.max(TimeUnit.MILLISECONDS);
+    }
+
+    record Snapshot(
+        long takenAt,
+        long commands,
+        long rejected,
+        HistogramSnapshot waiting,
+        HistogramSnapshot execution,
+        long queries,
+        long telegramRequests
+    ) {
+        Snapshot withTelegramRequests(long telegramRequests) {
+            return new Snapshot(takenAt, commands, rejected, waiting, execution, queries, telegramRequests);
+        }
+
+        static Snapshot take(MeterRegistry registry, LoadMetricsPostProcessor metrics, StubTelegramSender sender) {
+            final var execution = registry.get("seeker.dispatcher.execution").timer();
+            return new Snapshot(
+                System.nanoTime(),
+                execution.count(),
+                (long) registry.get("seeker.dispatcher.rejected").counter().count(),
+                registry.get("seeker.dispatcher.wait").timer().takeSnapshot(),
+                execution.takeSnapshot(),
+                metrics.queries(),
+                sender.requests()
+            );
+        }
+    }
+}
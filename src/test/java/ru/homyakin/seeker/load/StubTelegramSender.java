@@ -0,0 +1,101 @@
+package ru.homyakin.seeker.load;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.groupadministration.GetChatMember;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.chatmember.ChatMemberMember;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+import ru.homyakin.seeker.telegram.TelegramBotConfig;
+import ru.homyakin.seeker.telegram.TelegramSender;
+import ru.homyakin.seeker.telegram.sender.EditMessageCoalescer;
+import ru.homyakin.seeker.telegram.sender.TelegramSendQueue;
+
+/*
+Отправитель без сети: запросы проходят через настоящие очередь и схлопывание правок, но вместо телеграма
+сразу получают успешный ответ. Кнопки отправленных сообщений запоминаются, чтобы сценарии могли на них нажимать.
+ */
+public class StubTelegramSender extends TelegramSender {
+    private final AtomicInteger messageIds = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final Queue<SentMessage> messagesWithButtons = new ConcurrentLinkedQueue<>();
+
+    public StubTelegramSender(
+        TelegramBotConfig botConfig,
+        DefaultBotOptions options,
+        TelegramSendQueue sendQueue,
+        EditMessageCoalescer editCoalescer
+    ) {
+        super(botConfig, options, sendQueue, editCoalescer);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable, Method extends BotApiMethod<T>> T execute(Method method) {
+        requests.incrementAndGet();
+        if (method instanceof SendMessage sendMessage) {
+            return (T) reply(sendMessage);
+        }
+        if (method instanceof GetChatMember) {
+            return (T) new ChatMemberMember();
+        }
+        return (T) Boolean.TRUE;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * Забирает все сообщения с кнопками, отправленные с прошлого вызова
+     */
+    public List<SentMessage> pollMessagesWithButtons() {
+        final var result = new ArrayList<SentMessage>();
+        SentMessage message;
+        while ((message = messagesWithButtons.poll()) != null) {
+            result.add(message);
+        }
+        return result;
+    }
+
+    private Message reply(SendMessage sendMessage) {
+        final long chatId = Long.parseLong(sendMessage.getChatId());
+        final int messageId = messageIds.incrementAndGet();
+        if (sendMessage.getReplyMarkup() instanceof InlineKeyboardMarkup keyboard) {
+            final var callbackData = keyboard.getKeyboard()
+                .stream()
+                .flatMap(List::stream)
+                .map(InlineKeyboardButton::getCallbackData)
+                .toList();
+            messagesWithButtons.add(
+                new SentMessage(chatId, messageId, sendMessage.getReplyToMessageId(), callbackData)
+            );
+        }
+        final var chat = new Chat();
+        chat.setId(chatId);
+        chat.setType(chatId < 0 ? "supergroup" : "private");
+        final var message = new Message();
+        message.setMessageId(messageId);
+        message.setChat(chat);
+        message.setText(sendMessage.getText());
+        return message;
+    }
+
+    public record SentMessage(
+        long chatId,
+        int messageId,
+        Integer replyToMessageId,
+        List<String> callbackData
+    ) {
+    }
+}
@@ -0,0 +1,86 @@
+package ru.homyakin.seeker.load;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+/*
+Синтетические апдейты в том виде, в каком их присылает телеграм для супергрупп
+ */
+class UpdateFactory {
+    // Id сообщений пользователей не должны пересекаться с id сообщений, которые выдаёт StubTelegramSender
+    private final AtomicInteger messageIds = new AtomicInteger(1_000_000_000);
+    private final AtomicInteger updateIds = new AtomicInteger();
+    private final String botUsername;
+
+    UpdateFactory(String botUsername) {
+        this.botUsername = botUsername;
+    }
+
+    Message groupMessage(long groupId, long userId, String text) {
+        final var message = new Message();
+        message.setMessageId(messageIds.incrementAndGet());
+        message.setChat(superGroup(groupId));
+        message.setFrom(user(userId));
+        message.setDate((int) (System.currentTimeMillis() / 1000));
+        message.setText(text);
+        return message;
+    }
+
+    Update message(long groupId, long userId, String text) {
+        return update(groupMessage(groupId, userId, text));
+    }
+
+    Update reply(long groupId, long userId, String text, Message replyTo) {
+        final var message = groupMessage(groupId, userId, text);
+        message.setReplyToMessage(replyTo);
+        return update(message);
+    }
+
+    Update callback(long groupId, long userId, int messageId, String data) {
+        final var botMessage = new Message();
+        botMessage.setMessageId(messageId);
+        botMessage.setChat(superGroup(groupId));
+        final var bot = user(0);
+        bot.setIsBot(true);
+        bot.setUserName(botUsername);
+        botMessage.setFrom(bot);
+
+        final var callback = new CallbackQuery();
+        callback.setId(String.valueOf(updateIds.get()));
+        callback.setFrom(user(userId));
+        callback.setMessage(botMessage);
+        callback.setData(data);
+
+        final var update = new Update();
+        update.setUpdateId(updateIds.incrementAndGet());
+        update.setCallbackQuery(callback);
+        return update;
+    }
+
+    private Update update(Message message) {
+        final var update = new Update();
+        update.setUpdateId(updateIds.incrementAndGet());
+        update.setMessage(message);
+        return update;
+    }
+
+    private static Chat superGroup(long groupId) {
+        final var chat = new Chat();
+        chat.setId(groupId);
+        chat.setType("supergroup");
+        chat.setTitle("Load test " + groupId);
+        return chat;
+    }
+
+    private static User user(long userId) {
+        final var user = new User();
+        user.setId(userId);
+        user.setFirstName("User " + userId);
+        user.setIsBot(false);
+        return user;
+    }
+}
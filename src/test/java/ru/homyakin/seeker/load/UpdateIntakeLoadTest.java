@@ -0,0 +1,202 @@
+package ru.homyakin.seeker.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
+import org.telegram.telegrambots.meta.TelegramBotsApi;
+import org.telegram.telegrambots.meta.api.methods.updates.GetUpdates;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.generics.BotOptions;
+import org.telegram.telegrambots.meta.generics.LongPollingBot;
+import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
+import ru.homyakin.seeker.telegram.TelegramBotConfig;
+import ru.homyakin.seeker.telegram.TelegramWebhookServer;
+import ru.homyakin.seeker.utils.ResourceUtils;
+
+/*
+Сравнение приёма апдейтов long polling и вебхуком без обработки команд: апдейт только считается.
+Long polling ходит в поддельный Bot API на localhost, вебхук получает POST от нескольких клиентских потоков,
+как это делает телеграм.
+Параметры:
+    -Dload.intake.updates - число апдейтов в каждом режиме
+    -Dload.intake.apiLatency - задержка ответа поддельного Bot API в мс, имитирует сеть до api.telegram.org
+ */
+public class UpdateIntakeLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(UpdateIntakeLoadTest.class);
+    private static final int UPDATES = Integer.getInteger("load.intake.updates", 20_000);
+    private static final long API_LATENCY_MILLIS = Long.getLong("load.intake.apiLatency", 0);
+    private static final int WEBHOOK_CLIENTS = 8;
+    private static final String TOKEN = "123:intake";
+    private static final String SECRET = "intake-secret";
+    private static final String PATH = "/telegram/webhook";
+    private static final Duration COMPLETION_TIMEOUT = Duration.ofMinutes(2);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Апдейт с update_id = i + 1 лежит по индексу i
+    private static final List<String> updates = new ArrayList<>();
+
+    @BeforeAll
+    public static void prepareUpdates() throws IOException {
+        final var template = (ObjectNode) objectMapper.readTree(
+            ResourceUtils.getResourcePath("updates/group_command.json").orElseThrow()
+        );
+        for (int i = 1; i <= UPDATES; ++i) {
+            template.put("update_id", i);
+            updates.add(objectMapper.writeValueAsString(template));
+        }
+    }
+
+    @Test
+    @DisplayName("Long polling intake")
+    public void longPolling() throws Exception {
+        final var received = new CountDownLatch(UPDATES);
+        final var botApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        botApi.createContext("/bot" + TOKEN + "/" + GetUpdates.PATH, UpdateIntakeLoadTest::getUpdates);
+        botApi.start();
+        final var options = new DefaultBotOptions();
+        options.setBaseUrl("http://localhost:" + botApi.getAddress().getPort() + "/bot");
+        final long start = System.nanoTime();
+        final var session = new TelegramBotsApi(DefaultBotSession.class).registerBot(new CountingBot(options, received));
+        try {
+            Assertions.assertTrue(received.await(COMPLETION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+            report("long polling", System.nanoTime() - start);
+        } finally {
+            session.stop();
+            botApi.stop(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Webhook intake")
+    public void webhook() throws Exception {
+        final var received = new CountDownLatch(UPDATES);
+        final var config = new TelegramBotConfig();
+        config.setWebhookPort(0);
+        config.setWebhookPath(PATH);
+        config.setWebhookSecret(SECRET);
+        config.setWebhookThreads(4);
+        final var server = new TelegramWebhookServer(config);
+        server.start(update -> received.countDown());
+        final var client = HttpClient.newHttpClient();
+        final var uri = URI.create("http://localhost:" + server.port() + PATH);
+        final var clients = Executors.newFixedThreadPool(WEBHOOK_CLIENTS);
+        try {
+            final long start = System.nanoTime();
+            for (int thread = 0; thread < WEBHOOK_CLIENTS; ++thread) {
+                final int first = thread;
+                clients.submit(() -> {
+                    for (int i = first; i < UPDATES; i += WEBHOOK_CLIENTS) {
+                        final var request = HttpRequest.newBuilder(uri)
+                            .header("X-Telegram-Bot-Api-Secret-Token", SECRET)
+                            .POST(HttpRequest.BodyPublishers.ofString(updates.get(i)))
+                            .build();
+                        client.send(request, HttpResponse.BodyHandlers.discarding());
+                    }
+                    return null;
+                });
+            }
+            Assertions.assertTrue(received.await(COMPLETION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+            report("webhook", System.nanoTime() - start);
+        } finally {
+            clients.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private static void getUpdates(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final JsonNode request;
+            try (final var body = exchange.getRequestBody()) {
+                request = objectMapper.readTree(body);
+            }
+            final int offset = Math.max(request.path("offset").asInt(1), 1);
+            final int limit = request.path("limit").asInt(100);
+            final int to = Math.min(offset - 1 + limit, UPDATES);
+            sleep(API_LATENCY_MILLIS);
+            if (offset > to) {
+                // Новых апдейтов нет: настоящий Bot API держал бы запрос до timeout, здесь хватит короткой паузы
+                sleep(100);
+            }
+            final var response = new StringBuilder("{\"ok\":true,\"result\":[");
+            for (int id = offset; id <= to; ++id) {
+                if (id > offset) {
+                    response.append(',');
+                }
+                response.append(updates.get(id - 1));
+            }
+            final var bytes = response.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(String mode, long elapsedNanos) {
+        logger.info(
+            "{}: {} updates in {} ms, {} updates/s (api latency {} ms)",
+            mode,
+            UPDATES,
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            String.format("%.1f", UPDATES * 1_000_000_000.0 / elapsedNanos),
+            API_LATENCY_MILLIS
+        );
+    }
+
+    private record CountingBot(DefaultBotOptions options, CountDownLatch received) implements LongPollingBot {
+        @Override
+        public void onUpdateReceived(Update update) {
+            received.countDown();
+        }
+
+        @Override
+        public BotOptions getOptions() {
+            return options;
+        }
+
+        @Override
+        public void clearWebhook() {
+        }
+
+        @Override
+        public String getBotUsername() {
+            return "seeker_bot";
+        }
+
+        @Override
+        public String getBotToken() {
+            return TOKEN;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.homyakin.seeker.telegram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import ru.homyakin.seeker.utils.ResourceUtils;
+
+public class TelegramWebhookServerTest {
+    private static final String PATH = "/telegram/webhook";
+    private static final String SECRET = "secret";
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final LinkedBlockingQueue<Update> updates = new LinkedBlockingQueue<>();
+    private TelegramWebhookServer server;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new TelegramWebhookServer(config(SECRET));
+        server.start(updates::add);
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop();
+    }
+
+    @Test
+    @DisplayName("Recorded update is acknowledged and passed to consumer")
+    public void updateIsReceived() throws Exception {
+        final var json = ResourceUtils.getResourcePath("updates/group_command.json").orElseThrow().readAllBytes();
+
+        final var response = post(HttpRequest.BodyPublishers.ofByteArray(json), SECRET);
+        final var update = updates.poll(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertNotNull(update);
+        Assertions.assertEquals(100500, update.getUpdateId());
+        Assertions.assertEquals("/me@seeker_bot", update.getMessage().getText());
+        Assertions.assertEquals(-1002L, update.getMessage().getChatId());
+    }
+
+    @Test
+    @DisplayName("Updates of one chat are passed to consumer in order of delivery, even if first is slow")
+    public void updatesOfOneChatKeepOrder() throws Exception {
+        final var json = new String(
+            ResourceUtils.getResourcePath("updates/group_command.json").orElseThrow().readAllBytes(),
+            StandardCharsets.UTF_8
+        );
+        final var received = new LinkedBlockingQueue<Integer>();
+        final var orderedServer = new TelegramWebhookServer(config(SECRET));
+        orderedServer.start(update -> {
+            if (update.getUpdateId() == 1) {
+                sleep(200);
+            }
+            received.add(update.getUpdateId());
+        });
+        try {
+            for (final var updateId : new int[]{1, 2}) {
+                final var body = json.replace("100500", String.valueOf(updateId));
+                Assertions.assertEquals(200, post(orderedServer, HttpRequest.BodyPublishers.ofString(body), SECRET).statusCode());
+            }
+            Assertions.assertEquals(1, received.poll(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(2, received.poll(5, TimeUnit.SECONDS));
+        } finally {
+            orderedServer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Request with wrong secret or broken body is rejected")
+    public void badRequestsAreRejected() throws Exception {
+        Assertions.assertEquals(403, post(HttpRequest.BodyPublishers.ofString("{}"), "wrong").statusCode());
+        Assertions.assertEquals(400, post(HttpRequest.BodyPublishers.ofString("not json"), SECRET).statusCode());
+        Assertions.assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Server doesn't start without real secret")
+    public void defaultSecretIsRefused() {
+        for (final var secret : new String[]{null, "", "stub", "not allowed"}) {
+            final var unsafeServer = new TelegramWebhookServer(config(secret));
+            Assertions.assertThrows(IllegalStateException.class, () -> unsafeServer.start(updates::add));
+        }
+    }
+
+    private static TelegramBotConfig config(String secret) {
+        final var config = new TelegramBotConfig();
+        config.setWebhookPort(0);
+        config.setWebhookPath(PATH);
+        config.setWebhookSecret(secret);
+        config.setWebhookThreads(2);
+        return config;
+    }
+
+    private HttpResponse<Void> post(HttpRequest.BodyPublisher body, String secret) throws Exception {
+        return post(server, body, secret);
+    }
+
+    private HttpResponse<Void> post(
+        TelegramWebhookServer target,
+        HttpRequest.BodyPublisher body,
+        String secret
+    ) throws Exception {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + target.port() + PATH))
+            .header("X-Telegram-Bot-Api-Secret-Token", secret)
+            .POST(body)
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.homyakin.seeker.infrastructure.TextConstants;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallbackCodecBenchmark {
+    private final String legacyData = CommandType.JOIN_EVENT.getText() + TextConstants.CALLBACK_DELIMITER + 1234567L;
+    private final String data = CallbackCodec.encode(CommandType.JOIN_EVENT, 1234567L);
+
+    @Benchmark
+    public long splitDecode() {
+        // Так коллбэк разбирался раньше: split в парсере и ещё раз в фабрике команды
+        final var type = CommandType.getFromString(legacyData.split(TextConstants.CALLBACK_DELIMITER)[0]).orElseThrow();
+        return type.ordinal() + Long.parseLong(legacyData.split(TextConstants.CALLBACK_DELIMITER)[1]);
+    }
+
+    @Benchmark
+    public long codecDecode() {
+        final var decoded = CallbackCodec.decode(data).orElseThrow();
+        return decoded.type().ordinal() + decoded.longPayload();
+    }
+
+    @Benchmark
+    public long codecDecodeLegacy() {
+        final var decoded = CallbackCodec.decode(legacyData).orElseThrow();
+        return decoded.type().ordinal() + decoded.longPayload();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.personage.models.CharacteristicType;
+
+public class CallbackCodecTest {
+    private static final int MAX_CALLBACK_LENGTH = 64;
+    private static final List<CommandType> ID_TYPES = List.of(
+        CommandType.SELECT_LANGUAGE, CommandType.JOIN_EVENT, CommandType.ACCEPT_DUEL, CommandType.DECLINE_DUEL
+    );
+
+    @Test
+    @DisplayName("Decoded id equals encoded id")
+    public void idRoundTrip() {
+        final var random = new Random(42);
+        final var ids = new long[10000];
+        ids[0] = 0;
+        ids[1] = Long.MAX_VALUE;
+        ids[2] = Long.MIN_VALUE;
+        for (int i = 3; i < ids.length; ++i) {
+            ids[i] = random.nextLong();
+        }
+        for (final var type : ID_TYPES) {
+            for (final var id : ids) {
+                final var encoded = CallbackCodec.encode(type, id);
+                final var decoded = CallbackCodec.decode(encoded).orElseThrow();
+
+                Assertions.assertTrue(encoded.length() <= MAX_CALLBACK_LENGTH, encoded);
+                Assertions.assertEquals(type, decoded.type());
+                Assertions.assertEquals(id, decoded.longPayload());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Decoded enum and empty payloads equal encoded")
+    public void enumRoundTrip() {
+        for (final var characteristic : CharacteristicType.values()) {
+            final var decoded = CallbackCodec.decode(CallbackCodec.encode(CommandType.INCREASE_CHARACTERISTIC, characteristic));
+            Assertions.assertEquals(CommandType.INCREASE_CHARACTERISTIC, decoded.orElseThrow().type());
+            Assertions.assertEquals(characteristic.name(), decoded.orElseThrow().stringPayload());
+        }
+        final var decoded = CallbackCodec.decode(CallbackCodec.encode(CommandType.CONFIRM_RESET_CHARACTERISTICS));
+        Assertions.assertEquals(CommandType.CONFIRM_RESET_CHARACTERISTICS, decoded.orElseThrow().type());
+    }
+
+    @Test
+    @DisplayName("Buttons in old format are still decoded")
+    public void legacyFormat() {
+        final var joinEvent = CallbackCodec.decode("joinEvent~1234").orElseThrow();
+        Assertions.assertEquals(CommandType.JOIN_EVENT, joinEvent.type());
+        Assertions.assertEquals(1234, joinEvent.longPayload());
+
+        final var help = CallbackCodec.decode("help~RAIDS").orElseThrow();
+        Assertions.assertEquals(CommandType.SELECT_HELP, help.type());
+        Assertions.assertEquals("RAIDS", help.stringPayload());
+
+        Assertions.assertEquals(CommandType.CANCEL_RESET_CHARACTERISTICS, CallbackCodec.decode("cancelReset").orElseThrow().type());
+        Assertions.assertTrue(CallbackCodec.decode("/start").isEmpty());
+        Assertions.assertTrue(CallbackCodec.decode("Z123").isEmpty());
+        Assertions.assertTrue(CallbackCodec.decode("").isEmpty());
+    }
+}
@@ -0,0 +1,43 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandTypeBenchmark {
+    @Param({"/start", "/order12", "/spintop", "/other_bot_command", "♻️ Сброс", "just a message in private chat"})
+    private String text;
+    private final LinearCommandLookup linear = new LinearCommandLookup();
+
+    @Setup
+    public void setup() {
+        CommandType.fillLocaleMap(CommandTypeTest.MENU);
+        linear.fillLocaleMap(CommandTypeTest.MENU);
+    }
+
+    @Benchmark
+    public Optional<CommandType> linearLookup() {
+        return linear.getFromString(text);
+    }
+
+    @Benchmark
+    public Optional<CommandType> trieLookup() {
+        return CommandType.getFromString(text);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+import com.vdurmont.emoji.EmojiParser;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.locale.personal.MenuResource;
+import ru.homyakin.seeker.telegram.utils.TelegramUtils;
+
+public class CommandTypeTest {
+    public static final MenuResource MENU = new MenuResource("👤 Профиль", "🌍 Язык", "🛎 Стойка", "⬅️ Назад", "♻️ Сброс");
+    public static final List<String> TEXTS = List.of(
+        "/start", "/me", "/menu", "/order", "/order12", "/order_1", "/name", "/name Петя", "/nam", "/names",
+        "/spin", "/spintop", "/spint", "/stats", "/level_up", "/duel", "/help", "/language", "/unknown", "/",
+        "", "hello", "joinEvent", "joinEven", "joinEvents", "acceptDuel", "declineDuel", "help", "selectLanguage",
+        "confirmReset", "cancelReset", "increaseCharacteristic", "👤 Профиль", "👤 Профил", "🌍 Язык", "🛎 Стойка",
+        "⬅️ Назад", "♻️ Сброс", "♻️ Сброс!"
+    );
+
+    @Test
+    @DisplayName("Trie finds the same types as linear lookup")
+    public void trieEqualsLinearLookup() {
+        CommandType.fillLocaleMap(MENU);
+        final var linear = new LinearCommandLookup();
+        linear.fillLocaleMap(MENU);
+
+        final var texts = new ArrayList<>(TEXTS);
+        for (final var type : CommandType.values()) {
+            if (type.getText() != null) {
+                texts.add(type.getText());
+                texts.add(type.getText() + "x");
+                texts.add(type.getText().substring(0, type.getText().length() - 1));
+            }
+        }
+        for (final var text : texts) {
+            Assertions.assertEquals(linear.getFromString(text), CommandType.getFromString(text), text);
+        }
+    }
+
+    @Test
+    @DisplayName("Button with emoji alias in localization is found by unicode text")
+    public void unicodeButtonText() {
+        final var menu = new MenuResource(":bust_in_silhouette: Me", ":globe_with_meridians: Lang", "Desk", "Back", "Reset");
+        CommandType.fillLocaleMap(menu);
+
+        Assertions.assertEquals(
+            CommandType.GET_PROFILE,
+            CommandType.getFromString(EmojiParser.parseToUnicode(menu.profileButton())).orElseThrow()
+        );
+        Assertions.assertEquals(CommandType.CHANGE_LANGUAGE, CommandType.getFromString(menu.languageButton()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Group command is found without mention and arguments")
+    public void commandWithMention() {
+        final var text = "/order12@seeker_bot please";
+        Assertions.assertEquals(CommandType.ORDER, CommandType.getFromString(text, TelegramUtils.commandLength(text)).orElseThrow());
+        Assertions.assertEquals(5, TelegramUtils.commandLength("/spin\nnext line"));
+        Assertions.assertTrue(CommandType.getFromString("/unknown@seeker_bot", TelegramUtils.commandLength("/unknown@seeker_bot")).isEmpty());
+    }
+}
@@ -0,0 +1,39 @@
+package ru.homyakin.seeker.telegram.command.type;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import ru.homyakin.seeker.locale.personal.MenuResource;
+
+/*
+Прежний поиск типа команды: мапа по текстам кнопок и перебор всех типов. Нужен для сравнения с CommandTrie
+ */
+public class LinearCommandLookup {
+    private final Map<String, CommandType> textToType = new HashMap<>();
+
+    public void fillLocaleMap(MenuResource resource) {
+        textToType.put(resource.profileButton(), CommandType.GET_PROFILE);
+        textToType.put(resource.languageButton(), CommandType.CHANGE_LANGUAGE);
+        textToType.put(resource.receptionDeskButton(), CommandType.RECEPTION_DESK);
+        textToType.put(resource.backButton(), CommandType.BACK);
+        textToType.put(resource.resetCharacteristicsButton(), CommandType.RESET_CHARACTERISTICS);
+    }
+
+    public Optional<CommandType> getFromString(String text) {
+        if (textToType.containsKey(text)) {
+            return Optional.of(textToType.get(text));
+        }
+        return Arrays.stream(CommandType.values())
+            .filter(type -> check(type, text))
+            .findFirst();
+    }
+
+    private static boolean check(CommandType type, String text) {
+        return switch (type.checkType()) {
+            case EQUALS -> type.getText().equals(text);
+            case STARTS_WITH -> text.startsWith(type.getText());
+            case MAP -> false;
+        };
+    }
+}
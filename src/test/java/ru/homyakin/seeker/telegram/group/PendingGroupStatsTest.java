@@ -0,0 +1,71 @@
+package ru.homyakin.seeker.telegram.group;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import ru.homyakin.seeker.telegram.group.database.GroupStatsDao;
+import ru.homyakin.seeker.telegram.group.models.GroupStats;
+import ru.homyakin.seeker.test_utils.GroupUtils;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class PendingGroupStatsTest {
+    private final GroupStatsDao groupStatsDao = new GroupStatsDao(TestDatabase.dataSource());
+
+    @Test
+    @DisplayName("Flushed groups without new increments are removed, increments after flush are kept")
+    public void flushRemovesEmptyCounters() {
+        final var pendingGroupStats = new PendingGroupStats(groupStatsDao);
+        final long first = GroupUtils.createGroup(TestDatabase.jdbcTemplate(), true);
+        final long second = GroupUtils.createGroup(TestDatabase.jdbcTemplate(), true);
+        pendingGroupStats.add(new long[]{first, second}, 1, 2, 30);
+
+        pendingGroupStats.flush();
+
+        Assertions.assertEquals(0, pendingGroupStats.pendingGroupsCount());
+        Assertions.assertEquals(new GroupStats(first, 1, 2, 30), groupStatsDao.getById(first).orElseThrow());
+
+        pendingGroupStats.add(second, 0, 1, 0);
+        Assertions.assertEquals(1, pendingGroupStats.pendingGroupsCount());
+        Assertions.assertEquals(new GroupStats(second, 1, 3, 30), pendingGroupStats.getById(second).orElseThrow());
+        pendingGroupStats.flush();
+        Assertions.assertEquals(0, pendingGroupStats.pendingGroupsCount());
+        Assertions.assertEquals(new GroupStats(second, 1, 3, 30), groupStatsDao.getById(second).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Failed flush keeps counters, failed shutdown flush logs unflushed totals")
+    public void failedFlushKeepsAndLogsCounters() {
+        final var pendingGroupStats = new PendingGroupStats(new GroupStatsDao(TestDatabase.dataSource()) {
+            @Override
+            public void addBatch(long[] groupIds, int[] raidsComplete, int[] duelsComplete, long[] tavernMoneySpent) {
+                throw new IllegalStateException("Database is down");
+            }
+        });
+        pendingGroupStats.add(-1L, 1, 0, 0);
+        pendingGroupStats.add(-1L, 0, 4, 50);
+
+        Assertions.assertThrows(IllegalStateException.class, pendingGroupStats::flush);
+        Assertions.assertEquals(1, pendingGroupStats.pendingGroupsCount());
+
+        final var logger = (Logger) LoggerFactory.getLogger(PendingGroupStats.class);
+        final var appender = new ListAppender<ILoggingEvent>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            pendingGroupStats.shutdown();
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        Assertions.assertTrue(appender.list.stream().anyMatch(
+            event -> event.getLevel() == Level.ERROR && event.getFormattedMessage().equals(
+                "Unflushed stats of group -1: raids complete 1, duels complete 4, tavern money spent 50"
+            )
+        ));
+    }
+}
@@ -0,0 +1,155 @@
+package ru.homyakin.seeker.telegram.group.database;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.homyakin.seeker.game.models.Money;
+import ru.homyakin.seeker.game.personage.PersonageDao;
+import ru.homyakin.seeker.game.personage.models.Personage;
+import ru.homyakin.seeker.telegram.group.models.ResolvedGroupUser;
+import ru.homyakin.seeker.telegram.user.UserDao;
+import ru.homyakin.seeker.test_utils.CacheUtils;
+import ru.homyakin.seeker.test_utils.PersonageUtils;
+import ru.homyakin.seeker.test_utils.TestDatabase;
+
+public class GroupUserResolveDaoTest {
+    private static final int THREADS = 8;
+    private final PersonageDao personageDao = PersonageUtils.createDao(TestDatabase.dataSource());
+    private final GroupUserResolveDao groupUserResolveDao = createDao(personageDao);
+
+    @Test
+    @DisplayName("First contact creates group, stats, user, personage and membership in one query")
+    public void firstContactCreatesEverything() {
+        final long groupId = -TestDatabase.nextId();
+        final long userId = TestDatabase.nextId();
+
+        final var resolved = groupUserResolveDao.resolve(groupId, userId, Personage.createDefault()).orElseThrow();
+
+        final var params = Map.of("group", groupId, "user", userId, "personage", resolved.user().personageId());
+        Assertions.assertTrue(resolved.group().isActive());
+        Assertions.assertTrue(resolved.groupUser().isActive());
+        Assertions.assertTrue(resolved.isNewPersonage());
+        Assertions.assertEquals(1, count("SELECT count(*) FROM grouptg_stats WHERE grouptg_id = :group", params));
+        Assertions.assertEquals(
+            1,
+            count("SELECT count(*) FROM usertg WHERE id = :user AND personage_id = :personage", params)
+        );
+        Assertions.assertEquals(
+            1,
+            count("SELECT count(*) FROM grouptg_to_usertg WHERE grouptg_id = :group AND usertg_id = :user AND is_active", params)
+        );
+        Assertions.assertEquals(resolved.personage(), personageDao.getById(resolved.user().personageId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Repeated resolve reuses rows and reactivates group and membership")
+    public void repeatedResolveReactivates() {
+        final long groupId = -TestDatabase.nextId();
+        final long userId = TestDatabase.nextId();
+        final var first = groupUserResolveDao.resolve(groupId, userId, Personage.createDefault()).orElseThrow();
+        final var params = Map.of("group", groupId, "user", userId);
+        TestDatabase.jdbcTemplate().update("UPDATE grouptg SET is_active = false WHERE id = :group", params);
+        TestDatabase.jdbcTemplate().update(
+            "UPDATE grouptg_to_usertg SET is_active = false WHERE grouptg_id = :group AND usertg_id = :user",
+            params
+        );
+
+        final var second = groupUserResolveDao.resolve(groupId, userId, Personage.createDefault()).orElseThrow();
+
+        Assertions.assertEquals(first.user().personageId(), second.user().personageId());
+        Assertions.assertFalse(second.isNewPersonage());
+        Assertions.assertTrue(second.group().isActive());
+        Assertions.assertTrue(second.groupUser().isActive());
+        Assertions.assertEquals(1, count("SELECT count(*) FROM grouptg WHERE id = :group AND is_active", params));
+        Assertions.assertEquals(1, count("SELECT count(*) FROM grouptg_stats WHERE grouptg_id = :group", params));
+        Assertions.assertEquals(1, count("SELECT count(*) FROM grouptg_to_usertg WHERE usertg_id = :user AND is_active", params));
+    }
+
+    @Test
+    @DisplayName("Concurrent first contacts of one user create one personage without orphans, empty result is resolved by retry")
+    public void concurrentFirstContact() throws Exception {
+        final long userId = TestDatabase.nextId();
+        // Уникальное имя, чтобы найти все персонажи, вставленные гонкой
+        final var name = "race" + userId;
+        final var start = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        final var results = new ArrayList<Future<Optional<ResolvedGroupUser>>>();
+        try {
+            for (int i = 0; i < THREADS; ++i) {
+                final long groupId = -TestDatabase.nextId();
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return groupUserResolveDao.resolve(groupId, userId, named(name))
+                        .or(() -> groupUserResolveDao.resolve(groupId, userId, named(name)));
+                }));
+            }
+            start.countDown();
+            final var personageIds = new HashSet<Long>();
+            for (final var result : results) {
+                personageIds.add(result.get().orElseThrow().user().personageId());
+            }
+            Assertions.assertEquals(1, personageIds.size());
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(THREADS, count("SELECT count(*) FROM grouptg_to_usertg WHERE usertg_id = :user", Map.of("user", userId)));
+        Assertions.assertEquals(1, count("SELECT count(*) FROM personage WHERE name = :name", Map.of("name", name)));
+    }
+
+    @Test
+    @DisplayName("Existing personage from resolve snapshot is not cached over a later money change")
+    public void existingPersonageIsNotCached() {
+        final long userId = TestDatabase.nextId();
+        final var otherInstanceDao = createDao(PersonageUtils.createDao(TestDatabase.dataSource()));
+        final var created = otherInstanceDao.resolve(-TestDatabase.nextId(), userId, Personage.createDefault()).orElseThrow();
+        final long personageId = created.user().personageId();
+
+        final var resolved = groupUserResolveDao.resolve(-TestDatabase.nextId(), userId, Personage.createDefault()).orElseThrow();
+        // Начисление с другого экземпляра после снимка resolve
+        TestDatabase.jdbcTemplate().update(
+            "UPDATE personage SET money = money + 100 WHERE id = :id",
+            Map.of("id", personageId)
+        );
+
+        Assertions.assertTrue(created.isNewPersonage());
+        Assertions.assertFalse(resolved.isNewPersonage());
+        Assertions.assertEquals(
+            new Money(created.personage().money().value() + 100),
+            personageDao.getById(personageId).orElseThrow().money()
+        );
+    }
+
+    private static Personage named(String name) {
+        final var personage = Personage.createDefault();
+        return new Personage(
+            personage.id(),
+            name,
+            personage.money(),
+            personage.characteristics(),
+            personage.lastHealthChange()
+        );
+    }
+
+    private static int count(String sql, Map<String, ?> params) {
+        return TestDatabase.jdbcTemplate().queryForObject(sql, params, Integer.class);
+    }
+
+    private static GroupUserResolveDao createDao(PersonageDao personageDao) {
+        final var dataSource = TestDatabase.dataSource();
+        final var cacheFactory = CacheUtils.createFactory();
+        return new GroupUserResolveDao(
+            dataSource,
+            new GroupDao(dataSource, cacheFactory),
+            new UserDao(dataSource, cacheFactory),
+            new GroupUserDao(dataSource, cacheFactory),
+            personageDao
+        );
+    }
+}
@@ -0,0 +1,121 @@
+package ru.homyakin.seeker.telegram.sender;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+
+public class EditMessageCoalescerTest {
+    private static final Duration WINDOW = Duration.ofMillis(50);
+    private EditMessageCoalescer coalescer;
+    private final List<EditMessageText> sent = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        final var config = new TelegramSendQueueConfig();
+        config.setEditWindow(WINDOW);
+        config.setEditCacheSize(100);
+        coalescer = new EditMessageCoalescer(config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        coalescer.shutdown();
+    }
+
+    @Test()
+    @DisplayName("Only the latest edit in window is sent")
+    public void latestEditIsSent() throws InterruptedException {
+        coalescer.submit(edit(1, "first"), this::send);
+        coalescer.submit(edit(1, "second"), this::send);
+        coalescer.submit(edit(2, "other message"), this::send);
+        waitForFlush();
+
+        Assertions.assertEquals(2, sent.size());
+        Assertions.assertTrue(sent.contains(edit(1, "second")));
+        Assertions.assertTrue(sent.contains(edit(2, "other message")));
+    }
+
+    @Test()
+    @DisplayName("Edit equal to already sent content is skipped")
+    public void sameEditIsSkipped() throws InterruptedException {
+        coalescer.submit(edit(1, "text"), this::send);
+        waitForFlush();
+        coalescer.submit(edit(1, "text"), this::send);
+        waitForFlush();
+
+        Assertions.assertEquals(1, sent.size());
+    }
+
+    @Test()
+    @DisplayName("Edit is sent again if previous sending failed")
+    public void failedEditIsNotRemembered() throws InterruptedException {
+        coalescer.submit(edit(1, "text"), it -> CompletableFuture.completedFuture(false));
+        waitForFlush();
+        coalescer.submit(edit(1, "text"), this::send);
+        waitForFlush();
+
+        Assertions.assertEquals(1, sent.size());
+    }
+
+    @Test()
+    @DisplayName("Pending edits reach send queue before it is stopped")
+    public void pendingEditsAreSentOnShutdown() {
+        final var context = new AnnotationConfigApplicationContext();
+        context.registerBean(SimpleMeterRegistry.class);
+        context.registerBean(TelegramSendQueueConfig.class, EditMessageCoalescerTest::queueConfig);
+        // Коалесер регистрируется первым, без явной зависимости очередь остановилась бы раньше него
+        context.registerBean(EditMessageCoalescer.class);
+        context.registerBean(TelegramSendQueue.class);
+        context.refresh();
+        final var sendQueue = context.getBean(TelegramSendQueue.class);
+
+        context.getBean(EditMessageCoalescer.class).submit(
+            edit(1, "text"),
+            edit -> sendQueue.enqueueEdit(-1, () -> send(edit).join())
+        );
+        context.close();
+
+        Assertions.assertEquals(List.of(edit(1, "text")), sent);
+    }
+
+    private static TelegramSendQueueConfig queueConfig() {
+        final var config = new TelegramSendQueueConfig();
+        config.setEditWindow(Duration.ofMinutes(1));
+        config.setEditCacheSize(100);
+        config.setThreads(1);
+        config.setGlobalLimit(30);
+        config.setGlobalPeriod(Duration.ofSeconds(1));
+        config.setGroupLimit(20);
+        config.setGroupPeriod(Duration.ofMinutes(1));
+        config.setPrivateLimit(1);
+        config.setPrivatePeriod(Duration.ofSeconds(1));
+        config.setMaxRetries(3);
+        return config;
+    }
+
+    private CompletableFuture<Boolean> send(EditMessageText edit) {
+        sent.add(edit);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private static void waitForFlush() throws InterruptedException {
+        Thread.sleep(WINDOW.multipliedBy(4).toMillis());
+    }
+
+    private static EditMessageText edit(int messageId, String text) {
+        return EditMessageText.builder()
+            .chatId(-1L)
+            .messageId(messageId)
+            .text(text)
+            .build();
+    }
+}
@@ -0,0 +1,115 @@
+package ru.homyakin.seeker.telegram.sender;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.meta.api.objects.ApiResponse;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+public class TelegramSendQueueTest {
+    private TelegramSendQueue sendQueue;
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        sendQueue.shutdown();
+    }
+
+    @Test()
+    @DisplayName("Requests of one chat are sent in order")
+    public void requestsOfOneChatAreOrdered() {
+        sendQueue = createQueue(1000, 1000);
+        final var sent = Collections.synchronizedList(new ArrayList<Integer>());
+        final var futures = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < 100; ++i) {
+            final int number = i;
+            futures.add(sendQueue.enqueue(-1, () -> {
+                sent.add(number);
+                return number;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < 100; ++i) {
+            Assertions.assertEquals(i, sent.get(i));
+        }
+    }
+
+    @Test()
+    @DisplayName("Group requests over limit wait for the next period")
+    public void groupLimitIsRespected() {
+        sendQueue = createQueue(1000, 5);
+        final long start = System.nanoTime();
+        final List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            futures.add(sendQueue.enqueue(-1, System::nanoTime));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        Assertions.assertTrue(futures.get(4).join() - start < Duration.ofMillis(150).toNanos());
+        Assertions.assertTrue(futures.get(5).join() - start >= Duration.ofMillis(190).toNanos());
+    }
+
+    @Test()
+    @DisplayName("Edits don't spend group limit")
+    public void editsSkipGroupLimit() {
+        sendQueue = createQueue(1000, 1);
+        final long start = System.nanoTime();
+        sendQueue.enqueue(-1, System::nanoTime).join();
+        final List<CompletableFuture<Long>> edits = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            edits.add(sendQueue.enqueueEdit(-1, System::nanoTime));
+        }
+        final var message = sendQueue.enqueue(-1, System::nanoTime);
+        CompletableFuture.allOf(edits.toArray(CompletableFuture[]::new)).join();
+
+        Assertions.assertTrue(edits.get(4).join() - start < Duration.ofMillis(500).toNanos());
+        Assertions.assertTrue(message.join() - start >= Duration.ofMillis(900).toNanos());
+    }
+
+    @Test()
+    @DisplayName("Request is repeated after 429 and result is returned")
+    public void requestIsRetriedAfterTooManyRequests() throws Exception {
+        sendQueue = createQueue(1000, 1000);
+        final var tooManyRequests = new TelegramApiRequestException(
+            "Error sending message",
+            new ObjectMapper().readValue(
+                "{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests\",\"parameters\":{\"retry_after\":1}}",
+                new TypeReference<ApiResponse<Object>>() {}
+            )
+        );
+        final var attempts = new AtomicInteger();
+
+        final var result = sendQueue.enqueue(1, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw tooManyRequests;
+            }
+            return "sent";
+        });
+
+        Assertions.assertEquals("sent", result.join());
+        Assertions.assertEquals(2, attempts.get());
+    }
+
+    private static TelegramSendQueue createQueue(int globalLimit, int chatLimit) {
+        final var config = new TelegramSendQueueConfig();
+        config.setThreads(4);
+        config.setGlobalLimit(globalLimit);
+        config.setGlobalPeriod(Duration.ofSeconds(1));
+        config.setGroupLimit(chatLimit);
+        config.setGroupPeriod(Duration.ofSeconds(1));
+        config.setPrivateLimit(chatLimit);
+        config.setPrivatePeriod(Duration.ofSeconds(1));
+        config.setMaxRetries(3);
+        return new TelegramSendQueue(config, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,18 @@
+package ru.homyakin.seeker.test_utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import ru.homyakin.seeker.infrastructure.cache.EntityCacheConfig;
+import ru.homyakin.seeker.infrastructure.cache.EntityCacheFactory;
+
+public class CacheUtils {
+    /**
+     * Фабрика кэшей DAO: у каждого DAO, созданного с ней, свой кэш, как у отдельного экземпляра приложения
+     */
+    public static EntityCacheFactory createFactory() {
+        final var cacheConfig = new EntityCacheConfig();
+        cacheConfig.setMaximumSize(1000L);
+        cacheConfig.setExpireAfterWrite(Duration.ofMinutes(10));
+        return new EntityCacheFactory(cacheConfig, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,46 @@
+package ru.homyakin.seeker.test_utils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/*
+Строки событий для тестов DAO. Выключенное событие не попадает в каталог и не мешает запуску случайных событий
+ */
+public class EventUtils {
+    // У event.id нет последовательности, поэтому берётся следующий после уже существующих
+    private static final String CREATE_EVENT = """
+        INSERT INTO event (id, type_id, duration, is_enabled, weight)
+        SELECT coalesce(max(id), 0) + 1, 1, interval '1 hour', :is_enabled, :weight FROM event
+        RETURNING id
+        """;
+
+    private static final String LAUNCH_EVENT = """
+        INSERT INTO launched_event (event_id, start_date, end_date, is_active)
+        VALUES (:event_id, :start_date, :end_date, :is_active)
+        RETURNING id
+        """;
+
+    public static int createEvent(NamedParameterJdbcTemplate jdbcTemplate, boolean isEnabled, int weight) {
+        final var params = new HashMap<String, Object>();
+        params.put("is_enabled", isEnabled);
+        params.put("weight", weight);
+        return jdbcTemplate.queryForObject(CREATE_EVENT, params, Integer.class);
+    }
+
+    public static int createDisabledEvent(NamedParameterJdbcTemplate jdbcTemplate) {
+        return createEvent(jdbcTemplate, false, 0);
+    }
+
+    public static long launchEvent(NamedParameterJdbcTemplate jdbcTemplate, int eventId, boolean isActive) {
+        final var now = LocalDateTime.now();
+        final Map<String, Object> params = Map.of(
+            "event_id", eventId,
+            "start_date", now,
+            "end_date", now.plusHours(1),
+            "is_active", isActive
+        );
+        return jdbcTemplate.queryForObject(LAUNCH_EVENT, params, Long.class);
+    }
+}
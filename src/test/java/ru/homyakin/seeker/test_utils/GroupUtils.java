@@ -0,0 +1,32 @@
+package ru.homyakin.seeker.test_utils;
+
+import java.util.Map;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.homyakin.seeker.locale.Language;
+import ru.homyakin.seeker.utils.TimeUtils;
+
+public class GroupUtils {
+    /**
+     * Группа прямо в таблице, без кэша GroupDao. id отрицательный, как у групп в телеграме
+     */
+    public static long createGroup(NamedParameterJdbcTemplate jdbcTemplate, boolean isActive) {
+        return createGroup(jdbcTemplate, isActive, Language.DEFAULT);
+    }
+
+    public static long createGroup(NamedParameterJdbcTemplate jdbcTemplate, boolean isActive, Language language) {
+        final long id = -TestDatabase.nextId();
+        jdbcTemplate.update(
+            """
+            INSERT INTO grouptg (id, is_active, language_id, init_date, next_event_date)
+            VALUES (:id, :is_active, :language_id, :date, :date)
+            """,
+            Map.of(
+                "id", id,
+                "is_active", isActive,
+                "language_id", language.id(),
+                "date", TimeUtils.moscowTime()
+            )
+        );
+        return id;
+    }
+}
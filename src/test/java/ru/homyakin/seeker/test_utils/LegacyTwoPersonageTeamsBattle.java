@@ -0,0 +1,80 @@
+package ru.homyakin.seeker.test_utils;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+import ru.homyakin.seeker.game.battle.BattlePersonage;
+import ru.homyakin.seeker.game.battle.TwoPersonageTeamsBattle.Result;
+
+/*
+Движок боя до перехода на массивы, эталон для проверки TwoPersonageTeamsBattle
+ */
+public class LegacyTwoPersonageTeamsBattle {
+
+    public Result battle(ArrayList<BattlePersonage> firstTeam, ArrayList<BattlePersonage> secondTeam, RandomGenerator random) {
+        shuffle(firstTeam, random);
+        shuffle(secondTeam, random);
+
+        final var firstAliveTeam = firstTeam.stream()
+            .collect(Collectors.toMap(BattlePersonage::id, it -> it));
+        final Queue<Long> firstTeamAttackQueue = new LinkedList<>(firstTeam.stream().map(BattlePersonage::id).toList());
+
+        final var secondAliveTeam = secondTeam.stream()
+            .collect(Collectors.toMap(BattlePersonage::id, it -> it));
+        final Queue<Long> secondTeamAttackQueue = new LinkedList<>(secondTeam.stream().map(BattlePersonage::id).toList());
+
+        int teamTurn = random.nextInt(1, 3);
+        int turns = 0;
+        while (!firstAliveTeam.isEmpty() && !secondAliveTeam.isEmpty()) {
+            final var activeAliveTeam = teamTurn == 1 ? firstAliveTeam : secondAliveTeam;
+            final var activeTeamAttackQueue = teamTurn == 1 ? firstTeamAttackQueue : secondTeamAttackQueue;
+            final var enemyAliveTeam = teamTurn == 1 ? secondAliveTeam : firstAliveTeam;
+            final var personage = attackPersonage(activeAliveTeam, activeTeamAttackQueue);
+            final var targetPersonage = randomAlivePersonage(enemyAliveTeam, random);
+            personage.dealDamageToPersonage(targetPersonage, random);
+            activeTeamAttackQueue.add(personage.id());
+            if (targetPersonage.isDead()) {
+                enemyAliveTeam.remove(targetPersonage.id());
+            }
+            teamTurn = teamTurn == 1 ? 2 : 1;
+            ++turns;
+        }
+
+        if (firstAliveTeam.isEmpty()) {
+            return new Result.SecondTeamWin(turns);
+        } else  {
+            return new Result.FirstTeamWin(turns);
+        }
+    }
+
+    private BattlePersonage attackPersonage(Map<Long, BattlePersonage> alivePersonages, Queue<Long> attackQueue) {
+        assert !attackQueue.isEmpty();
+        Long personageId;
+        do {
+            personageId = attackQueue.poll();
+        } while (!alivePersonages.containsKey(personageId));
+        return alivePersonages.get(personageId);
+    }
+
+    private BattlePersonage randomAlivePersonage(Map<Long, BattlePersonage> alivePersonages, RandomGenerator random) {
+        final int index = random.nextInt(alivePersonages.size());
+        int i = 0;
+        for (final var entry : alivePersonages.entrySet()) {
+            if (i == index) {
+                return entry.getValue();
+            }
+            ++i;
+        }
+        return alivePersonages.values().stream().findFirst().orElseThrow();
+    }
+
+    // Collections.shuffle принимает только java.util.Random
+    private static void shuffle(ArrayList<BattlePersonage> team, RandomGenerator random) {
+        for (int i = team.size() - 1; i > 0; --i) {
+            team.set(i, team.set(random.nextInt(i + 1), team.get(i)));
+        }
+    }
+}
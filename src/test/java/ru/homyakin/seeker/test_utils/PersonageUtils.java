@@ -3,7 +3,10 @@ package ru.homyakin.seeker.test_utils;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import javax.sql.DataSource;
+import ru.homyakin.seeker.game.event.config.EventConfig;
 import ru.homyakin.seeker.game.models.Money;
+import ru.homyakin.seeker.game.personage.PersonageDao;
 import ru.homyakin.seeker.game.personage.models.Characteristics;
 import ru.homyakin.seeker.game.personage.models.Personage;
 
@@ -23,4 +26,13 @@ public class PersonageUtils {
         }
         return personages;
     }
+
+    /**
+     * DAO со своим кэшем, как у отдельного экземпляра приложения
+     */
+    public static PersonageDao createDao(DataSource dataSource) {
+        final var eventConfig = new EventConfig();
+        eventConfig.setParticipantsFetchSize(100);
+        return new PersonageDao(dataSource, eventConfig, CacheUtils.createFactory());
+    }
 }
@@ -0,0 +1,84 @@
+package ru.homyakin.seeker.test_utils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/*
+База для тестов DAO без докера: своя база через -Dtest.jdbcUrl, -Dtest.jdbcUser, -Dtest.jdbcPassword,
+иначе встроенный PostgreSQL. Миграции приложения накатываются один раз на весь запуск.
+База между тестами и запусками не чистится, поэтому идентификаторы тест берёт через nextId.
+ */
+public class TestDatabase {
+    // Чтобы не пересекаться с данными прошлых запусков на своей базе
+    private static final AtomicLong ids = new AtomicLong(System.currentTimeMillis() * 1000);
+    private static HikariDataSource dataSource;
+
+    public static synchronized DataSource dataSource() {
+        if (dataSource == null) {
+            dataSource = createDataSource();
+            migrate(dataSource);
+        }
+        return dataSource;
+    }
+
+    public static NamedParameterJdbcTemplate jdbcTemplate() {
+        return new NamedParameterJdbcTemplate(dataSource());
+    }
+
+    public static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(new DataSourceTransactionManager(dataSource()));
+    }
+
+    public static long nextId() {
+        return ids.incrementAndGet();
+    }
+
+    public static void migrate(DataSource dataSource) {
+        final var liquibase = new SpringLiquibase();
+        liquibase.setChangeLog("classpath:migrations/main-changelog.xml");
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (LiquibaseException e) {
+            throw new IllegalStateException("Unable to migrate test database", e);
+        }
+    }
+
+    private static HikariDataSource createDataSource() {
+        final var result = new HikariDataSource();
+        result.setMaximumPoolSize(8);
+        final var jdbcUrl = System.getProperty("test.jdbcUrl");
+        if (jdbcUrl != null) {
+            result.setJdbcUrl(jdbcUrl);
+            result.setUsername(System.getProperty("test.jdbcUser"));
+            result.setPassword(System.getProperty("test.jdbcPassword"));
+            return result;
+        }
+        final EmbeddedPostgres postgres;
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start embedded PostgreSQL", e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                postgres.close();
+            } catch (IOException ignored) {
+                // Процесс базы всё равно завершается вместе с jvm
+            }
+        }));
+        result.setJdbcUrl(postgres.getJdbcUrl("postgres", "postgres"));
+        result.setUsername("postgres");
+        return result;
+    }
+}
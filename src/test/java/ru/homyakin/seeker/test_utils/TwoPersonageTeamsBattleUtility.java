@@ -3,6 +3,7 @@ package ru.homyakin.seeker.test_utils;
 import java.util.ArrayList;
 import java.util.List;
 import ru.homyakin.seeker.game.battle.BattlePersonage;
+import ru.homyakin.seeker.game.battle.BattleRandom;
 import ru.homyakin.seeker.game.battle.TwoPersonageTeamsBattle;
 
 public class TwoPersonageTeamsBattleUtility {
@@ -10,11 +11,13 @@ public class TwoPersonageTeamsBattleUtility {
     private static final TwoPersonageTeamsBattle battle = new TwoPersonageTeamsBattle();
 
     public static double probabilityOfFirstTeamWin(List<BattlePersonage> firstTeam, List<BattlePersonage> secondTeam) {
+        final var random = BattleRandom.seeded(42);
         int firstTeamWins = 0;
         for (int i = 0; i < REPEAT; ++i) {
             final var result = battle.battle(
                 new ArrayList<>(firstTeam.stream().map(BattlePersonage::clone).toList()),
-                new ArrayList<>(secondTeam.stream().map(BattlePersonage::clone).toList())
+                new ArrayList<>(secondTeam.stream().map(BattlePersonage::clone).toList()),
+                random
             );
             if (result instanceof TwoPersonageTeamsBattle.Result.FirstTeamWin) {
                 ++firstTeamWins;
@@ -0,0 +1,34 @@
+package ru.homyakin.seeker.utils;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AliasSamplerTest {
+    @Test
+    @DisplayName("Frequencies follow weights, zero weight is never chosen")
+    public void frequenciesFollowWeights() {
+        final int[] weights = {1, 0, 3, 6};
+        final var sampler = new AliasSampler(weights);
+        final var random = new Random(42);
+        final int samples = 100_000;
+        final var counts = new int[weights.length];
+
+        for (int i = 0; i < samples; ++i) {
+            ++counts[sampler.sample(random)];
+        }
+
+        Assertions.assertEquals(0, counts[1]);
+        Assertions.assertEquals(0.1, (double) counts[0] / samples, 0.01);
+        Assertions.assertEquals(0.3, (double) counts[2] / samples, 0.01);
+        Assertions.assertEquals(0.6, (double) counts[3] / samples, 0.01);
+    }
+
+    @Test
+    @DisplayName("Weights without positive value are rejected")
+    public void allZeroWeightsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AliasSampler(new int[] {0, 0}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AliasSampler(new int[] {}));
+    }
+}